@@ -0,0 +1,61 @@
+package com.example.account.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.account.AccountApplication;
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountUser;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.AccountUserRepository;
+import com.example.account.type.AccountStatus;
+
+/**
+ * 벤치마크용 스프링 컨텍스트 (웹 서버 없이 H2 메모리 DB 사용)
+ */
+final class BenchmarkContext {
+    static final long INITIAL_BALANCE = Long.MAX_VALUE / 4;
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        List<String> all = new ArrayList<>();
+        all.add("spring.jpa.properties.hibernate.show_sql=false");
+        all.add("spring.jpa.properties.hibernate.format_sql=false");
+        all.add("spring.sql.init.mode=never");
+        all.add("logging.level.root=WARN");
+        all.addAll(List.of(properties));
+
+        return new SpringApplicationBuilder(AccountApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(all.toArray(new String[0]))
+                .run();
+    }
+
+    static AccountUser createUser(ConfigurableApplicationContext context) {
+        return context.getBean(AccountUserRepository.class)
+                .save(AccountUser.builder().build());
+    }
+
+    static List<String> createAccounts(ConfigurableApplicationContext context,
+                                       AccountUser accountUser, int count) {
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+        List<String> accountNumbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String accountNumber = String.valueOf(2_000_000_000L + i);
+            accountRepository.save(Account.builder()
+                    .accountUser(accountUser)
+                    .accountNumber(accountNumber)
+                    .accountStatus(AccountStatus.IN_USE)
+                    .balance(INITIAL_BALANCE)
+                    .build());
+            accountNumbers.add(accountNumber);
+        }
+        return accountNumbers;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.account.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.account.service.LockService;
+
+/**
+ * LockService lock/unlock 벤치마크
+ * REDIS 는 LocalRedisConfig 가 띄우는 embedded Redis 를 사용한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LockServiceBenchmark {
+    @Param({"REDIS", "LOCAL", "TWO_LEVEL"})
+    public String lockMode;
+
+    @Param({"1", "100"})
+    public int accounts;
+
+    private ConfigurableApplicationContext context;
+    private LockService lockService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("account.lock.mode=" + lockMode);
+        lockService = context.getBean(LockService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void lockUnlock_1thread() {
+        lockUnlock();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void lockUnlock_8threads() {
+        lockUnlock();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void lockUnlock_64threads() {
+        lockUnlock();
+    }
+
+    private void lockUnlock() {
+        String accountNumber = String.valueOf(
+                2_000_000_000L + ThreadLocalRandom.current().nextInt(accounts));
+        lockService.lock(accountNumber);
+        lockService.unlock(accountNumber);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.account.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.account.domain.TransactionOutbox;
+import com.example.account.repository.TransactionOutboxRepository;
+import com.example.account.service.InMemoryTransactionEventSink;
+import com.example.account.service.OutboxRelay;
+import com.example.account.service.TransactionIdGenerator;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+
+/**
+ * outbox relay 처리량 벤치마크 (JVM 내부 sink)
+ * 매 호출 전에 outbox 에 EVENTS 건을 쌓아 두고, relay 한 번으로 batch 단위로 모두 보내고 지우는 시간을 잰다.
+ * 이벤트 한 건당 시간으로 나오므로 batch-size 에 따른 읽기/삭제 비용 차이를 비교할 수 있다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+public class OutboxRelayBenchmark {
+    private static final int EVENTS = 10_000;
+
+    @Param({"100", "1000"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionOutboxRepository transactionOutboxRepository;
+    private InMemoryTransactionEventSink transactionEventSink;
+    private OutboxRelay outboxRelay;
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "account.outbox.sink=memory",
+                "account.outbox.memory.capacity=" + EVENTS,
+                "account.outbox.batch-size=" + batchSize,
+                "account.outbox.max-batches-per-run=" + EVENTS,
+                // 예약 실행은 시작할 때 한 번만 돌고, 측정 중에는 벤치마크만 relay 를 호출한다.
+                "account.outbox.poll-interval-millis=" + TimeUnit.HOURS.toMillis(1));
+        transactionOutboxRepository = context.getBean(TransactionOutboxRepository.class);
+        transactionEventSink = context.getBean(InMemoryTransactionEventSink.class);
+        outboxRelay = context.getBean(OutboxRelay.class);
+        transactionIdGenerator = context.getBean(TransactionIdGenerator.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void fillOutbox() {
+        transactionEventSink.clear();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<TransactionOutbox> outboxes = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            outboxes.add(TransactionOutbox.builder()
+                    .transactionId(transactionIdGenerator.generate())
+                    .accountNumber(String.valueOf(2_000_000_000L + i % 100))
+                    .transactionType(TransactionType.USE)
+                    .transactionResultType(TransactionResultType.S)
+                    .amount(100L)
+                    .balanceSnapshot(BenchmarkContext.INITIAL_BALANCE)
+                    .transactedAt(now)
+                    .createdAt(now)
+                    .build());
+        }
+        transactionOutboxRepository.saveAll(outboxes);
+    }
+
+    @TearDown(Level.Invocation)
+    public void verifyDrained() {
+        if (transactionEventSink.getEvents().size() != EVENTS) {
+            throw new IllegalStateException("Outbox not drained : "
+                    + transactionEventSink.getEvents().size() + " / " + EVENTS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void relay() {
+        outboxRelay.relay();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.account.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.account.domain.AccountUser;
+import com.example.account.dto.TransactionDto;
+import com.example.account.service.DatabaseLockService;
+import com.example.account.service.LockService;
+import com.example.account.service.TransactionService;
+
+/**
+ * Redis lock failover 를 켰을 때 정상 상태에서 더 드는 비용 (Redis lock + 계좌 row lock)
+ * failover 가 true 면 Redis 가 정상이어도 잔액 변경마다 SELECT ... FOR UPDATE 를 같이 실행한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RowLockBenchmark {
+    private static final long AMOUNT = 100L;
+
+    @Param({"false", "true"})
+    public boolean failover;
+
+    @Param({"1", "100"})
+    public int accounts;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private LockService lockService;
+    private DatabaseLockService databaseLockService;
+    private AccountUser accountUser;
+    private List<String> accountNumbers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "account.lock.mode=REDIS",
+                "account.lock.failover.enabled=" + failover);
+        transactionService = context.getBean(TransactionService.class);
+        lockService = context.getBean(LockService.class);
+        databaseLockService = context.getBean(DatabaseLockService.class);
+
+        accountUser = BenchmarkContext.createUser(context);
+        accountNumbers = BenchmarkContext.createAccounts(context, accountUser, accounts);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public TransactionDto useBalance_1thread() {
+        return useBalance();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public TransactionDto useBalance_8threads() {
+        return useBalance();
+    }
+
+    private TransactionDto useBalance() {
+        String accountNumber = accountNumbers.get(
+                ThreadLocalRandom.current().nextInt(accounts));
+        lockService.lock(accountNumber);
+        try {
+            return databaseLockService.executeIfRequired(() ->
+                    transactionService.useBalance(accountUser.getId(), accountNumber, AMOUNT));
+        } finally {
+            lockService.unlock(accountNumber);
+        }
+    }
+}
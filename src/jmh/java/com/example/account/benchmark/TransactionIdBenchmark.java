@@ -0,0 +1,48 @@
+package com.example.account.benchmark;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.example.account.service.TransactionIdGenerator;
+
+/**
+ * 기존 UUID 문자열 방식과 시간 순 ID 생성기 비교
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionIdBenchmark {
+    private final TransactionIdGenerator transactionIdGenerator = new TransactionIdGenerator(1);
+
+    @Benchmark
+    @Threads(1)
+    public String randomUuid_1thread() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String randomUuid_8threads() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String timeOrdered_1thread() {
+        return transactionIdGenerator.generate();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String timeOrdered_8threads() {
+        return transactionIdGenerator.generate();
+    }
+}
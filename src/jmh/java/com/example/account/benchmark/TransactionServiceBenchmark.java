@@ -0,0 +1,150 @@
+package com.example.account.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.account.domain.AccountUser;
+import com.example.account.dto.TransactionDto;
+import com.example.account.service.LockService;
+import com.example.account.service.TransactionService;
+
+/**
+ * 거래 hot path (lock + JPA) 벤치마크
+ * 스레드 수(1, 8, 64) x 계좌 수(1, 100) 조합으로 경합 정도를 고정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TransactionServiceBenchmark {
+    private static final long AMOUNT = 100L;
+
+    @Param({"1", "100"})
+    public int accounts;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private LockService lockService;
+    private AccountUser accountUser;
+    private List<String> accountNumbers;
+    private List<String> transactionIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("account.lock.mode=LOCAL");
+        transactionService = context.getBean(TransactionService.class);
+        lockService = context.getBean(LockService.class);
+
+        accountUser = BenchmarkContext.createUser(context);
+        accountNumbers = BenchmarkContext.createAccounts(context, accountUser, accounts);
+        transactionIds = new ArrayList<>(accounts);
+        for (String accountNumber : accountNumbers) {
+            transactionIds.add(transactionService
+                    .useBalance(accountUser.getId(), accountNumber, AMOUNT)
+                    .getTransactionId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public TransactionDto useBalance_1thread() {
+        return useBalance();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public TransactionDto useBalance_8threads() {
+        return useBalance();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public TransactionDto useBalance_64threads() {
+        return useBalance();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public TransactionDto cancelBalance_1thread() {
+        return cancelBalance();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public TransactionDto cancelBalance_8threads() {
+        return cancelBalance();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public TransactionDto cancelBalance_64threads() {
+        return cancelBalance();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public TransactionDto queryTransactionId_1thread() {
+        return queryTransactionId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public TransactionDto queryTransactionId_8threads() {
+        return queryTransactionId();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public TransactionDto queryTransactionId_64threads() {
+        return queryTransactionId();
+    }
+
+    private TransactionDto useBalance() {
+        String accountNumber = accountNumbers.get(randomIndex());
+        lockService.lock(accountNumber);
+        try {
+            return transactionService.useBalance(accountUser.getId(), accountNumber, AMOUNT);
+        } finally {
+            lockService.unlock(accountNumber);
+        }
+    }
+
+    private TransactionDto cancelBalance() {
+        int index = randomIndex();
+        String accountNumber = accountNumbers.get(index);
+        lockService.lock(accountNumber);
+        try {
+            return transactionService.cancelBalance(
+                    transactionIds.get(index), accountNumber, AMOUNT);
+        } finally {
+            lockService.unlock(accountNumber);
+        }
+    }
+
+    private TransactionDto queryTransactionId() {
+        return transactionService.queryTransactionId(transactionIds.get(randomIndex()));
+    }
+
+    private int randomIndex() {
+        return ThreadLocalRandom.current().nextInt(accounts);
+    }
+}
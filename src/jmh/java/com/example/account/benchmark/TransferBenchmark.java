@@ -0,0 +1,90 @@
+package com.example.account.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.account.domain.AccountUser;
+import com.example.account.dto.Transfer;
+import com.example.account.service.TransferService;
+
+/**
+ * 계좌 이체 벤치마크 (적은 수의 계좌 사이에서 양방향 이체가 계속 엇갈리는 경우)
+ * 계좌 두 개를 임의로 골라 이체하므로 A -> B 와 B -> A 가 동시에 실행된다.
+ * 교착 상태가 생기면 LOCK_TIMEOUT 으로 끝나지 않고 처리량이 0 에 가깝게 떨어진다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TransferBenchmark {
+    private static final long AMOUNT = 100L;
+
+    @Param({"REDIS", "LOCAL"})
+    public String lockMode;
+
+    @Param({"LOCK", "ATOMIC_SQL"})
+    public String balanceMode;
+
+    @Param({"2", "10"})
+    public int accounts;
+
+    private ConfigurableApplicationContext context;
+    private TransferService transferService;
+    private AccountUser accountUser;
+    private List<String> accountNumbers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "account.lock.mode=" + lockMode,
+                "account.balance.mode=" + balanceMode);
+        transferService = context.getBean(TransferService.class);
+
+        accountUser = BenchmarkContext.createUser(context);
+        accountNumbers = BenchmarkContext.createAccounts(context, accountUser, accounts);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Transfer.Response transfer_1thread() {
+        return transfer();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Transfer.Response transfer_8threads() {
+        return transfer();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Transfer.Response transfer_64threads() {
+        return transfer();
+    }
+
+    private Transfer.Response transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accounts);
+        int to = (from + 1 + random.nextInt(accounts - 1)) % accounts;
+        return transferService.transfer(accountUser.getId(),
+                accountNumbers.get(from), accountNumbers.get(to), AMOUNT);
+    }
+}
@@ -2,12 +2,18 @@ package com.example.account;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableScheduling
 @SpringBootApplication
 public class AccountApplication {
 
 	public static void main(String[] args) {
- 		SpringApplication.run(AccountApplication.class, args);
+ 		SpringApplication application = new SpringApplication(AccountApplication.class);
+		// 시작 단계별 소요 시간 기록 (GET /actuator/startup)
+		application.setApplicationStartup(new BufferingApplicationStartup(2048));
+		application.run(args);
 	}
 
 }
\ No newline at end of file
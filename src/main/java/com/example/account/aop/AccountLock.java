@@ -12,5 +12,13 @@ import java.lang.annotation.Target;
 @Documented
 @Inherited
 public @interface AccountLock {
+    /**
+     * lock 획득 대기 시간 (ms)
+     */
     long tryLockTime() default 5000L;
+
+    /**
+     * lock 임대 시간 (ms), 음수면 관측된 점유 시간에 맞춰 자동으로 연장한다.
+     */
+    long leaseTime() default -1L;
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.example.account.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.example.account.type.ExecutionMode;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 잔액 변경처럼 JDBC, Redisson 으로 막히는 작업을 요청 스레드(Tomcat) 밖에서 실행한다.
+ * PLATFORM : 크기가 정해진 스레드 풀, 큐가 가득 차면 거절(TaskRejectedException)
+ * VIRTUAL : 작업마다 virtual thread (JDK 21 이상에서 실행할 때만, 아니면 PLATFORM 으로 대체)
+ */
+@Slf4j
+@Configuration
+public class AsyncConfig {
+    public static final String ACCOUNT_TASK_EXECUTOR = "accountTaskExecutor";
+
+    @Value("${account.execution.mode:PLATFORM}")
+    private ExecutionMode executionMode = ExecutionMode.PLATFORM;
+
+    @Value("${account.execution.pool-size:64}")
+    private int poolSize;
+
+    @Value("${account.execution.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Bean(name = ACCOUNT_TASK_EXECUTOR)
+    public Executor accountTaskExecutor() {
+        if (executionMode == ExecutionMode.VIRTUAL) {
+            ExecutorService virtualThreadExecutor = newVirtualThreadExecutor();
+            if (virtualThreadExecutor != null) {
+                return new TaskExecutorAdapter(virtualThreadExecutor);
+            }
+            log.warn("Virtual threads are not supported on Java {}. Using platform threads.",
+                    System.getProperty("java.version"));
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("account-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 빌드는 Java 11 기준이라 Executors.newVirtualThreadPerTaskExecutor 를 reflection 으로 찾는다.
+     */
+    private ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) java.util.concurrent.Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
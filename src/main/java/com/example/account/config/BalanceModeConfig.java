@@ -0,0 +1,19 @@
+package com.example.account.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.account.type.BalanceMode;
+
+/**
+ * account.balance.mode 는 여기에서 한 번만 읽고, 필요한 곳에서는 BalanceMode bean 을 주입받는다.
+ */
+@Configuration
+public class BalanceModeConfig {
+    @Bean
+    public BalanceMode balanceMode(
+            @Value("${account.balance.mode:LOCK}") BalanceMode balanceMode) {
+        return balanceMode;
+    }
+}
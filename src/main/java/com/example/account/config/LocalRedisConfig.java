@@ -1,28 +1,62 @@
 package com.example.account.config;
 
-import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+
 import javax.annotation.PreDestroy;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
+import lombok.extern.slf4j.Slf4j;
 import redis.embedded.RedisServer;
 
+/**
+ * 내장 redis-server (embedded-redis 프로필)
+ * 컨텍스트 시작 시에는 띄우지 않고, RedissonClient 가 처음 만들어질 때 start() 로 띄운다.
+ * spring.redis.port 가 0 이면 빈 포트를 골라서 사용한다.
+ */
+@Slf4j
+@Profile(LocalRedisConfig.PROFILE)
 @Configuration
 public class LocalRedisConfig {
-    @Value("${spring.redis.port}")
+    public static final String PROFILE = "embedded-redis";
+
+    @Value("${spring.redis.port:0}")
     private int redisPort;
 
     private RedisServer redisServer;
+    private int port;
 
-    @PostConstruct
-    public void startRedis() {
-        redisServer = new RedisServer(redisPort);
-        redisServer.start();
+    public synchronized int start() {
+        if (redisServer == null) {
+            long startedAt = System.nanoTime();
+            port = redisPort > 0 ? redisPort : findFreePort();
+            RedisServer server = new RedisServer(port);
+            server.start();
+            redisServer = server;
+            log.info("Embedded redis started on port {} in {} ms", port,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        }
+        return port;
     }
 
     @PreDestroy
-    public void stopRedis() {
-        redisServer.stop();
+    public synchronized void stopRedis() {
+        if (redisServer != null) {
+            redisServer.stop();
+            redisServer = null;
+        }
+    }
+
+    private static int findFreePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            socket.setReuseAddress(true);
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException("No free port for embedded redis", e);
+        }
     }
-}
\ No newline at end of file
+}
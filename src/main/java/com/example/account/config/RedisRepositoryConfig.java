@@ -1,12 +1,23 @@
 package com.example.account.config;
 
+import java.util.concurrent.TimeUnit;
+
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
 import org.redisson.config.Config;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import lombok.extern.slf4j.Slf4j;
 
+/**
+ * RedissonClient 는 처음 사용할 때 만든다. (주입받는 곳은 모두 @Lazy 프록시)
+ * standalone 프로필처럼 Redis 를 쓰지 않는 설정에서는 연결하지 않는다.
+ */
+@Slf4j
 @Configuration
 public class RedisRepositoryConfig {
     @Value("${spring.redis.host}")
@@ -15,11 +26,19 @@ public class RedisRepositoryConfig {
     @Value("${spring.redis.port}")
     private int redisPort;
 
-    @Bean
-    public RedissonClient redissonClient() {
+    @Lazy
+    @Bean(destroyMethod = "shutdown")
+    public RedissonClient redissonClient(ObjectProvider<LocalRedisConfig> localRedisConfig) {
+        LocalRedisConfig embedded = localRedisConfig.getIfAvailable();
+        int port = embedded != null ? embedded.start() : redisPort;
+
+        long startedAt = System.nanoTime();
         Config config = new Config();
-        config.useSingleServer().setAddress("redis://" + redisHost + ":" + redisPort);
+        config.useSingleServer().setAddress("redis://" + redisHost + ":" + port);
 
-        return Redisson.create(config);
+        RedissonClient redissonClient = Redisson.create(config);
+        log.info("Redisson client connected to {}:{} in {} ms", redisHost, port,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        return redissonClient;
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,11 @@
 package com.example.account.controller;
 
-import com.example.account.domain.Account;
+import com.example.account.dto.AccountDto;
 import com.example.account.dto.CreateAccount;
+import com.example.account.dto.ShardAccount;
 import com.example.account.service.AccountServiceTest;
 import com.example.account.service.RedisTestService;
+import com.example.account.service.ShardedBalanceService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,6 +16,7 @@ import javax.validation.Valid;
 public class AccountController {
     private final AccountServiceTest accountService;
     private final RedisTestService redisTestService;
+    private final ShardedBalanceService shardedBalanceService;
 
     @PostMapping("/account")
     public CreateAccount.Response createAccount(
@@ -27,13 +30,28 @@ public class AccountController {
         );
     }
 
+    /**
+     * 요청이 몰리는 계좌의 잔액을 여러 shard 로 나눈다.
+     */
+    @PostMapping("/account/shard")
+    public ShardAccount.Response shardAccount(
+            @RequestBody @Valid ShardAccount.Request request
+    ) {
+        return ShardAccount.Response.from(
+                shardedBalanceService.shardAccount(
+                        request.getAccountNumber(),
+                        request.getShardCount()
+                )
+        );
+    }
+
     @GetMapping("/get-lock")
     public String getLock() {
         return redisTestService.getLock();
     }
 
     @GetMapping("/account/{id}")
-    public Account getAccount(
+    public AccountDto getAccount(
             @PathVariable Long id){
         return accountService.getAccount(id);
     }
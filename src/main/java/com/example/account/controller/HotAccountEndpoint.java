@@ -0,0 +1,27 @@
+package com.example.account.controller;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import com.example.account.dto.HotAccount;
+import com.example.account.service.HotAccountTracker;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 마지막 주기의 hot 계좌 목록 (GET /actuator/hotaccounts)
+ */
+@Component
+@Endpoint(id = "hotaccounts")
+@RequiredArgsConstructor
+public class HotAccountEndpoint {
+    private final HotAccountTracker hotAccountTracker;
+
+    @ReadOperation
+    public List<HotAccount> hotAccounts() {
+        return hotAccountTracker.getTopAccounts();
+    }
+}
@@ -1,71 +1,227 @@
 package com.example.account.controller;
 
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import javax.validation.Valid;
 
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import com.example.account.aop.AccountLock;
+import com.example.account.config.AsyncConfig;
+import com.example.account.dto.AccountMetadata;
+import com.example.account.dto.BalanceOperation;
+import com.example.account.dto.BatchTransaction;
 import com.example.account.dto.CancelBalance;
+import com.example.account.dto.GetBalance;
+import com.example.account.dto.Hold;
+import com.example.account.dto.Transfer;
 import com.example.account.dto.UseBalance;
-import com.example.account.exception.AccountException;
-import com.example.account.service.TransactionService;
-import com.example.account.type.TransactionResultType;
-import com.example.account.type.TransactionType;
-
-import lombok.RequiredArgsConstructor;
+import com.example.account.service.BalanceService;
+import com.example.account.service.BatchTransactionService;
+import com.example.account.service.HoldService;
+import com.example.account.service.IdempotencyService;
+import com.example.account.service.LedgerService;
+import com.example.account.service.TransactionCoalescer;
+import com.example.account.service.TransactionHistoryService;
+import com.example.account.service.TransferService;
 
-@Slf4j
+/**
+ * 잔액 변경은 요청 스레드를 붙잡지 않도록 비동기로 처리하고 CompletableFuture 를 반환한다.
+ * lock 과 실패 거래 저장은 BalanceService 에서 처리한다.
+ */
 @RestController
-@RequiredArgsConstructor
 public class TransactionController {
-    private final TransactionService transactionService;
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    private final BalanceService balanceService;
+    private final TransferService transferService;
+    private final HoldService holdService;
+    private final TransactionCoalescer transactionCoalescer;
+    private final BatchTransactionService batchTransactionService;
+    private final TransactionHistoryService transactionHistoryService;
+    private final LedgerService ledgerService;
+    private final IdempotencyService idempotencyService;
+    private final Executor accountTaskExecutor;
+
+    public TransactionController(
+            BalanceService balanceService,
+            TransferService transferService,
+            HoldService holdService,
+            TransactionCoalescer transactionCoalescer,
+            BatchTransactionService batchTransactionService,
+            TransactionHistoryService transactionHistoryService,
+            LedgerService ledgerService,
+            IdempotencyService idempotencyService,
+            @Qualifier(AsyncConfig.ACCOUNT_TASK_EXECUTOR) Executor accountTaskExecutor) {
+        this.balanceService = balanceService;
+        this.transferService = transferService;
+        this.holdService = holdService;
+        this.transactionCoalescer = transactionCoalescer;
+        this.batchTransactionService = batchTransactionService;
+        this.transactionHistoryService = transactionHistoryService;
+        this.ledgerService = ledgerService;
+        this.idempotencyService = idempotencyService;
+        this.accountTaskExecutor = accountTaskExecutor;
+    }
 
+    /**
+     * Idempotency-Key 가 같은 재요청은 lock 없이 처음 요청의 응답을 돌려준다.
+     */
     @PostMapping("/transaction/use")
-    @AccountLock
-    public UseBalance.Response useBalance(
+    public CompletableFuture<UseBalance.Response> useBalance(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
             @Valid @RequestBody UseBalance.Request request
-    ) throws InterruptedException {
-        try {
-            Thread.sleep(5000L);
-            return UseBalance.Response.from(
-                    transactionService.useBalance(request.getUserId(),
-                            request.getAccountNumber(), request.getAmount())
-            );
-        } catch (AccountException e) {
-            log.error("Failed to use balance. ");
-
-            transactionService.saveAndFailedUseTransaction(
-                    request.getAccountNumber(),
-                    request.getAmount()
-            );
-
-            throw e;
-        }
+    ) {
+        return idempotencyService.execute(IdempotencyService.USE,
+                request.getAccountNumber(), idempotencyKey, request,
+                () -> processUseBalance(request));
     }
 
     @DeleteMapping("/cancel")
-    @AccountLock
-    public CancelBalance.CbResponse cancelBalance(
+    public CompletableFuture<CancelBalance.CbResponse> cancelBalance(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
             @Valid @RequestBody CancelBalance.CbRequest request
-    ) throws InterruptedException {
-        try {
-            return CancelBalance.CbResponse.fromDto(
-                    transactionService.cancelBalance(
+    ) {
+        return idempotencyService.execute(IdempotencyService.CANCEL,
+                request.getAccountNumber(), idempotencyKey, request,
+                () -> processCancelBalance(request));
+    }
+
+    /**
+     * 두 계좌 사이의 이체, 출금과 입금은 하나의 DB 트랜잭션에서 처리된다.
+     */
+    @PostMapping("/transaction/transfer")
+    public CompletableFuture<Transfer.Response> transfer(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @Valid @RequestBody Transfer.Request request
+    ) {
+        return idempotencyService.execute(IdempotencyService.TRANSFER,
+                request.getFromAccountNumber(), idempotencyKey, request,
+                () -> CompletableFuture.supplyAsync(
+                        () -> transferService.transfer(request), accountTaskExecutor));
+    }
+
+    /**
+     * 승인 : 사용 가능 잔액에서 금액을 묶어 둔다. 매입하거나 취소하지 않으면 만료 시각에 풀린다.
+     */
+    @PostMapping("/transaction/authorize")
+    public CompletableFuture<Hold.Response> authorize(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @Valid @RequestBody Hold.AuthorizeRequest request
+    ) {
+        return idempotencyService.execute(IdempotencyService.AUTHORIZE,
+                request.getAccountNumber(), idempotencyKey, request,
+                () -> CompletableFuture
+                        .supplyAsync(() -> holdService.authorize(request), accountTaskExecutor)
+                        .thenApply(Hold.Response::fromDto));
+    }
+
+    @PostMapping("/transaction/capture")
+    public CompletableFuture<Hold.Response> capture(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @Valid @RequestBody Hold.CaptureRequest request
+    ) {
+        return idempotencyService.execute(IdempotencyService.CAPTURE,
+                request.getHoldId(), idempotencyKey, request,
+                () -> CompletableFuture
+                        .supplyAsync(() -> holdService.capture(request), accountTaskExecutor)
+                        .thenApply(Hold.Response::fromDto));
+    }
+
+    @PostMapping("/transaction/void")
+    public CompletableFuture<Hold.Response> voidHold(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @Valid @RequestBody Hold.VoidRequest request
+    ) {
+        return idempotencyService.execute(IdempotencyService.VOID,
+                request.getHoldId(), idempotencyKey, request,
+                () -> CompletableFuture
+                        .supplyAsync(() -> holdService.voidHold(request), accountTaskExecutor)
+                        .thenApply(Hold.Response::fromDto));
+    }
+
+    private CompletableFuture<UseBalance.Response> processUseBalance(
+            UseBalance.Request request) {
+        if (transactionCoalescer.shouldCoalesce(request.getAccountNumber())) {
+            return transactionCoalescer.submit(BalanceOperation.use(
+                            request.getUserId(),
+                            request.getAccountNumber(),
+                            request.getAmount()))
+                    .thenApply(UseBalance.Response::fromDto);
+        }
+
+        return CompletableFuture
+                .supplyAsync(() -> balanceService.useBalance(request), accountTaskExecutor)
+                .thenApply(UseBalance.Response::fromDto);
+    }
+
+    private CompletableFuture<CancelBalance.CbResponse> processCancelBalance(
+            CancelBalance.CbRequest request) {
+        if (transactionCoalescer.shouldCoalesce(request.getAccountNumber())) {
+            return transactionCoalescer.submit(BalanceOperation.cancel(
                             request.getTransactionId(),
                             request.getAccountNumber(),
-                            request.getAmount())
-            );
-        } catch(AccountException e) {
-            transactionService.saveAndFailedUseTransaction(
-                    TransactionType.CANCEL,
-                    TransactionResultType.F,
-                    request.getAccountNumber(),
-                    request.getAmount());
-            throw e;
+                            request.getAmount()))
+                    .thenApply(CancelBalance.CbResponse::fromDto);
         }
+
+        return CompletableFuture
+                .supplyAsync(() -> balanceService.cancelBalance(request), accountTaskExecutor)
+                .thenApply(CancelBalance.CbResponse::fromDto);
+    }
+
+    /**
+     * 여러 건의 사용/취소를 한 번에 처리한다. 결과는 요청 순서대로 반환한다.
+     */
+    @PostMapping("/transaction/batch")
+    public CompletableFuture<BatchTransaction.Response> batch(
+            @Valid @RequestBody BatchTransaction.Request request
+    ) {
+        return batchTransactionService.apply(request.getOperations())
+                .thenApply(results -> BatchTransaction.Response.builder()
+                        .results(results)
+                        .build());
+    }
+
+    /**
+     * 계좌의 전체 거래 내역을 NDJSON 으로 스트리밍한다. (오래된 거래부터)
+     */
+    @GetMapping("/account/{accountNumber}/transactions")
+    public ResponseEntity<StreamingResponseBody> transactionHistory(
+            @PathVariable String accountNumber
+    ) {
+        AccountMetadata account = transactionHistoryService.getAccount(accountNumber);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> transactionHistoryService.export(account, outputStream));
+    }
+
+    /**
+     * 원장 모드에서 특정 시점의 잔액을 조회한다.
+     */
+    @GetMapping("/account/{accountNumber}/balance")
+    public GetBalance balanceAt(
+            @PathVariable String accountNumber,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at
+    ) {
+        return GetBalance.builder()
+                .accountNumber(accountNumber)
+                .balance(ledgerService.getBalanceAt(accountNumber, at))
+                .at(at)
+                .build();
     }
 }
\ No newline at end of file
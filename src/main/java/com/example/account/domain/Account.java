@@ -1,9 +1,13 @@
 package com.example.account.domain;
 
+import com.example.account.exception.AccountException;
 import com.example.account.type.AccountStatus;
+import com.example.account.type.ErrorCode;
 import lombok.*;
 
 import javax.persistence.*;
+
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -22,7 +26,7 @@ public class Account {
     @GeneratedValue
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private AccountUser accountUser;
     private String accountNumber;
 
@@ -30,6 +34,17 @@ public class Account {
     private AccountStatus accountStatus;
     private Long balance;
 
+    // 승인(BalanceHold)으로 묶인 금액, 사용 가능 잔액 = balance - heldAmount
+    @Builder.Default
+    @ColumnDefault("0")
+    private Long heldAmount = 0L;
+
+    // 분할 잔액 계좌의 shard 수, null 이면 balance 하나로 관리한다. (AccountBalanceShard)
+    private Integer shardCount;
+
+    @Version
+    private Long version;
+
     private LocalDateTime registeredAt;
     private LocalDateTime unRegisteredAt;
 
@@ -37,4 +52,22 @@ public class Account {
     private LocalDateTime createdAt;
     @LastModifiedDate
     private LocalDateTime updatedAt;
+
+    public Long getAvailableBalance() {
+        return balance - heldAmount;
+    }
+
+    public void useBalance(Long amount) {
+        if (amount > getAvailableBalance()) {
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+        balance -= amount;
+    }
+
+    public void cancelBalance(Long amount) {
+        if (amount < 0) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+        balance += amount;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.example.account.domain;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.Index;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+
+import com.example.account.type.HoldStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 잔액 승인(hold)
+ * 승인된 금액은 Account.heldAmount 로 묶여서 사용 가능 잔액에서 빠지고, 계좌 잔액은 매입할 때 줄어든다.
+ * 상태는 AUTHORIZED 에서 CAPTURED / VOIDED / EXPIRED 중 하나로 한 번만 바뀐다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(indexes = {
+        @Index(name = "uk_balance_hold_hold_id", columnList = "holdId", unique = true),
+        @Index(name = "idx_balance_hold_status_id", columnList = "holdStatus, id")
+})
+public class BalanceHold extends BaseEntity {
+    @Convert(converter = TransactionIdConverter.class)
+    @Column(columnDefinition = "binary(16)")
+    private String holdId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Account account;
+
+    private Long amount;
+    private Long capturedAmount;
+
+    @Enumerated(EnumType.STRING)
+    private HoldStatus holdStatus;
+
+    private LocalDateTime expiresAt;
+}
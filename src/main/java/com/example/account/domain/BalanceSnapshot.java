@@ -0,0 +1,54 @@
+package com.example.account.domain;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 원장 모드의 잔액 스냅샷
+ * lastSequence 까지의 거래가 반영된 잔액이다. 현재 잔액 = 마지막 스냅샷 + 이후 거래의 합
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+@Table(indexes = {
+        @Index(name = "uk_balance_snapshot_account_sequence",
+                columnList = "account_id, lastSequence", unique = true),
+        @Index(name = "idx_balance_snapshot_account_snapshot_at",
+                columnList = "account_id, snapshotAt")
+})
+public class BalanceSnapshot {
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Account account;
+
+    private Long balance;
+    private Long lastSequence;
+    private LocalDateTime snapshotAt;
+
+    @CreatedDate
+    private LocalDateTime createdAt;
+}
\ No newline at end of file
@@ -4,8 +4,10 @@ import java.time.LocalDateTime;
 
 import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.MappedSuperclass;
+import javax.persistence.SequenceGenerator;
 
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
@@ -25,8 +27,11 @@ import lombok.Setter;
 @MappedSuperclass
 @EntityListeners(AuditingEntityListener.class)
 public class BaseEntity {
+    // IDENTITY 는 insert 마다 키를 받아와야 해서 JDBC batch 가 꺼진다. 시퀀스를 50개씩 미리 받아 쓴다.
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq_generator")
+    @SequenceGenerator(name = "transaction_seq_generator", sequenceName = "transaction_seq",
+            allocationSize = 50)
     private Long id;
 
     @CreatedDate
@@ -2,10 +2,15 @@ package com.example.account.domain;
 
 import java.time.LocalDateTime;
 
+import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.Index;
 import javax.persistence.ManyToOne;
+import javax.persistence.Table;
 
 import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
@@ -22,6 +27,13 @@ import lombok.Setter;
 @AllArgsConstructor
 @Builder
 @Entity
+@Table(indexes = {
+        @Index(name = "uk_transaction_transaction_id", columnList = "transactionId", unique = true),
+        @Index(name = "idx_transaction_account_transacted_at",
+                columnList = "account_id, transactedAt, id"),
+        @Index(name = "uk_transaction_account_ledger_sequence",
+                columnList = "account_id, ledgerSequence", unique = true)
+})
 public class Transaction extends BaseEntity {
     @Enumerated(EnumType.STRING)
     private TransactionType transactionType;
@@ -29,12 +41,17 @@ public class Transaction extends BaseEntity {
     @Enumerated(EnumType.STRING)
     private TransactionResultType transactionResultType;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Account account;
 
     private Long amount;
     private Long balanceSnapshot;
 
+    @Convert(converter = TransactionIdConverter.class)
+    @Column(columnDefinition = "binary(16)")
     private String transactionId;
     private LocalDateTime transactedAt;
+
+    // 원장 모드에서 계좌별로 1 씩 증가하는 성공 거래 순번 (그 외에는 null)
+    private Long ledgerSequence;
 }
\ No newline at end of file
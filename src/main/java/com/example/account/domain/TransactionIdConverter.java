@@ -0,0 +1,23 @@
+package com.example.account.domain;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+import com.example.account.service.TransactionIdGenerator;
+
+/**
+ * 32자리 hex 거래 ID <-> BINARY(16)
+ * 형식이 맞지 않는 ID 는 null 로 바인딩되어 어떤 거래와도 일치하지 않는다.
+ */
+@Converter
+public class TransactionIdConverter implements AttributeConverter<String, byte[]> {
+    @Override
+    public byte[] convertToDatabaseColumn(String transactionId) {
+        return TransactionIdGenerator.toBytes(transactionId);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] bytes) {
+        return TransactionIdGenerator.toHex(bytes);
+    }
+}
\ No newline at end of file
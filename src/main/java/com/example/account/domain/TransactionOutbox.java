@@ -0,0 +1,67 @@
+package com.example.account.domain;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 거래 이벤트 outbox
+ * 거래와 같은 DB 트랜잭션에서 저장하고, OutboxRelay 가 읽어서 외부로 보낸 뒤 지운다.
+ * 계좌는 연관 없이 계좌 번호만 둔다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+public class TransactionOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_outbox_seq_generator")
+    @SequenceGenerator(name = "transaction_outbox_seq_generator",
+            sequenceName = "transaction_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Convert(converter = TransactionIdConverter.class)
+    private String transactionId;
+    private String accountNumber;
+
+    @Enumerated(EnumType.STRING)
+    private TransactionType transactionType;
+    @Enumerated(EnumType.STRING)
+    private TransactionResultType transactionResultType;
+
+    private Long amount;
+    private Long balanceSnapshot;
+    private LocalDateTime transactedAt;
+    private LocalDateTime createdAt;
+
+    public static TransactionOutbox from(Transaction transaction, String accountNumber) {
+        return TransactionOutbox.builder()
+                .transactionId(transaction.getTransactionId())
+                .accountNumber(accountNumber)
+                .transactionType(transaction.getTransactionType())
+                .transactionResultType(transaction.getTransactionResultType())
+                .amount(transaction.getAmount())
+                .balanceSnapshot(transaction.getBalanceSnapshot())
+                .transactedAt(transaction.getTransactedAt())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.account.dto;
+
+import java.io.Serializable;
+
+import com.example.account.domain.Account;
+import com.example.account.type.AccountStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 캐시에 두는 계좌 정보, 자주 바뀌는 잔액은 포함하지 않는다.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountMetadata implements Serializable {
+    private Long id;
+    private String accountNumber;
+    private Long ownerId;
+    private AccountStatus accountStatus;
+    private int shardCount;
+
+    public static AccountMetadata from(Account account) {
+        return AccountMetadata.builder()
+                .id(account.getId())
+                .accountNumber(account.getAccountNumber())
+                .ownerId(account.getAccountUser().getId())
+                .accountStatus(account.getAccountStatus())
+                .shardCount(account.getShardCount() == null ? 0 : account.getShardCount())
+                .build();
+    }
+
+    public boolean isSharded() {
+        return shardCount > 0;
+    }
+}
\ No newline at end of file
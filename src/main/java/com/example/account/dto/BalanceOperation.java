@@ -0,0 +1,60 @@
+package com.example.account.dto;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.TransactionType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceOperation {
+    private TransactionType transactionType;
+    private Long userId;
+    private String transactionId;
+    private String accountNumber;
+    private Long amount;
+
+    public static BalanceOperation use(Long userId, String accountNumber, Long amount) {
+        return BalanceOperation.builder()
+                .transactionType(TransactionType.USE)
+                .userId(userId)
+                .accountNumber(accountNumber)
+                .amount(amount)
+                .build();
+    }
+
+    public static BalanceOperation cancel(String transactionId, String accountNumber, Long amount) {
+        return BalanceOperation.builder()
+                .transactionType(TransactionType.CANCEL)
+                .transactionId(transactionId)
+                .accountNumber(accountNumber)
+                .amount(amount)
+                .build();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        private TransactionDto transaction;
+        private AccountException exception;
+
+        public static Result success(TransactionDto transaction) {
+            return new Result(transaction, null);
+        }
+
+        public static Result failure(AccountException exception) {
+            return new Result(null, exception);
+        }
+
+        public boolean isSuccess() {
+            return exception == null;
+        }
+    }
+}
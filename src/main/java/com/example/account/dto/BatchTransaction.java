@@ -0,0 +1,126 @@
+package com.example.account.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import javax.validation.Valid;
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+public class BatchTransaction {
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Request {
+        @Valid
+        @NotEmpty
+        @Size(max = 1000)
+        private List<Operation> operations;
+    }
+
+    /**
+     * USE 는 userId, CANCEL 은 transactionId 가 필요하다.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Operation {
+        @NotNull
+        private TransactionType transactionType;
+
+        private Long userId;
+
+        private String transactionId;
+
+        @NotBlank
+        @Size(min = 10, max = 10)
+        private String accountNumber;
+
+        @NotNull
+        @Min(10)
+        @Max(1_000_000_000)
+        private Long amount;
+
+        @AssertTrue(message = "USE 는 userId, CANCEL 은 transactionId 가 필요합니다.")
+        public boolean isValidForTransactionType() {
+            if (transactionType == TransactionType.USE) {
+                return userId != null;
+            }
+            if (transactionType == TransactionType.CANCEL) {
+                return transactionId != null && !transactionId.isBlank();
+            }
+            return false;
+        }
+
+        public BalanceOperation toBalanceOperation() {
+            if (transactionType == TransactionType.CANCEL) {
+                return BalanceOperation.cancel(transactionId, accountNumber, amount);
+            }
+            return BalanceOperation.use(userId, accountNumber, amount);
+        }
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private List<Result> results;
+    }
+
+    /**
+     * UseBalance.Response 와 같은 항목 + 실패 사유
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Result {
+        private String accountNumber;
+        private TransactionResultType transactionResult;
+        private String transactionId;
+        private Long amount;
+        private LocalDateTime transactionAt;
+        private ErrorCode errorCode;
+        private String errorMessage;
+
+        public static Result fromDto(TransactionDto transactionDto) {
+            return Result.builder()
+                    .accountNumber(transactionDto.getAccountNumber())
+                    .transactionResult(transactionDto.getTransactionResultType())
+                    .transactionId(transactionDto.getTransactionId())
+                    .amount(transactionDto.getAmount())
+                    .transactionAt(transactionDto.getTransactedAt())
+                    .build();
+        }
+
+        public static Result failure(Operation operation, ErrorCode errorCode) {
+            return Result.builder()
+                    .accountNumber(operation.getAccountNumber())
+                    .transactionResult(TransactionResultType.F)
+                    .amount(operation.getAmount())
+                    .errorCode(errorCode)
+                    .errorMessage(errorCode.getDescription())
+                    .build();
+        }
+    }
+}
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.example.account.dto;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 
 import javax.validation.constraints.Max;
@@ -8,6 +9,7 @@ import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 
+import com.example.account.aop.AccountLockIdInterface;
 import com.example.account.type.TransactionResultType;
 
 import lombok.AllArgsConstructor;
@@ -21,7 +23,7 @@ public class CancelBalance {
     @Setter
     @AllArgsConstructor
     @NoArgsConstructor
-    public static class CbRequest {
+    public static class CbRequest implements AccountLockIdInterface {
         @NotBlank
         private String transactionId;
 
@@ -40,7 +42,7 @@ public class CancelBalance {
     @AllArgsConstructor
     @NoArgsConstructor
     @Builder
-    public static class CbResponse {
+    public static class CbResponse implements Serializable {
         private String accountNumber;
         private TransactionResultType transactionResult;
         private String transactionId;
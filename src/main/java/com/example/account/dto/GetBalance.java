@@ -0,0 +1,20 @@
+package com.example.account.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class GetBalance {
+    private String accountNumber;
+    private Long balance;
+    private LocalDateTime at;
+}
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.example.account.dto;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+import com.example.account.type.HoldStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 승인(authorize) -> 매입(capture) 또는 취소(void), 매입/취소되지 않은 승인은 만료된다.
+ */
+public class Hold {
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AuthorizeRequest {
+        @NotNull
+        @Min(1)
+        private Long userId;
+
+        @NotBlank
+        @Size(min = 10, max = 10)
+        private String accountNumber;
+
+        @NotNull
+        @Min(10)
+        @Max(1_000_000_000)
+        private Long amount;
+
+        // 없으면 account.hold.default-ttl-seconds
+        @Min(1)
+        private Long expiresInSeconds;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CaptureRequest {
+        @NotBlank
+        private String holdId;
+
+        // 없으면 승인 금액 전체, 승인 금액보다 적으면 나머지는 풀린다.
+        @Min(1)
+        private Long amount;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class VoidRequest {
+        @NotBlank
+        private String holdId;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response implements Serializable {
+        private String holdId;
+        private String accountNumber;
+        private HoldStatus holdStatus;
+        private Long amount;
+        private Long capturedAmount;
+        private LocalDateTime expiresAt;
+        private String transactionId;
+
+        public static Response fromDto(HoldDto holdDto) {
+            return Response.builder()
+                    .holdId(holdDto.getHoldId())
+                    .accountNumber(holdDto.getAccountNumber())
+                    .holdStatus(holdDto.getHoldStatus())
+                    .amount(holdDto.getAmount())
+                    .capturedAmount(holdDto.getCapturedAmount())
+                    .expiresAt(holdDto.getExpiresAt())
+                    .transactionId(holdDto.getTransactionId())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.account.dto;
+
+import java.time.LocalDateTime;
+
+import com.example.account.domain.BalanceHold;
+import com.example.account.type.HoldStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class HoldDto {
+    private Long id;
+    private String holdId;
+    private String accountNumber;
+    private HoldStatus holdStatus;
+    private Long amount;
+    private Long capturedAmount;
+    private LocalDateTime expiresAt;
+    // 매입으로 저장된 거래
+    private String transactionId;
+    private Long balanceSnapshot;
+
+    public static HoldDto fromEntity(BalanceHold hold, String accountNumber) {
+        return HoldDto.builder()
+                .id(hold.getId())
+                .holdId(hold.getHoldId())
+                .accountNumber(accountNumber)
+                .holdStatus(hold.getHoldStatus())
+                .amount(hold.getAmount())
+                .capturedAmount(hold.getCapturedAmount())
+                .expiresAt(hold.getExpiresAt())
+                .build();
+    }
+}
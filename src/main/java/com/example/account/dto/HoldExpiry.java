@@ -0,0 +1,16 @@
+package com.example.account.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 만료 타이머를 다시 만들 때 읽는 승인 정보
+ */
+@Getter
+@AllArgsConstructor
+public class HoldExpiry {
+    private Long id;
+    private LocalDateTime expiresAt;
+}
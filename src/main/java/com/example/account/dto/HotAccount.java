@@ -0,0 +1,19 @@
+package com.example.account.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class HotAccount {
+    private String accountNumber;
+    private double requestsPerSecond;
+    private double averageLockWaitMillis;
+    private boolean hot;
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.example.account.dto;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+public class ShardAccount {
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Request {
+        @NotBlank
+        private String accountNumber;
+
+        @NotNull
+        @Min(2)
+        private Integer shardCount;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private String accountNumber;
+        private Integer shardCount;
+
+        public static Response from(AccountMetadata metadata) {
+            return Response.builder()
+                    .accountNumber(metadata.getAccountNumber())
+                    .shardCount(metadata.getShardCount())
+                    .build();
+        }
+    }
+}
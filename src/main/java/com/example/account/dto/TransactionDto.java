@@ -1,5 +1,6 @@
 package com.example.account.dto;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 
 import com.example.account.domain.Transaction;
@@ -16,8 +17,8 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
-public class TransactionDto {
+@Builder(toBuilder = true)
+public class TransactionDto implements Serializable {
     private String accountNumber;
     private TransactionType transactionType;
     private TransactionResultType transactionResultType;
@@ -27,8 +28,12 @@ public class TransactionDto {
     private LocalDateTime transactedAt;
 
     public static TransactionDto fromEntity(Transaction transaction) {
+        return fromEntity(transaction, transaction.getAccount().getAccountNumber());
+    }
+
+    public static TransactionDto fromEntity(Transaction transaction, String accountNumber) {
         return TransactionDto.builder()
-                .accountNumber(transaction.getAccount().getAccountNumber())
+                .accountNumber(accountNumber)
                 .transactionType(transaction.getTransactionType())
                 .transactionResultType(transaction.getTransactionResultType())
                 .amount(transaction.getAmount())
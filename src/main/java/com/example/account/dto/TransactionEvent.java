@@ -0,0 +1,46 @@
+package com.example.account.dto;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import com.example.account.domain.TransactionOutbox;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 외부로 보내는 거래 이벤트
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionEvent implements Serializable {
+    private Long eventId;
+    private String transactionId;
+    private String accountNumber;
+    private TransactionType transactionType;
+    private TransactionResultType transactionResultType;
+    private Long amount;
+    private Long balanceSnapshot;
+    private LocalDateTime transactedAt;
+
+    public static TransactionEvent from(TransactionOutbox outbox) {
+        return TransactionEvent.builder()
+                .eventId(outbox.getId())
+                .transactionId(outbox.getTransactionId())
+                .accountNumber(outbox.getAccountNumber())
+                .transactionType(outbox.getTransactionType())
+                .transactionResultType(outbox.getTransactionResultType())
+                .amount(outbox.getAmount())
+                .balanceSnapshot(outbox.getBalanceSnapshot())
+                .transactedAt(outbox.getTransactedAt())
+                .build();
+    }
+}
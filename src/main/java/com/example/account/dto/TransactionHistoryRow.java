@@ -0,0 +1,34 @@
+package com.example.account.dto;
+
+import java.time.LocalDateTime;
+
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 거래 내역 조회용 projection, id 와 transactedAt 은 다음 페이지의 기준(keyset) 으로 쓴다.
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionHistoryRow {
+    private Long id;
+    private TransactionType transactionType;
+    private TransactionResultType transactionResultType;
+    private String transactionId;
+    private Long amount;
+    private LocalDateTime transactedAt;
+
+    public QueryTransaction.QtResponse toResponse(String accountNumber) {
+        return QueryTransaction.QtResponse.builder()
+                .accountNumber(accountNumber)
+                .transactionType(transactionType)
+                .transactionResult(transactionResultType)
+                .transactionId(transactionId)
+                .amount(amount)
+                .transactedAt(transactedAt)
+                .build();
+    }
+}
\ No newline at end of file
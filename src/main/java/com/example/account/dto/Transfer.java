@@ -0,0 +1,75 @@
+package com.example.account.dto;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+import com.example.account.type.TransactionResultType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+public class Transfer {
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Request {
+        @NotNull
+        @Min(1)
+        private Long userId;
+
+        @NotBlank
+        @Size(min = 10, max = 10)
+        private String fromAccountNumber;
+
+        @NotBlank
+        @Size(min = 10, max = 10)
+        private String toAccountNumber;
+
+        @NotNull
+        @Min(10)
+        @Max(1_000_000_000)
+        private Long amount;
+    }
+
+    /**
+     * 출금 거래와 입금 거래는 같은 DB 트랜잭션에서 저장된다.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response implements Serializable {
+        private String fromAccountNumber;
+        private String toAccountNumber;
+        private TransactionResultType transactionResult;
+        private String withdrawTransactionId;
+        private String depositTransactionId;
+        private Long amount;
+        private Long balance;
+        private LocalDateTime transactedAt;
+
+        public static Response fromDto(TransactionDto withdraw, TransactionDto deposit) {
+            return Response.builder()
+                    .fromAccountNumber(withdraw.getAccountNumber())
+                    .toAccountNumber(deposit.getAccountNumber())
+                    .transactionResult(withdraw.getTransactionResultType())
+                    .withdrawTransactionId(withdraw.getTransactionId())
+                    .depositTransactionId(deposit.getTransactionId())
+                    .amount(withdraw.getAmount())
+                    .balance(withdraw.getBalanceSnapshot())
+                    .transactedAt(withdraw.getTransactedAt())
+                    .build();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.account.dto;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 
 import javax.validation.constraints.Max;
@@ -42,7 +43,7 @@ public class UseBalance {
     @NoArgsConstructor
     @AllArgsConstructor
     @Builder
-    public static class Response {
+    public static class Response implements Serializable {
         private String accountNumber;
         private TransactionResultType transactionResult;
         private String transactionId;
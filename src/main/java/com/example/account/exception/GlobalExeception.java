@@ -2,7 +2,9 @@ package com.example.account.exception;
 
 
 import com.example.account.dto.ErrorResponse;
+import com.example.account.service.AccountMetrics;
 import com.example.account.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -11,10 +13,14 @@ import static com.example.account.type.ErrorCode.INTERNAL_SERVER_ERROR;
 
 @Slf4j
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExeception {
+    private final AccountMetrics accountMetrics;
+
     @ExceptionHandler(AccountException.class)
     public ErrorResponse handleAccountException(AccountException e) {
         log.error("{} is occured", e.getErrorCode());
+        accountMetrics.accountException(e.getErrorCode());
 
         return new ErrorResponse(e.getErrorCode(), e.getErrorMessage());
     }
@@ -22,6 +28,7 @@ public class GlobalExeception {
     @ExceptionHandler(Exception.class)
     public ErrorResponse handleException(AccountException e) {
         log.error("Exception is occured.", e);
+        accountMetrics.accountException(INTERNAL_SERVER_ERROR);
 
         return new ErrorResponse(INTERNAL_SERVER_ERROR,
                 INTERNAL_SERVER_ERROR.getDescription()
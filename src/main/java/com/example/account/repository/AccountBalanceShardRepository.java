@@ -0,0 +1,38 @@
+package com.example.account.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.account.domain.AccountBalanceShard;
+
+@Repository
+public interface AccountBalanceShardRepository extends JpaRepository<AccountBalanceShard, Long> {
+    List<AccountBalanceShard> findAllByAccountIdOrderByShardIndex(Long accountId);
+
+    @Query("select coalesce(sum(s.balance), 0) from AccountBalanceShard s " +
+            "where s.account.id = :accountId")
+    Long sumBalanceByAccountId(@Param("accountId") Long accountId);
+
+    /**
+     * shard 하나에서 잔액 확인과 차감을 하나의 SQL 로 처리한다. 잔액이 부족하면 0 을 반환한다.
+     */
+    @Modifying
+    @Query("update AccountBalanceShard s set s.balance = s.balance - :amount " +
+            "where s.account.id = :accountId and s.shardIndex = :shardIndex " +
+            "and s.balance >= :amount")
+    int decreaseBalance(@Param("accountId") Long accountId,
+                        @Param("shardIndex") Integer shardIndex,
+                        @Param("amount") Long amount);
+
+    @Modifying
+    @Query("update AccountBalanceShard s set s.balance = s.balance + :amount " +
+            "where s.account.id = :accountId and s.shardIndex = :shardIndex")
+    int increaseBalance(@Param("accountId") Long accountId,
+                        @Param("shardIndex") Integer shardIndex,
+                        @Param("amount") Long amount);
+}
@@ -2,9 +2,19 @@ package com.example.account.repository;
 
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
+import com.example.account.dto.AccountDto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,4 +23,95 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
 
     Integer countByAccountUser(AccountUser accountUser);
 
+    Optional<Account> findByAccountNumber(String accountNumber);
+
+    List<Account> findAllByAccountNumberIn(Collection<String> accountNumbers);
+
+    /**
+     * SELECT ... FOR UPDATE, 트랜잭션이 끝날 때까지 다른 트랜잭션의 같은 계좌 lock 을 막는다.
+     * lock 대기 시간은 LockService.DEFAULT_WAIT_MILLIS 와 같게 둔다. (힌트를 지원하지 않는 DB 는 DB 설정값)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "5000"))
+    @Query("select a from Account a where a.accountNumber = :accountNumber")
+    Optional<Account> findForUpdateByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    /**
+     * 계좌 목록 응답에 필요한 컬럼만 조회한다. (AccountUser 는 join 하지 않고 FK 만 사용)
+     * 분할 잔액 계좌는 shard 잔액을 더한 값을 잔액으로 보여준다.
+     */
+    @Query("select new com.example.account.dto.AccountDto(" +
+            "a.accountUser.id, a.accountNumber, " +
+            "a.balance + coalesce((select sum(s.balance) from AccountBalanceShard s " +
+            "where s.account = a), 0), " +
+            "a.accountStatus, a.registeredAt, a.unRegisteredAt) " +
+            "from Account a where a.accountUser.id = :userId order by a.id")
+    List<AccountDto> findAccountDtosByUserId(@Param("userId") Long userId);
+
+    /**
+     * 계좌 조회 응답용, 지연 로딩되는 AccountUser 를 응답에 노출하지 않도록 DTO 로 조회한다.
+     */
+    @Query("select new com.example.account.dto.AccountDto(" +
+            "a.accountUser.id, a.accountNumber, " +
+            "a.balance + coalesce((select sum(s.balance) from AccountBalanceShard s " +
+            "where s.account = a), 0), " +
+            "a.accountStatus, a.registeredAt, a.unRegisteredAt) " +
+            "from Account a where a.id = :id")
+    Optional<AccountDto> findAccountDtoById(@Param("id") Long id);
+
+    @Query("select a.balance + coalesce((select sum(s.balance) from AccountBalanceShard s " +
+            "where s.account = a), 0) " +
+            "from Account a where a.accountNumber = :accountNumber")
+    Optional<Long> findBalanceByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    /**
+     * 잔액 확인과 차감을 하나의 SQL 로 처리한다. 사용 가능 잔액이 부족하면 0 을 반환한다.
+     */
+    @Modifying
+    @Query("update Account a set a.balance = a.balance - :amount, a.version = a.version + 1 " +
+            "where a.accountNumber = :accountNumber " +
+            "and a.accountStatus = com.example.account.type.AccountStatus.IN_USE " +
+            "and a.balance - a.heldAmount >= :amount")
+    int decreaseBalance(@Param("accountNumber") String accountNumber,
+                        @Param("amount") Long amount);
+
+    /**
+     * 원장 모드에서 스냅샷을 남길 때 계좌 잔액도 같이 맞춰 둔다.
+     */
+    @Modifying
+    @Query("update Account a set a.balance = :balance, a.version = a.version + 1 " +
+            "where a.id = :id")
+    int updateBalance(@Param("id") Long id, @Param("balance") Long balance);
+
+    @Query("select a.balance from Account a where a.id = :id")
+    Optional<Long> findBalanceById(@Param("id") Long id);
+
+    @Modifying
+    @Query("update Account a set a.balance = a.balance + :amount, a.version = a.version + 1 " +
+            "where a.accountNumber = :accountNumber")
+    int increaseBalance(@Param("accountNumber") String accountNumber,
+                        @Param("amount") Long amount);
+
+    /**
+     * 승인 : 사용 가능 잔액이 충분하면 승인 금액만큼 묶는다. 부족하면 0 을 반환한다.
+     */
+    @Modifying
+    @Query("update Account a set a.heldAmount = a.heldAmount + :amount, a.version = a.version + 1 " +
+            "where a.accountNumber = :accountNumber " +
+            "and a.accountStatus = com.example.account.type.AccountStatus.IN_USE " +
+            "and a.balance - a.heldAmount >= :amount")
+    int holdBalance(@Param("accountNumber") String accountNumber,
+                    @Param("amount") Long amount);
+
+    /**
+     * 매입 : 승인으로 묶은 금액을 풀고 매입 금액만큼 잔액을 차감한다. (취소/만료는 capturedAmount = 0)
+     */
+    @Modifying
+    @Query("update Account a set a.heldAmount = a.heldAmount - :heldAmount, " +
+            "a.balance = a.balance - :capturedAmount, a.version = a.version + 1 " +
+            "where a.id = :id")
+    int releaseHold(@Param("id") Long id,
+                    @Param("heldAmount") Long heldAmount,
+                    @Param("capturedAmount") Long capturedAmount);
+
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.example.account.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.account.domain.BalanceHold;
+import com.example.account.dto.HoldExpiry;
+import com.example.account.type.HoldStatus;
+
+@Repository
+public interface BalanceHoldRepository extends JpaRepository<BalanceHold, Long> {
+    Optional<BalanceHold> findByHoldId(String holdId);
+
+    @Query("select h.account.accountNumber from BalanceHold h where h.holdId = :holdId")
+    Optional<String> findAccountNumberByHoldId(@Param("holdId") String holdId);
+
+    @Query("select h.account.accountNumber from BalanceHold h where h.id = :id")
+    Optional<String> findAccountNumberById(@Param("id") Long id);
+
+    /**
+     * 승인 상태인 것만 닫는다. 매입/취소/만료가 동시에 오면 하나만 1 을 반환한다.
+     */
+    @Modifying
+    @Query("update BalanceHold h set h.holdStatus = :holdStatus, " +
+            "h.capturedAmount = :capturedAmount, h.updatedAt = :updatedAt " +
+            "where h.id = :id and h.holdStatus = com.example.account.type.HoldStatus.AUTHORIZED")
+    int close(@Param("id") Long id,
+              @Param("holdStatus") HoldStatus holdStatus,
+              @Param("capturedAmount") Long capturedAmount,
+              @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * 시작할 때 만료 타이머를 다시 만들기 위해 id 순서로 나눠서 읽는다.
+     */
+    @Query("select new com.example.account.dto.HoldExpiry(h.id, h.expiresAt) " +
+            "from BalanceHold h " +
+            "where h.holdStatus = com.example.account.type.HoldStatus.AUTHORIZED " +
+            "and h.id > :afterId order by h.id")
+    List<HoldExpiry> findAuthorizedAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 만료 시각이 지났는데 승인 상태로 남은 것을 id 순서로 나눠서 읽는다. (다른 노드 타이머 휠에만 있던 승인)
+     */
+    @Query("select h.id from BalanceHold h " +
+            "where h.holdStatus = com.example.account.type.HoldStatus.AUTHORIZED " +
+            "and h.expiresAt < :now and h.id > :afterId order by h.id")
+    List<Long> findExpiredAfter(@Param("now") LocalDateTime now,
+                                @Param("afterId") Long afterId,
+                                Pageable pageable);
+}
@@ -0,0 +1,25 @@
+package com.example.account.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.account.domain.BalanceSnapshot;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+    Optional<BalanceSnapshot> findFirstByAccountIdOrderByLastSequenceDesc(Long accountId);
+
+    Optional<BalanceSnapshot> findFirstByAccountIdAndSnapshotAtLessThanEqualOrderByLastSequenceDesc(
+            Long accountId, LocalDateTime snapshotAt);
+
+    List<BalanceSnapshot> findByAccountIdOrderByLastSequence(Long accountId);
+
+    @Query("select distinct s.account.id from BalanceSnapshot s")
+    List<Long> findAccountIds();
+}
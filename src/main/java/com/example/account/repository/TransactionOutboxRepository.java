@@ -0,0 +1,27 @@
+package com.example.account.repository;
+
+import java.util.List;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import com.example.account.domain.TransactionOutbox;
+
+@Repository
+public interface TransactionOutboxRepository extends JpaRepository<TransactionOutbox, Long> {
+    /**
+     * 오래된 것부터 batch 만큼 읽는다.
+     * 다른 relay 가 잡고 있는 row 는 건너뛴다. (lock timeout -2 = SKIP LOCKED, 지원하지 않는 DB 는 FOR UPDATE)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query("select o from TransactionOutbox o order by o.id")
+    List<TransactionOutbox> findBatchForUpdate(Pageable pageable);
+}
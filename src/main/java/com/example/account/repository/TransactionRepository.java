@@ -1,11 +1,111 @@
 package com.example.account.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.example.account.domain.Transaction;
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.TransactionHistoryRow;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long>{
     Optional<Transaction> findByTransactionId(String transactionId);
+
+    @Query("select t.transactionId from Transaction t where t.transactionId in :transactionIds")
+    List<String> findTransactionIdsIn(@Param("transactionIds") Collection<String> transactionIds);
+
+    /**
+     * 거래 조회 응답에 필요한 컬럼만 조회한다. (계좌는 계좌 번호만 join)
+     */
+    @Query("select new com.example.account.dto.TransactionDto(" +
+            "a.accountNumber, t.transactionType, t.transactionResultType, " +
+            "t.amount, t.balanceSnapshot, t.transactionId, t.transactedAt) " +
+            "from Transaction t join t.account a " +
+            "where t.transactionId = :transactionId")
+    Optional<TransactionDto> findDtoByTransactionId(@Param("transactionId") String transactionId);
+
+    /**
+     * 계좌의 거래 내역 첫 페이지 (transactedAt, id 순)
+     * 결과는 엔티티가 아닌 projection 을 cursor 로 읽는다.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select new com.example.account.dto.TransactionHistoryRow(" +
+            "t.id, t.transactionType, t.transactionResultType, " +
+            "t.transactionId, t.amount, t.transactedAt) " +
+            "from Transaction t where t.account.id = :accountId " +
+            "order by t.transactedAt, t.id")
+    Stream<TransactionHistoryRow> streamHistory(@Param("accountId") Long accountId,
+                                                Pageable pageable);
+
+    /**
+     * (transactedAt, id) 다음부터 이어서 조회한다. OFFSET 없이 인덱스 범위 스캔만 한다.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select new com.example.account.dto.TransactionHistoryRow(" +
+            "t.id, t.transactionType, t.transactionResultType, " +
+            "t.transactionId, t.amount, t.transactedAt) " +
+            "from Transaction t where t.account.id = :accountId " +
+            "and (t.transactedAt > :transactedAt " +
+            "or (t.transactedAt = :transactedAt and t.id > :id)) " +
+            "order by t.transactedAt, t.id")
+    Stream<TransactionHistoryRow> streamHistoryAfter(@Param("accountId") Long accountId,
+                                                     @Param("transactedAt") LocalDateTime transactedAt,
+                                                     @Param("id") Long id,
+                                                     Pageable pageable);
+
+    @Query("select max(t.ledgerSequence) from Transaction t where t.account.id = :accountId")
+    Optional<Long> findLastLedgerSequence(@Param("accountId") Long accountId);
+
+    /**
+     * (afterSequence, uptoSequence] 구간 원장 거래의 잔액 변화 합 (사용/이체 출금은 -, 취소/이체 입금은 +)
+     */
+    @Query("select coalesce(sum(case when t.transactionType in (" +
+            "com.example.account.type.TransactionType.USE, " +
+            "com.example.account.type.TransactionType.TRANSFER_OUT) " +
+            "then -t.amount else t.amount end), 0) " +
+            "from Transaction t where t.account.id = :accountId " +
+            "and t.ledgerSequence > :afterSequence and t.ledgerSequence <= :uptoSequence")
+    Long sumLedgerAmount(@Param("accountId") Long accountId,
+                         @Param("afterSequence") Long afterSequence,
+                         @Param("uptoSequence") Long uptoSequence);
+
+    @Query("select coalesce(sum(case when t.transactionType in (" +
+            "com.example.account.type.TransactionType.USE, " +
+            "com.example.account.type.TransactionType.TRANSFER_OUT) " +
+            "then -t.amount else t.amount end), 0) " +
+            "from Transaction t where t.account.id = :accountId " +
+            "and t.ledgerSequence > :afterSequence and t.transactedAt <= :transactedAt")
+    Long sumLedgerAmountUntil(@Param("accountId") Long accountId,
+                              @Param("afterSequence") Long afterSequence,
+                              @Param("transactedAt") LocalDateTime transactedAt);
+
+    @Query("select count(t) from Transaction t where t.account.id = :accountId " +
+            "and t.ledgerSequence > :afterSequence and t.ledgerSequence <= :uptoSequence")
+    long countLedger(@Param("accountId") Long accountId,
+                     @Param("afterSequence") Long afterSequence,
+                     @Param("uptoSequence") Long uptoSequence);
+
+    @Query("select t.balanceSnapshot from Transaction t " +
+            "where t.account.id = :accountId and t.ledgerSequence = :ledgerSequence")
+    Optional<Long> findLedgerBalance(@Param("accountId") Long accountId,
+                                     @Param("ledgerSequence") Long ledgerSequence);
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+package com.example.account.service;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.account.dto.AccountMetadata;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 계좌 번호로 조회하는 계좌 정보 캐시 (id, 소유주, 상태)
+ * 상태가 바뀌면 무효화하고, 다른 노드에는 Redis pub/sub 으로 무효화를 알린다.
+ * 알림이 늦게 도착할 수 있으므로 계좌 row 를 읽는 잔액 변경은 트랜잭션 안에서 상태를 다시 확인한다.
+ * 구독은 컨텍스트가 뜬 뒤에 하므로 RedissonClient 생성(내장 redis-server 시작)이 부팅을 늦추지 않는다.
+ */
+@Slf4j
+@Service
+public class AccountCache {
+    private static final String INVALIDATION_TOPIC = "ACCOUNT:INVALIDATE";
+
+    private final Cache<String, AccountMetadata> cache;
+    private final boolean invalidationEnabled;
+    private final RedissonClient redissonClient;
+
+    public AccountCache(
+            @Value("${account.cache.account.maximum-size:100000}") long maximumSize,
+            @Value("${account.cache.account.invalidation-enabled:true}") boolean invalidationEnabled,
+            @Lazy RedissonClient redissonClient) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        this.invalidationEnabled = invalidationEnabled;
+        this.redissonClient = redissonClient;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        if (!invalidationEnabled) {
+            return;
+        }
+        try {
+            topic().addListener(String.class, (channel, accountNumber) -> {
+                log.debug("Account cache invalidated by other node : {}", accountNumber);
+                cache.invalidate(accountNumber);
+            });
+        } catch (Exception e) {
+            log.warn("Failed to subscribe account cache invalidation", e);
+        }
+    }
+
+    public Optional<AccountMetadata> get(String accountNumber,
+                                         Supplier<Optional<AccountMetadata>> loader) {
+        AccountMetadata cached = cache.getIfPresent(accountNumber);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<AccountMetadata> loaded = loader.get();
+        loaded.ifPresent(metadata -> cache.put(accountNumber, metadata));
+        return loaded;
+    }
+
+    /**
+     * 계좌 상태가 바뀌었을 때 호출한다.
+     * 커밋 전에 다른 요청이 옛 값을 다시 넣을 수 있으므로 커밋 후에 한 번 더 지우고 다른 노드에 알린다.
+     */
+    public void invalidate(String accountNumber) {
+        cache.invalidate(accountNumber);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            cache.invalidate(accountNumber);
+                            publish(accountNumber);
+                        }
+                    });
+            return;
+        }
+        publish(accountNumber);
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    private void publish(String accountNumber) {
+        if (!invalidationEnabled) {
+            return;
+        }
+        try {
+            topic().publish(accountNumber);
+        } catch (Exception e) {
+            log.warn("Failed to publish account cache invalidation : {}", accountNumber, e);
+        }
+    }
+
+    private RTopic topic() {
+        return redissonClient.getTopic(INVALIDATION_TOPIC, StringCodec.INSTANCE);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.account.service;
+
+import org.springframework.stereotype.Component;
+
+import com.example.account.type.BalanceMode;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * @AccountLock 이 붙은 메소드에서 lock 을 직접 잡을지 결정한다.
+ * 다른 곳에서 계좌를 보호하고 있으면 lock 을 다시 잡지 않는다.
+ * (모음 처리기는 @AccountLock 메소드를 거치지 않고 배치마다 직접 lock 을 잡는다.)
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountLockPolicy {
+    private final ShardedBalanceService shardedBalanceService;
+    private final BalanceMode balanceMode;
+
+    public boolean isLockDelegated(String accountNumber) {
+        if (!balanceMode.requiresAccountLock()) {
+            return true;
+        }
+        // 분할 잔액 계좌는 계좌 lock 대신 shard lock 을 잡는다.
+        return shardedBalanceService.isSharded(accountNumber);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,143 @@
+package com.example.account.service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+import org.springframework.stereotype.Component;
+
+import com.example.account.type.ErrorCode;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 계좌 관련 지표 (Prometheus : /actuator/prometheus)
+ * 계좌 번호는 태그로 쓰지 않는다. 계좌별 편차는 계좌 번호 해시로 나눈 shard(0 ~ 15) 로 본다.
+ * 캐시 적중/실패 수와 계좌 번호 구간 임대 수는 각 컴포넌트의 값을 읽는 meter 로 등록한다.
+ */
+@Component
+public class AccountMetrics {
+    public static final int SHARDS = 16;
+
+    private final MeterRegistry meterRegistry;
+
+    public AccountMetrics(MeterRegistry meterRegistry,
+                          AccountCache accountCache,
+                          TransactionCache transactionCache,
+                          AccountNumberAllocator accountNumberAllocator) {
+        this.meterRegistry = meterRegistry;
+
+        registerCache("account", "local", accountCache,
+                cache -> cache.getStats().hitCount(), cache -> cache.getStats().missCount());
+        registerCache("transaction", "local", transactionCache,
+                cache -> cache.getLocalStats().hitCount(),
+                cache -> cache.getLocalStats().missCount());
+        registerCache("transaction", "redis", transactionCache,
+                TransactionCache::getRedisHits, TransactionCache::getRedisMisses);
+
+        FunctionCounter.builder("account.number.blocks.leased", accountNumberAllocator,
+                        AccountNumberAllocator::getLeasedBlocks)
+                .description("임대한 계좌 번호 구간 수")
+                .register(meterRegistry);
+        Gauge.builder("account.number.block.lifetime", accountNumberAllocator,
+                        AccountNumberAllocator::getLastBlockLifetimeMillis)
+                .description("마지막 계좌 번호 구간을 다 쓰기까지 걸린 시간")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    private <T> void registerCache(String cache, String level, T source,
+                                   ToDoubleFunction<T> hits, ToDoubleFunction<T> misses) {
+        FunctionCounter.builder("account.cache.requests", source, hits)
+                .description("캐시 조회 수")
+                .tag("cache", cache)
+                .tag("level", level)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("account.cache.requests", source, misses)
+                .description("캐시 조회 수")
+                .tag("cache", cache)
+                .tag("level", level)
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    public void recordLockWait(String lockMode, boolean acquired, long nanos) {
+        Timer.builder("account.lock.wait")
+                .description("계좌 lock 획득 대기 시간")
+                .tag("mode", lockMode)
+                .tag("result", acquired ? "acquired" : "failed")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLockHold(String lockMode, long nanos) {
+        Timer.builder("account.lock.hold")
+                .description("계좌 lock 점유 시간")
+                .tag("mode", lockMode)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void lockFailed(String accountNumber) {
+        Counter.builder("account.lock.failures")
+                .description("계좌 lock 획득 실패 수")
+                .tag("shard", String.valueOf(shardOf(accountNumber)))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void recordTransaction(String method, String result, long nanos) {
+        Timer.builder("account.transaction")
+                .description("TransactionService 처리 시간")
+                .tag("method", method)
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void accountException(ErrorCode errorCode) {
+        Counter.builder("account.exceptions")
+                .description("응답한 오류 수")
+                .tag("errorCode", errorCode.name())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void recordOutboxRelay(int events, long nanos) {
+        Counter.builder("account.outbox.published")
+                .description("outbox 에서 보낸 거래 이벤트 수")
+                .register(meterRegistry)
+                .increment(events);
+        Timer.builder("account.outbox.relay")
+                .description("outbox batch 하나를 읽고 보내고 지우는 시간")
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordOutboxLag(Duration lag) {
+        Timer.builder("account.outbox.lag")
+                .description("거래 저장부터 이벤트를 보내기까지 걸린 시간")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(lag);
+    }
+
+    public void holdsExpired(int holds) {
+        Counter.builder("account.hold.expired")
+                .description("만료시킨 승인 수 (타이머 휠, DB sweep)")
+                .register(meterRegistry)
+                .increment(holds);
+    }
+
+    static int shardOf(String accountNumber) {
+        return Math.floorMod(accountNumber.hashCode(), SHARDS);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.account.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import com.example.account.repository.AccountRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 계좌 번호 발급기 (hi/lo)
+ * Redis INCRBY 로 번호 블록을 임대하고, 블록 안에서는 lock 없이 번호를 나눠준다.
+ * 블록은 노드마다 겹치지 않으므로 여러 노드에서도 번호가 중복되지 않는다.
+ * redis-enabled 가 false 면 (단일 노드) JVM 안의 순번으로 블록을 발급한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AccountNumberAllocator {
+    private static final String SEQUENCE_KEY = "ACNO:SEQ";
+    private static final long FIRST_ACCOUNT_NUMBER = 1_000_000_000L;
+
+    @Lazy
+    private final RedissonClient redissonClient;
+    private final AccountRepository accountRepository;
+
+    @Value("${account.number.block-size:100}")
+    private int blockSize = 100;
+
+    @Value("${account.number.redis-enabled:true}")
+    private boolean redisEnabled = true;
+
+    private final AtomicReference<Block> currentBlock = new AtomicReference<>(Block.EMPTY);
+    private final AtomicLong leasedBlocks = new AtomicLong();
+    private final AtomicLong lastBlockLifetimeMillis = new AtomicLong();
+    private long localSequence;
+
+    public String nextAccountNumber() {
+        while (true) {
+            Block block = currentBlock.get();
+            long accountNumber = block.next.getAndIncrement();
+            if (accountNumber <= block.last) {
+                return String.valueOf(accountNumber);
+            }
+            leaseBlock(block);
+        }
+    }
+
+    private synchronized void leaseBlock(Block exhausted) {
+        if (currentBlock.get() != exhausted) {
+            // 다른 스레드가 이미 새 블록을 받아왔다.
+            return;
+        }
+
+        long last = redisEnabled ? leaseRedisBlock() : leaseLocalBlock();
+        long now = System.currentTimeMillis();
+        if (exhausted != Block.EMPTY) {
+            lastBlockLifetimeMillis.set(now - exhausted.leasedAt);
+        }
+        leasedBlocks.incrementAndGet();
+        currentBlock.set(new Block(last - blockSize + 1, last, now));
+
+        log.debug("Leased account number block [{} ~ {}]", last - blockSize + 1, last);
+    }
+
+    private long leaseRedisBlock() {
+        RAtomicLong sequence = redissonClient.getAtomicLong(SEQUENCE_KEY);
+        seedIfEmpty(sequence);
+
+        return sequence.addAndGet(blockSize);
+    }
+
+    // leaseBlock 의 synchronized 안에서만 호출된다.
+    private long leaseLocalBlock() {
+        if (localSequence == 0L) {
+            localSequence = findLastAccountNumber();
+        }
+        localSequence += blockSize;
+        return localSequence;
+    }
+
+    private void seedIfEmpty(RAtomicLong sequence) {
+        if (sequence.get() != 0L) {
+            return;
+        }
+
+        // 처음 사용하는 Redis 라면 DB 에 저장된 마지막 계좌 번호부터 이어서 발급한다.
+        sequence.compareAndSet(0L, findLastAccountNumber());
+    }
+
+    private long findLastAccountNumber() {
+        return accountRepository.findFirstByOrderByIdDesc()
+                .map(account -> Long.parseLong(account.getAccountNumber()))
+                .orElse(FIRST_ACCOUNT_NUMBER - 1);
+    }
+
+    public long getLeasedBlocks() {
+        return leasedBlocks.get();
+    }
+
+    public long getLastBlockLifetimeMillis() {
+        return lastBlockLifetimeMillis.get();
+    }
+
+    public long getRemainingInBlock() {
+        Block block = currentBlock.get();
+        return Math.max(0L, block.last - block.next.get() + 1);
+    }
+
+    private static class Block {
+        private static final Block EMPTY = new Block(1L, 0L, 0L);
+
+        private final AtomicLong next;
+        private final long last;
+        private final long leasedAt;
+
+        private Block(long first, long last, long leasedAt) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+            this.leasedAt = leasedAt;
+        }
+    }
+}
@@ -2,20 +2,24 @@ package com.example.account.service;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.google.common.base.Objects;
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
 import com.example.account.dto.AccountDto;
+import com.example.account.dto.AccountMetadata;
 import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountBalanceShardRepository;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
 import com.example.account.type.AccountStatus;
+import com.example.account.type.BalanceMode;
 import com.example.account.type.ErrorCode;
 
 import lombok.RequiredArgsConstructor;
@@ -27,6 +31,13 @@ import static com.example.account.type.AccountStatus.IN_USE;
 public class AccountService {
     private final AccountRepository accountRepository;
     private final AccountUserRepository  accountUserRepository;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final AccountCache accountCache;
+    private final AccountBalanceShardRepository accountBalanceShardRepository;
+    private final RedisBalanceEngine redisBalanceEngine;
+    private final LedgerService ledgerService;
+    private final LockService lockService;
+    private final BalanceMode balanceMode;
 
     @Transactional
     public AccountDto createAccount(Long userId, Long initialBalance) {
@@ -35,9 +46,7 @@ public class AccountService {
 
         extracted(accountUser);
 
-        String newAccountNumber = accountRepository.findFirstByOrderByIdDesc()
-                .map(account -> (Integer.parseInt(account.getAccountNumber())) + 1 + "")
-                .orElse("1000000000");
+        String newAccountNumber = accountNumberAllocator.nextAccountNumber();
 
         return AccountDto.fromEntity(
                 accountRepository.save(Account.builder()
@@ -69,19 +78,26 @@ public class AccountService {
 
     @Transactional
     public List<AccountDto> getAccountsByUserId(Long userId) {
-        AccountUser accountUser = getAccountUser(userId);
-
-        List<Account> accounts = accountRepository.findByAccountUser(accountUser);
-
-        return accounts.stream()
-                .map(AccountDto::fromEntity)
-                .collect(Collectors.toList());
+        getAccountUser(userId);
+
+        List<AccountDto> accounts = accountRepository.findAccountDtosByUserId(userId);
+        if (balanceMode == BalanceMode.LEDGER) {
+            // Account.balance 는 마지막 스냅샷의 잔액이라 원장 위치로 다시 계산한다.
+            for (AccountDto account : accounts) {
+                account.setBalance(getLedgerBalance(account.getAccountNumber()));
+            }
+        }
+        return accounts;
     }
 
     @Transactional
     public AccountDto deleteAccount(Long userId, String accountNumber) {
         AccountUser accountUser = getAccountUser(userId);
 
+        if (balanceMode == BalanceMode.LEDGER) {
+            lockUntilCompletion(accountNumber);
+        }
+
         Account account = accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
 
@@ -91,6 +107,7 @@ public class AccountService {
         account.setUnRegisteredAt(LocalDateTime.now());
 
         accountRepository.save(account);
+        accountCache.invalidate(accountNumber);
 
         return AccountDto.fromEntity(account);
     }
@@ -98,16 +115,63 @@ public class AccountService {
     private void validateDeleteAccount(AccountUser accountUser,
                                        Account account) {
         if(!Objects.equal(accountUser.getId(), account.getAccountUser().getId())) {
-            throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH);
+            throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATHCHED);
         }
 
         if(account.getAccountStatus().equals(AccountStatus.UNREGISTERD)) {
             throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
         }
 
-        if(account.getBalance() > 0) {
+        // REDIS_LUA 모드는 Redis 잔액이 기준이다. 잔액이 0 이면 Redis 에서도 해지 상태로 바꾼다.
+        if (redisBalanceEngine.isEnabled()
+                && redisBalanceEngine.unregister(account.getAccountNumber())) {
+            return;
+        }
+
+        if(getTotalBalance(account) > 0) {
             throw new AccountException(ErrorCode.BALANCE_NOT_EMPTY);
         }
     }
 
+    private long getTotalBalance(Account account) {
+        if (balanceMode == BalanceMode.LEDGER) {
+            // Account.balance 는 마지막 스냅샷의 잔액이다.
+            return ledgerService.getPosition(account.getId()).getBalance();
+        }
+        if (account.getShardCount() == null || account.getShardCount() == 0) {
+            return account.getBalance();
+        }
+        return account.getBalance()
+                + accountBalanceShardRepository.sumBalanceByAccountId(account.getId());
+    }
+
+    private long getLedgerBalance(String accountNumber) {
+        Long accountId = accountCache.get(accountNumber, () ->
+                        accountRepository.findByAccountNumber(accountNumber)
+                                .map(AccountMetadata::from))
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND))
+                .getId();
+
+        lockService.lock(accountNumber);
+        try {
+            return ledgerService.getPosition(accountId).getBalance();
+        } finally {
+            lockService.unlock(accountNumber);
+        }
+    }
+
+    /**
+     * 원장 잔액을 확인한 뒤 해지가 커밋될 때까지 계좌 lock 을 잡아서 그 사이에 거래가 추가되지 않게 한다.
+     */
+    private void lockUntilCompletion(String accountNumber) {
+        lockService.lock(accountNumber);
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        lockService.unlock(accountNumber);
+                    }
+                });
+    }
+
 }
\ No newline at end of file
@@ -21,6 +21,7 @@ import static com.example.account.type.AccountStatus.IN_USE;
 public class AccountServiceTest {
     private final AccountRepository accountRepository;
     private final AccountUserRepository accountUserRepository;
+    private final AccountNumberAllocator accountNumberAllocator;
 
     /**
      * 사용자가 있는지 조회
@@ -32,9 +33,7 @@ public class AccountServiceTest {
         AccountUser accountUser = accountUserRepository.findById(userId)
                 .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
 
-        String newAccountNumber  = accountRepository.findFirstByOrderByIdDesc()
-                .map(account -> (Integer.parseInt(account.getAccountNumber())) + 1 + "")
-                .orElse("1000000000");
+        String newAccountNumber  = accountNumberAllocator.nextAccountNumber();
 
         return AccountDto.fromEntity(
                 accountRepository.save(Account.builder()
@@ -49,10 +48,11 @@ public class AccountServiceTest {
     }
 
     @Transactional
-    public Account getAccount(Long id) {
+    public AccountDto getAccount(Long id) {
         if(id < 0){
             throw new RuntimeException("Minus");
         }
-        return accountRepository.findById(id).get();
+        return accountRepository.findAccountDtoById(id)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
     }
 }
\ No newline at end of file
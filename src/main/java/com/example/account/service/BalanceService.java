@@ -0,0 +1,160 @@
+package com.example.account.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import com.example.account.aop.AccountLock;
+import com.example.account.dto.CancelBalance;
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.type.BalanceMode;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 잔액 변경 방식 선택
+ * LOCK : 외부 lock(@AccountLock) 을 잡은 상태에서 엔티티를 변경
+ * OPTIMISTIC : lock 없이 엔티티를 변경하고, @Version 충돌 시 재시도
+ * ATOMIC_SQL : lock 없이 조건부 UPDATE 한 번으로 잔액 확인과 변경을 처리
+ * LEDGER : 외부 lock 을 잡은 상태에서 계좌 row 대신 원장 거래만 추가 (LedgerService)
+ * REDIS_LUA : 외부 lock 없이 Redis Lua 스크립트 한 번으로 처리하고 DB 는 비동기로 반영 (RedisBalanceEngine)
+ * 분할 잔액 계좌는 방식과 관계없이 shard lock 으로 처리한다. (ShardedBalanceService)
+ */
+@Slf4j
+@Service
+public class BalanceService {
+    private final TransactionService transactionService;
+    private final ShardedBalanceService shardedBalanceService;
+    private final RedisBalanceEngine redisBalanceEngine;
+    private final BalanceMode balanceMode;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public BalanceService(
+            TransactionService transactionService,
+            ShardedBalanceService shardedBalanceService,
+            RedisBalanceEngine redisBalanceEngine,
+            BalanceMode balanceMode,
+            @Value("${account.balance.optimistic.max-attempts:5}") int maxAttempts,
+            @Value("${account.balance.optimistic.backoff-millis:10}") long backoffMillis) {
+        this.transactionService = transactionService;
+        this.shardedBalanceService = shardedBalanceService;
+        this.redisBalanceEngine = redisBalanceEngine;
+        this.balanceMode = balanceMode;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+    }
+
+    public BalanceMode getBalanceMode() {
+        return balanceMode;
+    }
+
+    /**
+     * 잔액 사용 요청 처리, 실패하면 실패 거래를 남긴다.
+     * lock 을 잡은 스레드에서 끝까지 실행되어야 하므로 비동기 실행기 안에서 호출한다.
+     */
+    @AccountLock
+    public TransactionDto useBalance(UseBalance.Request request) {
+        try {
+            return useBalance(request.getUserId(),
+                    request.getAccountNumber(), request.getAmount());
+        } catch (AccountException e) {
+            log.error("Failed to use balance. ");
+
+            transactionService.saveAndFailedUseTransaction(
+                    TransactionType.USE,
+                    TransactionResultType.F,
+                    request.getAccountNumber(),
+                    request.getAmount());
+            throw e;
+        }
+    }
+
+    @AccountLock
+    public TransactionDto cancelBalance(CancelBalance.CbRequest request) {
+        try {
+            return cancelBalance(request.getTransactionId(),
+                    request.getAccountNumber(), request.getAmount());
+        } catch (AccountException e) {
+            log.error("Failed to cancel balance. ");
+
+            transactionService.saveAndFailedUseTransaction(
+                    TransactionType.CANCEL,
+                    TransactionResultType.F,
+                    request.getAccountNumber(),
+                    request.getAmount());
+            throw e;
+        }
+    }
+
+    public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
+        if (shardedBalanceService.isSharded(accountNumber)) {
+            return shardedBalanceService.useBalance(userId, accountNumber, amount);
+        }
+        switch (balanceMode) {
+            case OPTIMISTIC:
+                return retryOnConflict(() ->
+                        transactionService.useBalance(userId, accountNumber, amount));
+            case ATOMIC_SQL:
+                return transactionService.useBalanceAtomically(userId, accountNumber, amount);
+            case LEDGER:
+                return transactionService.useBalanceLedger(userId, accountNumber, amount);
+            case REDIS_LUA:
+                return redisBalanceEngine.useBalance(userId, accountNumber, amount);
+            default:
+                return transactionService.useBalance(userId, accountNumber, amount);
+        }
+    }
+
+    public TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount) {
+        if (shardedBalanceService.isSharded(accountNumber)) {
+            return shardedBalanceService.cancelBalance(transactionId, accountNumber, amount);
+        }
+        switch (balanceMode) {
+            case OPTIMISTIC:
+                return retryOnConflict(() ->
+                        transactionService.cancelBalance(transactionId, accountNumber, amount));
+            case ATOMIC_SQL:
+                return transactionService.cancelBalanceAtomically(transactionId, accountNumber, amount);
+            case LEDGER:
+                return transactionService.cancelBalanceLedger(transactionId, accountNumber, amount);
+            case REDIS_LUA:
+                return redisBalanceEngine.cancelBalance(transactionId, accountNumber, amount);
+            default:
+                return transactionService.cancelBalance(transactionId, accountNumber, amount);
+        }
+    }
+
+    private TransactionDto retryOnConflict(Supplier<TransactionDto> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.error("Optimistic update failed after {} attempts", attempt);
+                    throw new AccountException(ErrorCode.LOCK_TIMEOUT);
+                }
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        // 지수 백오프 + jitter, 같은 계좌의 재시도가 다시 부딪히지 않도록 흩어 준다.
+        long delay = backoffMillis << Math.min(attempt - 1, 6);
+        try {
+            Thread.sleep(delay + ThreadLocalRandom.current().nextLong(delay + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountException(ErrorCode.LOCK_TIMEOUT);
+        }
+    }
+}
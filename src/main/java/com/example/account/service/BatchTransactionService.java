@@ -0,0 +1,120 @@
+package com.example.account.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import com.example.account.config.AsyncConfig;
+import com.example.account.dto.BalanceOperation;
+import com.example.account.dto.BatchTransaction;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 여러 건의 사용/취소 요청을 한 번에 처리한다.
+ * 계좌별로 묶어서 계좌마다 lock 한 번, DB 트랜잭션 한 번으로 요청 순서대로 처리하고,
+ * 서로 다른 계좌는 비동기 실행기에서 동시에 처리한다.
+ */
+@Slf4j
+@Service
+public class BatchTransactionService {
+    private final TransactionService transactionService;
+    private final LockService lockService;
+    private final DatabaseLockService databaseLockService;
+    private final Executor accountTaskExecutor;
+
+    public BatchTransactionService(
+            TransactionService transactionService,
+            LockService lockService,
+            DatabaseLockService databaseLockService,
+            @Qualifier(AsyncConfig.ACCOUNT_TASK_EXECUTOR) Executor accountTaskExecutor) {
+        this.transactionService = transactionService;
+        this.lockService = lockService;
+        this.databaseLockService = databaseLockService;
+        this.accountTaskExecutor = accountTaskExecutor;
+    }
+
+    public CompletableFuture<List<BatchTransaction.Result>> apply(
+            List<BatchTransaction.Operation> operations) {
+        BatchTransaction.Result[] results = new BatchTransaction.Result[operations.size()];
+
+        // 계좌 번호 -> 요청 목록에서의 위치
+        // 거래 종류에 필요한 값이 빠진 요청은 묶지 않고 바로 실패 처리한다.
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            BatchTransaction.Operation operation = operations.get(i);
+            if (!operation.isValidForTransactionType()) {
+                results[i] = BatchTransaction.Result.failure(operation, ErrorCode.INVALID_REQUEST);
+                continue;
+            }
+            groups.computeIfAbsent(operation.getAccountNumber(), key -> new ArrayList<>())
+                    .add(i);
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(groups.size());
+        for (Map.Entry<String, List<Integer>> group : groups.entrySet()) {
+            futures.add(CompletableFuture.runAsync(
+                    () -> applyGroup(group.getKey(), group.getValue(), operations, results),
+                    accountTaskExecutor));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> Arrays.asList(results));
+    }
+
+    private void applyGroup(String accountNumber, List<Integer> indexes,
+                            List<BatchTransaction.Operation> operations,
+                            BatchTransaction.Result[] results) {
+        List<BalanceOperation> balanceOperations = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            balanceOperations.add(operations.get(index).toBalanceOperation());
+        }
+
+        try {
+            lockService.lock(accountNumber);
+            try {
+                List<BalanceOperation.Result> applied = databaseLockService.executeIfRequired(
+                        () -> transactionService.applyBatch(balanceOperations));
+                for (int i = 0; i < indexes.size(); i++) {
+                    results[indexes.get(i)] = toResult(operations.get(indexes.get(i)), applied.get(i));
+                }
+            } finally {
+                lockService.unlock(accountNumber);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to process batch. accountNumber : {}", accountNumber, e);
+            ErrorCode errorCode = toErrorCode(e);
+            for (int index : indexes) {
+                results[index] = BatchTransaction.Result.failure(operations.get(index), errorCode);
+            }
+        }
+    }
+
+    private BatchTransaction.Result toResult(BatchTransaction.Operation operation,
+                                             BalanceOperation.Result result) {
+        if (result.isSuccess()) {
+            return BatchTransaction.Result.fromDto(result.getTransaction());
+        }
+        return BatchTransaction.Result.failure(operation, result.getException().getErrorCode());
+    }
+
+    private ErrorCode toErrorCode(RuntimeException e) {
+        if (e instanceof AccountException) {
+            return ((AccountException) e).getErrorCode();
+        }
+        if (e instanceof OptimisticLockingFailureException) {
+            return ErrorCode.LOCK_TIMEOUT;
+        }
+        return ErrorCode.INTERNAL_SERVER_ERROR;
+    }
+}
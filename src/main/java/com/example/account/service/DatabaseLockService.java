@@ -0,0 +1,105 @@
+package com.example.account.service;
+
+import java.util.function.Supplier;
+
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.LockMode;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * DB row lock (SELECT ... FOR UPDATE)
+ * @AccountLock 경로에서 DATABASE 방식을 고르면 외부 lock 을 잡지 않고 execute 로 실행한다.
+ * 그 안에서 잔액을 바꾸는 TransactionService 메소드가 자기 트랜잭션 첫 부분에서 lockIfRequired 로 계좌 row 를 잠근다.
+ * 잔액 변경과 lock 이 같은 트랜잭션이고 커밋/롤백할 때 풀리며, 실패 거래는 그 뒤에 따로 저장된다.
+ * LockService 를 직접 쓰는 경로는 외부 lock 을 잡은 뒤 executeIfRequired 로 실행해서 같은 row lock 을 잡는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DatabaseLockService {
+    private static final ThreadLocal<Boolean> REQUIRED = new ThreadLocal<>();
+
+    private final AccountRepository accountRepository;
+    private final AccountMetrics accountMetrics;
+    private final LockService lockService;
+
+    public interface LockedAction {
+        Object run() throws Throwable;
+    }
+
+    public Object execute(LockedAction action) throws Throwable {
+        Boolean previous = REQUIRED.get();
+        REQUIRED.set(Boolean.TRUE);
+        try {
+            return action.run();
+        } finally {
+            if (previous == null) {
+                REQUIRED.remove();
+            }
+        }
+    }
+
+    /**
+     * row lock 이 필요한 방식(LockService.isRowLockRequired)이면 execute 와 같이 실행하고, 아니면 그냥 실행한다.
+     */
+    public <T> T executeIfRequired(Supplier<T> action) {
+        if (!lockService.isRowLockRequired()) {
+            return action.get();
+        }
+        Boolean previous = REQUIRED.get();
+        REQUIRED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                REQUIRED.remove();
+            }
+        }
+    }
+
+    /**
+     * execute 안에서 호출된 경우에만 현재 DB 트랜잭션에서 계좌 row 를 잠근다.
+     */
+    public void lockIfRequired(String accountNumber) {
+        if (REQUIRED.get() == null) {
+            return;
+        }
+        log.debug("Trying database lock for accountNumber : {}", accountNumber);
+
+        long startedAt = System.nanoTime();
+        try {
+            // 계좌가 없으면 잠글 row 도 없다. 계좌 확인은 호출한 쪽에서 한다.
+            accountRepository.findForUpdateByAccountNumber(accountNumber);
+        } catch (PessimisticLockingFailureException | QueryTimeoutException e) {
+            log.error("========== Database lock acquisition failed ======");
+            accountMetrics.recordLockWait(LockMode.DATABASE.name(), false,
+                    System.nanoTime() - startedAt);
+            accountMetrics.lockFailed(accountNumber);
+            throw new AccountException(ErrorCode.LOCK_TIMEOUT);
+        }
+
+        long acquiredAt = System.nanoTime();
+        accountMetrics.recordLockWait(LockMode.DATABASE.name(), true, acquiredAt - startedAt);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            accountMetrics.recordLockHold(LockMode.DATABASE.name(),
+                                    System.nanoTime() - acquiredAt);
+                        }
+                    });
+        }
+    }
+}
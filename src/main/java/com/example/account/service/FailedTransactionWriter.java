@@ -0,0 +1,282 @@
+package com.example.account.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.domain.TransactionOutbox;
+import com.example.account.dto.TransactionDto;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionOutboxRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.BalanceMode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 실패 거래 기록을 요청 스레드에서 바로 저장하지 않고 대기열에 모았다가 주기적으로 한 번에 저장한다.
+ * 저장은 saveAll + hibernate.jdbc.batch_size 로 JDBC batch insert 가 된다.
+ * 잔액 스냅샷은 저장 시점의 잔액으로, 성공 거래와 같이 shard 합계나 원장 잔액을 쓴다.
+ * outbox 를 쓰면 실패 거래도 같은 트랜잭션에서 outbox 에 남긴다.
+ * 저장에 실패하면 DB 연결 문제 등은 batch 를 대기열에 다시 넣고, 그 밖의 오류는 batch 를 반으로 나눠 다시 저장해서
+ * 문제가 되는 기록만 버린다.
+ */
+@Slf4j
+@Service
+public class FailedTransactionWriter {
+    // 종료할 때 연속으로 이만큼 저장에 실패하면 DB 를 쓸 수 없는 것으로 보고 남은 기록을 버린다.
+    private static final int MAX_SHUTDOWN_FAILURES = 3;
+    // DB 연결 문제 등으로 대기열에 다시 넣는 최대 횟수
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionOutboxRepository transactionOutboxRepository;
+    private final LedgerService ledgerService;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final TransactionCache transactionCache;
+    private final TransactionTemplate transactionTemplate;
+    private final BalanceMode balanceMode;
+    private final boolean outboxEnabled;
+    private final boolean enabled;
+    private final int batchSize;
+    private final BlockingQueue<PendingTransaction> queue;
+
+    public FailedTransactionWriter(
+            TransactionRepository transactionRepository,
+            AccountRepository accountRepository,
+            TransactionOutboxRepository transactionOutboxRepository,
+            LedgerService ledgerService,
+            TransactionIdGenerator transactionIdGenerator,
+            TransactionCache transactionCache,
+            PlatformTransactionManager transactionManager,
+            BalanceMode balanceMode,
+            @Value("${account.outbox.enabled:true}") boolean outboxEnabled,
+            @Value("${account.transaction.failed-writer.enabled:true}") boolean enabled,
+            @Value("${account.transaction.failed-writer.batch-size:500}") int batchSize,
+            @Value("${account.transaction.failed-writer.queue-capacity:100000}") int queueCapacity) {
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.transactionOutboxRepository = transactionOutboxRepository;
+        this.ledgerService = ledgerService;
+        this.transactionIdGenerator = transactionIdGenerator;
+        this.transactionCache = transactionCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.balanceMode = balanceMode;
+        this.outboxEnabled = outboxEnabled;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * 대기열이 가득 차면 false 를 반환한다. 호출한 쪽에서 직접 저장해야 한다.
+     */
+    public boolean append(TransactionType transactionType,
+                          TransactionResultType transactionResultType,
+                          String accountNumber, Long amount) {
+        boolean accepted = queue.offer(new PendingTransaction(
+                transactionType, transactionResultType, accountNumber, amount,
+                transactionIdGenerator.generate(), LocalDateTime.now(), 0));
+        if (!accepted) {
+            log.warn("Failed transaction queue is full. accountNumber : {}", accountNumber);
+        }
+        return accepted;
+    }
+
+    @Scheduled(fixedDelayString = "${account.transaction.failed-writer.flush-interval-millis:100}")
+    public void flush() {
+        flushBatch();
+    }
+
+    /**
+     * 종료할 때 남은 기록을 모두 저장한다. 한 번 실패해도 나머지 batch 는 계속 저장한다.
+     */
+    @PreDestroy
+    public void flushAll() {
+        int failures = 0;
+        while (!queue.isEmpty() && failures < MAX_SHUTDOWN_FAILURES) {
+            failures = flushBatch() ? 0 : failures + 1;
+        }
+        if (!queue.isEmpty()) {
+            log.error("Dropped {} failed transactions on shutdown", queue.size());
+        }
+    }
+
+    /**
+     * batch 하나를 저장한다. 일부라도 저장하지 못했으면 false 를 반환한다.
+     */
+    private boolean flushBatch() {
+        List<PendingTransaction> pending = new ArrayList<>();
+        queue.drainTo(pending, batchSize);
+        if (pending.isEmpty()) {
+            return true;
+        }
+        return save(pending);
+    }
+
+    /**
+     * 자기 트랜잭션에서 저장한다.
+     * 기록과 관계없는 오류(DB 연결, lock 대기 시간 초과 등)는 나눠도 같이 실패하므로 대기열에 다시 넣는다.
+     * 그 밖의 오류는 반으로 나눠서 다시 저장하고, 한 건만 남아도 실패하면 그 기록을 버린다.
+     */
+    private boolean save(List<PendingTransaction> pending) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(pending));
+            return true;
+        } catch (CannotCreateTransactionException
+                 | DataAccessResourceFailureException
+                 | TransientDataAccessException e) {
+            log.error("Failed to flush {} failed transactions. Retrying later.", pending.size(), e);
+            requeue(pending);
+            return false;
+        } catch (RuntimeException e) {
+            if (pending.size() == 1) {
+                log.error("Dropped failed transaction : {}", pending.get(0).getTransactionId(), e);
+                return false;
+            }
+            log.warn("Failed to flush {} failed transactions. Splitting the batch.",
+                    pending.size(), e);
+            int half = pending.size() / 2;
+            boolean first = save(pending.subList(0, half));
+            boolean second = save(pending.subList(half, pending.size()));
+            return first && second;
+        }
+    }
+
+    private void requeue(List<PendingTransaction> pending) {
+        int dropped = 0;
+        for (PendingTransaction item : pending) {
+            if (item.getAttempts() + 1 >= MAX_ATTEMPTS || !queue.offer(item.retry())) {
+                dropped++;
+            }
+        }
+        if (dropped > 0) {
+            log.error("Dropped {} failed transactions after retries", dropped);
+        }
+    }
+
+    private void write(List<PendingTransaction> pending) {
+        Map<String, Account> accounts = accountRepository.findAllByAccountNumberIn(
+                        pending.stream()
+                                .map(PendingTransaction::getAccountNumber)
+                                .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Account::getAccountNumber, Function.identity()));
+
+        Map<String, Long> balances = new HashMap<>();
+        List<Transaction> transactions = new ArrayList<>(pending.size());
+        for (PendingTransaction item : pending) {
+            Account account = accounts.get(item.getAccountNumber());
+            if (account == null) {
+                log.warn("Dropped failed transaction of unknown account : {}",
+                        item.getAccountNumber());
+                continue;
+            }
+            transactions.add(Transaction.builder()
+                    .transactionType(item.getTransactionType())
+                    .transactionResultType(item.getTransactionResultType())
+                    .account(account)
+                    .amount(item.getAmount())
+                    .balanceSnapshot(balances.computeIfAbsent(
+                            account.getAccountNumber(), key -> getBalance(account)))
+                    .transactionId(item.getTransactionId())
+                    .transactedAt(item.getTransactedAt())
+                    .build());
+        }
+
+        List<Transaction> saved = transactionRepository.saveAll(transactions);
+        if (outboxEnabled) {
+            transactionOutboxRepository.saveAll(saved.stream()
+                    .map(transaction -> TransactionOutbox.from(
+                            transaction, transaction.getAccount().getAccountNumber()))
+                    .collect(Collectors.toList()));
+        }
+        cacheAfterCommit(saved.stream()
+                .map(TransactionDto::fromEntity)
+                .collect(Collectors.toList()));
+
+        log.debug("Flushed {} failed transactions", saved.size());
+    }
+
+    /**
+     * 롤백되거나 나눠서 다시 저장할 기록이 캐시에 남지 않도록 커밋된 뒤에 넣는다.
+     */
+    private void cacheAfterCommit(List<TransactionDto> transactions) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactions.forEach(transactionCache::put);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        transactions.forEach(transactionCache::put);
+                    }
+                });
+    }
+
+    /**
+     * 잔액이 Account row 에 없는 계좌(원장 모드, 분할 잔액)는 원장 위치나 shard 합계를 쓴다.
+     */
+    private long getBalance(Account account) {
+        if (balanceMode == BalanceMode.LEDGER) {
+            return ledgerService.getPosition(account.getId()).getBalance();
+        }
+        if (account.getShardCount() != null && account.getShardCount() > 0) {
+            return accountRepository.findBalanceByAccountNumber(account.getAccountNumber())
+                    .orElse(account.getBalance());
+        }
+        return account.getBalance();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class PendingTransaction {
+        private final TransactionType transactionType;
+        private final TransactionResultType transactionResultType;
+        private final String accountNumber;
+        private final Long amount;
+        private final String transactionId;
+        private final LocalDateTime transactedAt;
+        private final int attempts;
+
+        private PendingTransaction retry() {
+            return new PendingTransaction(transactionType, transactionResultType, accountNumber,
+                    amount, transactionId, transactedAt, attempts + 1);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.account.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 계층형 타이머 휠 (만료 시각이 있는 키 관리)
+ * 단계마다 wheelSize 개의 bucket 이 있고, 위 단계의 bucket 하나는 아래 단계 전체 주기를 덮는다.
+ * 등록/취소는 O(1), tick 마다 현재 bucket 하나만 보고, 위 단계 bucket 은 주기가 돌아올 때 아래 단계로 내려 보낸다.
+ * 등록된 키 수와 관계없이 tick 당 비용은 만료되거나 내려가는 항목 수에만 비례한다.
+ * 여러 스레드에서 호출할 수 있도록 모든 메소드를 동기화한다.
+ */
+final class HierarchicalTimerWheel<K> {
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<Level<K>> levels = new ArrayList<>();
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+
+    HierarchicalTimerWheel(long tickMillis, int wheelSize, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        levels.add(new Level<>(tickMillis, wheelSize, startMillis));
+    }
+
+    /**
+     * 같은 키가 있으면 만료 시각을 바꾼다.
+     * 이미 지난 시각이면 등록하지 않고 false 를 반환한다. (호출한 쪽에서 바로 만료 처리)
+     */
+    synchronized boolean add(K key, long expirationMillis) {
+        remove(key);
+        if (expirationMillis < levels.get(0).currentTime) {
+            return false;
+        }
+        Entry<K> entry = new Entry<>(key, expirationMillis);
+        entries.put(key, entry);
+        place(entry);
+        return true;
+    }
+
+    synchronized boolean remove(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.unlink();
+        return true;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * nowMillis 까지 시간을 진행하고 만료된 키를 반환한다.
+     */
+    synchronized List<K> advance(long nowMillis) {
+        List<K> expired = new ArrayList<>();
+        Level<K> root = levels.get(0);
+
+        while (root.currentTime + tickMillis <= nowMillis) {
+            // 현재 bucket 의 항목은 모두 [currentTime, currentTime + tick) 에 만료된다.
+            Bucket<K> bucket = root.bucketFor(root.currentTime);
+            for (Entry<K> entry = bucket.poll(); entry != null; entry = bucket.poll()) {
+                entries.remove(entry.key);
+                expired.add(entry.key);
+            }
+
+            long time = root.currentTime + tickMillis;
+            for (Level<K> level : levels) {
+                level.currentTime = time - (time % level.tick);
+            }
+            // 주기가 돌아온 위 단계 bucket 을 위에서부터 아래 단계로 내려 보낸다.
+            for (int i = levels.size() - 1; i > 0; i--) {
+                Level<K> level = levels.get(i);
+                if (time % level.tick != 0) {
+                    continue;
+                }
+                Bucket<K> cascade = level.bucketFor(level.currentTime);
+                for (Entry<K> entry = cascade.poll(); entry != null; entry = cascade.poll()) {
+                    place(entry);
+                }
+            }
+        }
+        return expired;
+    }
+
+    private void place(Entry<K> entry) {
+        for (int i = 0; ; i++) {
+            if (i == levels.size()) {
+                Level<K> lower = levels.get(i - 1);
+                levels.add(new Level<>(lower.interval, wheelSize, lower.currentTime));
+            }
+            Level<K> level = levels.get(i);
+            if (entry.expiration < level.currentTime + level.interval) {
+                // 현재 시각 이전이면 현재 bucket 에 넣어서 다음 tick 에 만료시킨다.
+                long at = Math.max(entry.expiration, level.currentTime);
+                level.bucketFor(at).add(entry);
+                return;
+            }
+        }
+    }
+
+    private static final class Level<K> {
+        private final long tick;
+        private final long interval;
+        private final Bucket<K>[] buckets;
+        private long currentTime;
+
+        @SuppressWarnings("unchecked")
+        private Level(long tick, int wheelSize, long startMillis) {
+            this.tick = tick;
+            this.interval = tick * wheelSize;
+            this.buckets = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new Bucket<>();
+            }
+            this.currentTime = startMillis - (startMillis % tick);
+        }
+
+        private Bucket<K> bucketFor(long time) {
+            return buckets[(int) ((time / tick) % buckets.length)];
+        }
+    }
+
+    /**
+     * 원형 이중 연결 리스트, 항목을 찾지 않고 바로 떼어낼 수 있다.
+     */
+    private static final class Bucket<K> {
+        private final Entry<K> head = new Entry<>(null, 0L);
+
+        private Bucket() {
+            head.prev = head;
+            head.next = head;
+        }
+
+        private void add(Entry<K> entry) {
+            entry.bucket = this;
+            entry.prev = head.prev;
+            entry.next = head;
+            head.prev.next = entry;
+            head.prev = entry;
+        }
+
+        private Entry<K> poll() {
+            Entry<K> first = head.next;
+            if (first == head) {
+                return null;
+            }
+            first.unlink();
+            return first;
+        }
+    }
+
+    private static final class Entry<K> {
+        private final K key;
+        private final long expiration;
+        private Bucket<K> bucket;
+        private Entry<K> prev;
+        private Entry<K> next;
+
+        private Entry(K key, long expiration) {
+            this.key = key;
+            this.expiration = expiration;
+        }
+
+        private void unlink() {
+            if (bucket == null) {
+                return;
+            }
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+            bucket = null;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.account.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.account.dto.Hold;
+import com.example.account.dto.HoldDto;
+import com.example.account.dto.HoldExpiry;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.BalanceHoldRepository;
+import com.example.account.type.BalanceMode;
+import com.example.account.type.ErrorCode;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 승인(authorize) / 매입(capture) / 취소(void) 요청 처리와 승인 만료
+ * 승인 금액은 Account.heldAmount 로 묶여서 사용 가능 잔액에서 빠지고, 잔액은 매입할 때 줄어든다.
+ * 만료는 JVM 내부 타이머 휠로 처리하며, 시작할 때 승인 상태인 내역으로 다시 만든다.
+ * 승인은 그 요청을 받은 노드의 타이머 휠에만 있으므로, 그 노드가 멈추면 만료되지 않는다.
+ * 이런 승인은 sweep-interval 마다 DB 에서 만료 시각이 지난 승인을 찾아서 닫는다.
+ * 여러 노드가 같은 승인을 만료시켜도 상태 변경은 조건부 UPDATE 라 한 번만 반영된다.
+ * 잔액이 Account row 에 없는 방식(LEDGER, REDIS_LUA)은 지원하지 않는다.
+ */
+@Slf4j
+@Service
+public class HoldService {
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final TransactionService transactionService;
+    private final BalanceHoldRepository balanceHoldRepository;
+    private final LockService lockService;
+    private final DatabaseLockService databaseLockService;
+    private final AccountLockPolicy accountLockPolicy;
+    private final AccountMetrics accountMetrics;
+    private final BalanceMode balanceMode;
+    private final long defaultTtlSeconds;
+    private final long maxTtlSeconds;
+    private final long tickMillis;
+    private final int rebuildPageSize;
+    private final HierarchicalTimerWheel<Long> timerWheel;
+
+    public HoldService(
+            TransactionService transactionService,
+            BalanceHoldRepository balanceHoldRepository,
+            LockService lockService,
+            DatabaseLockService databaseLockService,
+            AccountLockPolicy accountLockPolicy,
+            AccountMetrics accountMetrics,
+            BalanceMode balanceMode,
+            @Value("${account.hold.default-ttl-seconds:604800}") long defaultTtlSeconds,
+            @Value("${account.hold.max-ttl-seconds:2592000}") long maxTtlSeconds,
+            @Value("${account.hold.wheel.tick-millis:1000}") long tickMillis,
+            @Value("${account.hold.wheel.wheel-size:512}") int wheelSize,
+            @Value("${account.hold.rebuild-page-size:10000}") int rebuildPageSize) {
+        this.transactionService = transactionService;
+        this.balanceHoldRepository = balanceHoldRepository;
+        this.lockService = lockService;
+        this.databaseLockService = databaseLockService;
+        this.accountLockPolicy = accountLockPolicy;
+        this.accountMetrics = accountMetrics;
+        this.balanceMode = balanceMode;
+        this.defaultTtlSeconds = defaultTtlSeconds;
+        this.maxTtlSeconds = maxTtlSeconds;
+        this.tickMillis = tickMillis;
+        this.rebuildPageSize = rebuildPageSize;
+        this.timerWheel = new HierarchicalTimerWheel<>(
+                tickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    public HoldDto authorize(Hold.AuthorizeRequest request) {
+        validateBalanceMode();
+
+        long ttlSeconds = request.getExpiresInSeconds() == null
+                ? defaultTtlSeconds
+                : Math.min(request.getExpiresInSeconds(), maxTtlSeconds);
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(ttlSeconds);
+
+        HoldDto hold = withAccountLock(request.getAccountNumber(), () ->
+                transactionService.authorizeHold(request.getUserId(),
+                        request.getAccountNumber(), request.getAmount(), expiresAt));
+
+        // 커밋된 뒤에 등록한다.
+        schedule(hold.getId(), hold.getExpiresAt());
+        return hold;
+    }
+
+    public HoldDto capture(Hold.CaptureRequest request) {
+        validateBalanceMode();
+
+        HoldDto hold = withAccountLock(getAccountNumber(request.getHoldId()), () ->
+                transactionService.captureHold(request.getHoldId(), request.getAmount()));
+
+        timerWheel.remove(hold.getId());
+        return hold;
+    }
+
+    public HoldDto voidHold(Hold.VoidRequest request) {
+        validateBalanceMode();
+
+        HoldDto hold = withAccountLock(getAccountNumber(request.getHoldId()), () ->
+                transactionService.voidHold(request.getHoldId()));
+
+        timerWheel.remove(hold.getId());
+        return hold;
+    }
+
+    /**
+     * tick 마다 타이머 휠을 진행하고 만료된 승인을 하나씩 닫는다.
+     */
+    @Scheduled(fixedDelayString = "${account.hold.wheel.tick-millis:1000}")
+    public void expireHolds() {
+        List<Long> expired = timerWheel.advance(System.currentTimeMillis());
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        int expiredHolds = 0;
+        for (Long id : expired) {
+            if (expire(id)) {
+                expiredHolds++;
+            }
+        }
+        accountMetrics.holdsExpired(expiredHolds);
+        log.debug("Holds expired : {} / {}", expiredHolds, expired.size());
+    }
+
+    /**
+     * 승인 상태로 남아 있는 내역을 id 순서로 나눠서 읽어 타이머 휠을 다시 만든다.
+     * 그 사이 만료 시각이 지난 승인은 다음 tick 에 만료된다.
+     */
+    /**
+     * 타이머 휠에 없는 승인(요청을 받은 노드가 멈춤 등)을 만료시키는 느린 주기의 DB 조회
+     * 만료 시각이 지난 승인 상태 내역을 id 순서로 나눠 읽어서 닫는다.
+     */
+    @Scheduled(fixedDelayString = "${account.hold.sweep-interval-millis:60000}",
+            initialDelayString = "${account.hold.sweep-interval-millis:60000}")
+    public void sweepExpiredHolds() {
+        if (!balanceMode.supportsHolds()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        long afterId = 0L;
+        int expiredHolds = 0;
+        while (true) {
+            List<Long> page = balanceHoldRepository.findExpiredAfter(
+                    now, afterId, PageRequest.of(0, rebuildPageSize));
+            for (Long id : page) {
+                if (expire(id)) {
+                    expiredHolds++;
+                }
+            }
+            if (page.size() < rebuildPageSize) {
+                break;
+            }
+            afterId = page.get(page.size() - 1);
+        }
+        if (expiredHolds > 0) {
+            accountMetrics.holdsExpired(expiredHolds);
+            log.info("Expired holds found by sweep : {}", expiredHolds);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!balanceMode.supportsHolds()) {
+            return;
+        }
+
+        long startedAt = System.currentTimeMillis();
+        long afterId = 0L;
+        int holds = 0;
+        while (true) {
+            List<HoldExpiry> page = balanceHoldRepository.findAuthorizedAfter(
+                    afterId, PageRequest.of(0, rebuildPageSize));
+            for (HoldExpiry hold : page) {
+                schedule(hold.getId(), hold.getExpiresAt());
+            }
+            holds += page.size();
+            if (page.size() < rebuildPageSize) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getId();
+        }
+        log.info("Hold timer wheel rebuilt : {} holds in {} ms",
+                holds, System.currentTimeMillis() - startedAt);
+    }
+
+    int pendingHolds() {
+        return timerWheel.size();
+    }
+
+    boolean expire(Long id) {
+        try {
+            String accountNumber = balanceHoldRepository.findAccountNumberById(id).orElse(null);
+            if (accountNumber == null) {
+                return false;
+            }
+            return withAccountLock(accountNumber, () -> transactionService.expireHold(id));
+        } catch (RuntimeException e) {
+            // lock 대기 시간 초과 등은 다음 tick 에 다시 시도한다.
+            log.warn("Failed to expire hold : {}", id, e);
+            timerWheel.add(id, System.currentTimeMillis() + tickMillis);
+            return false;
+        }
+    }
+
+    private void schedule(Long id, LocalDateTime expiresAt) {
+        long expirationMillis = expiresAt.atZone(ZONE).toInstant().toEpochMilli();
+        if (!timerWheel.add(id, expirationMillis)) {
+            // 이미 지난 시각이면 다음 tick 에 만료시킨다.
+            timerWheel.add(id, System.currentTimeMillis());
+        }
+    }
+
+    private String getAccountNumber(String holdId) {
+        return balanceHoldRepository.findAccountNumberByHoldId(holdId)
+                .orElseThrow(() -> new AccountException(ErrorCode.HOLD_NOT_FOUND));
+    }
+
+    private void validateBalanceMode() {
+        if (!balanceMode.supportsHolds()) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+    }
+
+    /**
+     * 계좌 lock 을 쓰는 방식이면 사용 요청과 같은 lock 을 잡는다.
+     * 승인 금액은 조건부 UPDATE 로 바꾸지만, lock 을 잡고 엔티티를 바꾸는 사용 요청과 엇갈리지 않게 한다.
+     */
+    private <T> T withAccountLock(String accountNumber, Supplier<T> action) {
+        if (accountLockPolicy.isLockDelegated(accountNumber)) {
+            return action.get();
+        }
+        lockService.lock(accountNumber);
+        try {
+            return databaseLockService.executeIfRequired(action);
+        } finally {
+            lockService.unlock(accountNumber);
+        }
+    }
+}
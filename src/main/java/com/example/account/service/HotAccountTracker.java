@@ -0,0 +1,202 @@
+package com.example.account.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.account.dto.HotAccount;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 요청이 몰리는 계좌 탐지 (heavy hitters)
+ * Count-Min Sketch 에 계좌별 요청 수와 lock 대기 시간을 더하고, 후보 계좌 중 상위 K 개를 주기마다 뽑는다.
+ * 후보는 Space-Saving 처럼 개수를 제한한다. 후보가 가득 차면 새 계좌의 추정치가 후보 중 가장 작은 추정치보다
+ * 클 때만 그 후보를 밀어내고 들어간다. 먼저 들어온 계좌가 자리를 차지해서 나중에 몰리는 계좌를 놓치지 않는다.
+ * 기록은 CAS 만 쓰고, 후보를 바꿀 때만 lock 을 잡는다. 주기가 끝나면 sketch 를 비우고 다음 주기를 센다.
+ */
+@Slf4j
+@Component
+public class HotAccountTracker {
+    private static final int DEPTH = 4;
+
+    private final int width;
+    private final AtomicLongArray requests;
+    private final AtomicLongArray lockWaitNanos;
+    private final int topK;
+    private final int maxCandidates;
+    private final double hotRequestsPerSecond;
+    private final Set<String> candidates = ConcurrentHashMap.newKeySet();
+
+    // 후보 중 가장 작은 추정치의 하한, 이보다 작은 계좌는 후보를 바꾸지 않는다.
+    private volatile long minCandidateEstimate;
+    private volatile long windowStartedAt = System.nanoTime();
+    private volatile List<HotAccount> lastReport = Collections.emptyList();
+    private volatile Set<String> hotAccounts = Collections.emptySet();
+
+    public HotAccountTracker(
+            @Value("${account.hot.sketch-width:4096}") int sketchWidth,
+            @Value("${account.hot.top-k:10}") int topK,
+            @Value("${account.hot.requests-per-second:50}") double hotRequestsPerSecond) {
+        this.width = Integer.highestOneBit(Math.max(sketchWidth, 16) - 1) << 1;
+        this.requests = new AtomicLongArray(DEPTH * width);
+        this.lockWaitNanos = new AtomicLongArray(DEPTH * width);
+        this.topK = topK;
+        this.maxCandidates = topK * 4;
+        this.hotRequestsPerSecond = hotRequestsPerSecond;
+    }
+
+    public void record(String accountNumber, long waitNanos) {
+        int hash = accountNumber.hashCode();
+        int step = Integer.rotateLeft(hash * 0x9E3779B9, 16) | 1;
+
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = index(row, hash, step);
+            estimate = Math.min(estimate, requests.incrementAndGet(index));
+            if (waitNanos > 0) {
+                lockWaitNanos.addAndGet(index, waitNanos);
+            }
+        }
+
+        if (candidates.contains(accountNumber)
+                || candidates.size() >= maxCandidates && estimate <= minCandidateEstimate) {
+            return;
+        }
+        admit(accountNumber, estimate);
+    }
+
+    /**
+     * 자리가 있으면 후보에 넣고, 없으면 추정치가 가장 작은 후보보다 클 때 그 후보와 바꾼다.
+     */
+    private synchronized void admit(String accountNumber, long estimate) {
+        if (candidates.contains(accountNumber)) {
+            return;
+        }
+        if (candidates.size() < maxCandidates) {
+            candidates.add(accountNumber);
+            return;
+        }
+
+        String minCandidate = null;
+        long min = Long.MAX_VALUE;
+        long secondMin = Long.MAX_VALUE;
+        for (String candidate : candidates) {
+            long count = estimate(requests, candidate);
+            if (count < min) {
+                secondMin = min;
+                min = count;
+                minCandidate = candidate;
+            } else if (count < secondMin) {
+                secondMin = count;
+            }
+        }
+
+        if (minCandidate == null || estimate <= min) {
+            minCandidateEstimate = min;
+            return;
+        }
+        candidates.remove(minCandidate);
+        candidates.add(accountNumber);
+        minCandidateEstimate = Math.min(secondMin, estimate);
+    }
+
+    public boolean isHot(String accountNumber) {
+        return hotAccounts.contains(accountNumber);
+    }
+
+    public List<HotAccount> getTopAccounts() {
+        return lastReport;
+    }
+
+    /**
+     * 이번 주기의 상위 K 계좌를 계산해서 로그를 남기고 다음 주기를 시작한다.
+     */
+    @Scheduled(fixedDelayString = "${account.hot.report-interval-millis:10000}")
+    public synchronized void report() {
+        long now = System.nanoTime();
+        double seconds = Math.max(now - windowStartedAt, 1L) / (double) TimeUnit.SECONDS.toNanos(1);
+
+        PriorityQueue<HotAccount> top = new PriorityQueue<>(
+                Comparator.comparingDouble(HotAccount::getRequestsPerSecond));
+        for (String accountNumber : candidates) {
+            long count = estimate(requests, accountNumber);
+            if (count == 0) {
+                continue;
+            }
+            double rate = count / seconds;
+            top.offer(HotAccount.builder()
+                    .accountNumber(accountNumber)
+                    .requestsPerSecond(rate)
+                    .averageLockWaitMillis(
+                            estimate(lockWaitNanos, accountNumber) / (double) count / 1_000_000d)
+                    .hot(rate >= hotRequestsPerSecond)
+                    .build());
+            if (top.size() > topK) {
+                top.poll();
+            }
+        }
+
+        List<HotAccount> report = new ArrayList<>(top);
+        report.sort(Comparator.comparingDouble(HotAccount::getRequestsPerSecond).reversed());
+        Set<String> reported = report.stream()
+                .map(HotAccount::getAccountNumber)
+                .collect(Collectors.toSet());
+
+        lastReport = Collections.unmodifiableList(report);
+        hotAccounts = Collections.unmodifiableSet(report.stream()
+                .filter(HotAccount::isHot)
+                .map(HotAccount::getAccountNumber)
+                .collect(Collectors.toCollection(HashSet::new)));
+
+        candidates.retainAll(reported);
+        clear(requests);
+        clear(lockWaitNanos);
+        minCandidateEstimate = 0L;
+        windowStartedAt = now;
+
+        if (!report.isEmpty()) {
+            log.info("Hot accounts : {}", report.stream()
+                    .map(account -> String.format("%s %.1f/s wait %.1fms%s",
+                            account.getAccountNumber(),
+                            account.getRequestsPerSecond(),
+                            account.getAverageLockWaitMillis(),
+                            account.isHot() ? " (hot)" : ""))
+                    .collect(Collectors.joining(", ")));
+        }
+    }
+
+    private long estimate(AtomicLongArray sketch, String accountNumber) {
+        int hash = accountNumber.hashCode();
+        int step = Integer.rotateLeft(hash * 0x9E3779B9, 16) | 1;
+
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            min = Math.min(min, sketch.get(index(row, hash, step)));
+        }
+        return min;
+    }
+
+    // 행마다 다른 해시 : hash + row * step (double hashing)
+    private int index(int row, int hash, int step) {
+        return row * width + ((hash + row * step) & (width - 1));
+    }
+
+    private void clear(AtomicLongArray sketch) {
+        for (int i = 0; i < sketch.length(); i++) {
+            sketch.lazySet(i, 0L);
+        }
+    }
+}
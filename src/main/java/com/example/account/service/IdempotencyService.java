@@ -0,0 +1,237 @@
+package com.example.account.service;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Idempotency-Key 중복 요청 처리
+ * - 처리 중인 키 : 같은 노드면 첫 요청의 결과를 같이 기다리고, 다른 노드면 REQUEST_IN_PROGRESS
+ * - 처리가 끝난 키 : 저장된 응답을 바로 반환 (lock, DB 트랜잭션 없음)
+ * 응답은 로컬 Caffeine 과 Redis RMapCache 에 TTL 동안 보관한다. 실패한 요청은 저장하지 않아 다시 시도할 수 있다.
+ * 키는 거래 종류와 계좌(또는 승인 번호) 범위 안에서만 유효하고, 같은 키로 본문이 다른 요청이 오면 INVALID_REQUEST.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+    public static final String USE = "use";
+    public static final String CANCEL = "cancel";
+    public static final String TRANSFER = "transfer";
+    public static final String AUTHORIZE = "authorize";
+    public static final String CAPTURE = "capture";
+    public static final String VOID = "void";
+
+    private static final String REDIS_KEY = "ACIDEM";
+    private static final String IN_PROGRESS = "IN_PROGRESS";
+
+    private final RedissonClient redissonClient;
+    private final ObjectMapper objectMapper;
+    private final boolean redisEnabled;
+    private final long ttlSeconds;
+    private final long inProgressTtlSeconds;
+    private final Cache<String, StoredResponse> nearCache;
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(
+            @Lazy RedissonClient redissonClient,
+            ObjectMapper objectMapper,
+            @Value("${account.idempotency.redis-enabled:true}") boolean redisEnabled,
+            @Value("${account.idempotency.ttl-seconds:86400}") long ttlSeconds,
+            @Value("${account.idempotency.in-progress-ttl-seconds:30}") long inProgressTtlSeconds,
+            @Value("${account.idempotency.near-cache-size:100000}") long nearCacheSize) {
+        this.redissonClient = redissonClient;
+        this.objectMapper = objectMapper;
+        this.redisEnabled = redisEnabled;
+        this.ttlSeconds = ttlSeconds;
+        this.inProgressTtlSeconds = inProgressTtlSeconds;
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize(nearCacheSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * 키가 없으면 그냥 실행한다. 응답 타입은 Serializable 이어야 Redis 에 저장된다.
+     * scope 는 키를 보낸 주체를 구분하는 값(계좌 번호, 승인 번호)으로, 다른 계좌의 같은 키와 섞이지 않게 한다.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> execute(String operation, String scope, String idempotencyKey,
+                                            Object request,
+                                            Supplier<CompletableFuture<T>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        String key = operation + ":" + scope + ":" + idempotencyKey;
+        String requestHash = hash(request);
+
+        StoredResponse stored = nearCache.getIfPresent(key);
+        if (stored != null) {
+            return CompletableFuture.completedFuture((T) stored.matching(requestHash));
+        }
+
+        InFlight first = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(key, first);
+        if (running != null) {
+            if (!running.requestHash.equals(requestHash)) {
+                throw new AccountException(ErrorCode.INVALID_REQUEST);
+            }
+            return (CompletableFuture<T>) running.future;
+        }
+
+        // 첫 요청이 저장을 마치고 inFlight 에서 빠진 직후일 수 있으므로 다시 확인한다.
+        stored = nearCache.getIfPresent(key);
+        if (stored == null) {
+            stored = acquireRemote(key, first);
+        }
+        if (stored != null) {
+            inFlight.remove(key, first);
+            first.future.complete(stored.response);
+            return CompletableFuture.completedFuture((T) stored.matching(requestHash));
+        }
+
+        CompletableFuture<T> result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            finish(key, first, null, e);
+            throw e;
+        }
+        result.whenComplete((value, error) -> finish(key, first, value, error));
+        return result;
+    }
+
+    private void finish(String key, InFlight first, Object value, Throwable error) {
+        if (error == null) {
+            store(key, first.requestHash, value);
+        } else {
+            releaseRemote(key);
+        }
+        inFlight.remove(key, first);
+
+        if (error == null) {
+            first.future.complete(value);
+        } else {
+            first.future.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * 다른 노드에서 처리 중인지 확인하고 처리 중 표시를 남긴다. 이미 끝난 요청이면 저장된 응답을 반환한다.
+     */
+    private StoredResponse acquireRemote(String key, InFlight first) {
+        if (!redisEnabled) {
+            return null;
+        }
+
+        Object previous;
+        try {
+            previous = remote().putIfAbsent(key, IN_PROGRESS,
+                    inProgressTtlSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("Failed to check idempotency key on redis : {}", key, e);
+            return null;
+        }
+
+        if (IN_PROGRESS.equals(previous)) {
+            AccountException exception = new AccountException(ErrorCode.REQUEST_IN_PROGRESS);
+            inFlight.remove(key, first);
+            first.future.completeExceptionally(exception);
+            throw exception;
+        }
+        if (previous instanceof StoredResponse) {
+            nearCache.put(key, (StoredResponse) previous);
+            return (StoredResponse) previous;
+        }
+        return null;
+    }
+
+    private void store(String key, String requestHash, Object value) {
+        if (value == null) {
+            return;
+        }
+        StoredResponse stored = new StoredResponse(requestHash, value);
+        nearCache.put(key, stored);
+
+        if (redisEnabled) {
+            try {
+                remote().fastPut(key, stored, ttlSeconds, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                log.warn("Failed to store idempotent response on redis : {}", key, e);
+            }
+        }
+    }
+
+    private void releaseRemote(String key) {
+        if (!redisEnabled) {
+            return;
+        }
+        try {
+            remote().remove(key, IN_PROGRESS);
+        } catch (Exception e) {
+            log.warn("Failed to release idempotency key on redis : {}", key, e);
+        }
+    }
+
+    private RMapCache<String, Object> remote() {
+        return redissonClient.getMapCache(REDIS_KEY);
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] body = request == null
+                    ? new byte[0]
+                    : objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8);
+            return Base64.getEncoder().encodeToString(
+                    MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to hash idempotent request", e);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class InFlight {
+        private final String requestHash;
+        private final CompletableFuture<Object> future;
+    }
+
+    /**
+     * 응답과 그 응답을 만든 요청 본문의 해시
+     */
+    @RequiredArgsConstructor
+    static class StoredResponse implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String requestHash;
+        private final Object response;
+
+        Object matching(String requestHash) {
+            if (!this.requestHash.equals(requestHash)) {
+                throw new AccountException(ErrorCode.INVALID_REQUEST);
+            }
+            return response;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.account.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.account.dto.TransactionEvent;
+
+/**
+ * JVM 안에 이벤트를 보관하는 sink (테스트, 단일 노드)
+ * capacity 를 넘으면 오래된 이벤트부터 버린다.
+ */
+@Component
+@ConditionalOnProperty(name = "account.outbox.sink", havingValue = "memory")
+public class InMemoryTransactionEventSink implements TransactionEventSink {
+    private final ConcurrentLinkedDeque<TransactionEvent> events = new ConcurrentLinkedDeque<>();
+    private final int capacity;
+
+    public InMemoryTransactionEventSink(
+            @Value("${account.outbox.memory.capacity:100000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void publish(List<TransactionEvent> published) {
+        events.addAll(published);
+        for (int overflow = events.size() - capacity; overflow > 0; overflow--) {
+            events.pollFirst();
+        }
+    }
+
+    public List<TransactionEvent> getEvents() {
+        return new ArrayList<>(events);
+    }
+
+    public void clear() {
+        events.clear();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.account.service;
+
+import java.util.List;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.account.domain.BalanceSnapshot;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.BalanceSnapshotRepository;
+import com.example.account.repository.TransactionRepository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 원장 대사
+ * 1. 이웃한 두 스냅샷 사이 : 앞 스냅샷 + 구간 거래의 합 = 뒤 스냅샷, 구간 거래 수 = 순번 차이 (누락 없음)
+ * 2. 마지막 스냅샷 이후 : 마지막 스냅샷 + 이후 거래의 합 = 마지막 거래의 balanceSnapshot
+ * 3. Account.balance = 마지막 스냅샷 잔액
+ */
+@Slf4j
+@Service
+public class LedgerReconciler {
+    private final TransactionRepository transactionRepository;
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public LedgerReconciler(
+            TransactionRepository transactionRepository,
+            BalanceSnapshotRepository balanceSnapshotRepository,
+            AccountRepository accountRepository,
+            PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.balanceSnapshotRepository = balanceSnapshotRepository;
+        this.accountRepository = accountRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Scheduled(cron = "${account.balance.ledger.reconcile-cron:-}")
+    public void reconcileAll() {
+        int accounts = 0;
+        int mismatches = 0;
+        for (Long accountId : balanceSnapshotRepository.findAccountIds()) {
+            Result result = readOnlyTransaction.execute(status -> reconcile(accountId));
+            accounts++;
+            mismatches += result.getMismatches();
+        }
+        log.info("Ledger reconciliation finished. accounts : {}, mismatches : {}",
+                accounts, mismatches);
+    }
+
+    public Result reconcile(Long accountId) {
+        List<BalanceSnapshot> snapshots =
+                balanceSnapshotRepository.findByAccountIdOrderByLastSequence(accountId);
+        if (snapshots.isEmpty()) {
+            return new Result(accountId, 0, 0);
+        }
+
+        int mismatches = 0;
+        for (int i = 1; i < snapshots.size(); i++) {
+            BalanceSnapshot previous = snapshots.get(i - 1);
+            BalanceSnapshot next = snapshots.get(i);
+            if (!matches(accountId, previous, next.getLastSequence(), next.getBalance())) {
+                mismatches++;
+            }
+        }
+
+        BalanceSnapshot last = snapshots.get(snapshots.size() - 1);
+        long lastSequence = transactionRepository.findLastLedgerSequence(accountId)
+                .orElse(last.getLastSequence());
+        if (lastSequence > last.getLastSequence()) {
+            Long recorded = transactionRepository.findLedgerBalance(accountId, lastSequence)
+                    .orElse(null);
+            if (recorded == null || !matches(accountId, last, lastSequence, recorded)) {
+                mismatches++;
+            }
+        }
+
+        Long accountBalance = accountRepository.findBalanceById(accountId).orElse(null);
+        if (!last.getBalance().equals(accountBalance)) {
+            log.error("Account balance differs from last snapshot. accountId : {}, " +
+                    "account : {}, snapshot : {}", accountId, accountBalance, last.getBalance());
+            mismatches++;
+        }
+
+        return new Result(accountId, snapshots.size(), mismatches);
+    }
+
+    private boolean matches(Long accountId, BalanceSnapshot from,
+                            long uptoSequence, long expectedBalance) {
+        long events = transactionRepository.countLedger(
+                accountId, from.getLastSequence(), uptoSequence);
+        long balance = from.getBalance() + transactionRepository.sumLedgerAmount(
+                accountId, from.getLastSequence(), uptoSequence);
+
+        if (events != uptoSequence - from.getLastSequence() || balance != expectedBalance) {
+            log.error("Ledger mismatch. accountId : {}, sequence : ({}, {}], " +
+                            "events : {}, balance : {}, expected : {}",
+                    accountId, from.getLastSequence(), uptoSequence,
+                    events, balance, expectedBalance);
+            return false;
+        }
+        return true;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        private final Long accountId;
+        private final int snapshots;
+        private final int mismatches;
+    }
+}
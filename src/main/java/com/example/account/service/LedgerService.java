@@ -0,0 +1,189 @@
+package com.example.account.service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.transaction.Transactional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.account.domain.BalanceSnapshot;
+import com.example.account.dto.AccountMetadata;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.BalanceSnapshotRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.ErrorCode;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 원장 모드 (account.balance.mode=LEDGER)
+ * 성공 거래가 계좌별 순번(ledgerSequence) 을 가진 이벤트가 되고,
+ * 현재 잔액 = 마지막 스냅샷 잔액 + 스냅샷 이후 거래의 합으로 계산한다.
+ * 스냅샷은 N 건마다 또는 마지막 거래 후 T 초가 지나면 남기고, 그때만 Account.balance 를 갱신한다.
+ */
+@Slf4j
+@Service
+public class LedgerService {
+    private final TransactionRepository transactionRepository;
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final AccountRepository accountRepository;
+    private final AccountCache accountCache;
+    private final LockService lockService;
+    private final TransactionTemplate transactionTemplate;
+    private final long snapshotEveryEvents;
+    private final long snapshotIntervalMillis;
+
+    // 스냅샷이 밀려 있는 계좌 (계좌 번호 -> 첫 미반영 거래 시각)
+    private final ConcurrentHashMap<String, PendingSnapshot> pendingSnapshots =
+            new ConcurrentHashMap<>();
+
+    public LedgerService(
+            TransactionRepository transactionRepository,
+            BalanceSnapshotRepository balanceSnapshotRepository,
+            AccountRepository accountRepository,
+            AccountCache accountCache,
+            LockService lockService,
+            PlatformTransactionManager transactionManager,
+            @Value("${account.balance.ledger.snapshot-every-events:100}") long snapshotEveryEvents,
+            @Value("${account.balance.ledger.snapshot-interval-seconds:60}") long snapshotIntervalSeconds) {
+        this.transactionRepository = transactionRepository;
+        this.balanceSnapshotRepository = balanceSnapshotRepository;
+        this.accountRepository = accountRepository;
+        this.accountCache = accountCache;
+        this.lockService = lockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotEveryEvents = snapshotEveryEvents;
+        this.snapshotIntervalMillis = snapshotIntervalSeconds * 1000L;
+    }
+
+    /**
+     * 계좌의 현재 원장 위치, 계좌 lock 을 잡은 상태에서 DB 트랜잭션 안에서 호출한다.
+     */
+    public Position getPosition(Long accountId) {
+        BalanceSnapshot snapshot = getLatestSnapshot(accountId);
+        long lastSequence = transactionRepository.findLastLedgerSequence(accountId)
+                .orElse(snapshot.getLastSequence());
+
+        return new Position(
+                lastSequence,
+                snapshot.getBalance() + transactionRepository.sumLedgerAmount(
+                        accountId, snapshot.getLastSequence(), lastSequence),
+                snapshot.getLastSequence());
+    }
+
+    /**
+     * 거래를 추가한 뒤 호출한다. N 건이 쌓였으면 같은 트랜잭션에서 스냅샷을 남긴다.
+     */
+    public void appended(Long accountId, String accountNumber, Position before,
+                         long sequence, long balance) {
+        if (sequence - before.getSnapshotSequence() >= snapshotEveryEvents) {
+            writeSnapshot(accountId, sequence, balance);
+            pendingSnapshots.remove(accountNumber);
+            return;
+        }
+        pendingSnapshots.putIfAbsent(accountNumber,
+                new PendingSnapshot(accountId, System.currentTimeMillis()));
+    }
+
+    /**
+     * 특정 시점의 잔액 = 그 시점 이전 마지막 스냅샷 + 스냅샷 이후 그 시점까지의 거래 합
+     */
+    @Transactional
+    public long getBalanceAt(String accountNumber, LocalDateTime at) {
+        Long accountId = accountCache.get(accountNumber, () ->
+                        accountRepository.findByAccountNumber(accountNumber)
+                                .map(AccountMetadata::from))
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND))
+                .getId();
+
+        BalanceSnapshot snapshot = balanceSnapshotRepository
+                .findFirstByAccountIdAndSnapshotAtLessThanEqualOrderByLastSequenceDesc(
+                        accountId, at)
+                .orElseThrow(() -> new AccountException(ErrorCode.BALANCE_HISTORY_NOT_FOUND));
+
+        return snapshot.getBalance() + transactionRepository.sumLedgerAmountUntil(
+                accountId, snapshot.getLastSequence(), at);
+    }
+
+    /**
+     * 마지막 거래 후 T 초가 지나도록 스냅샷이 없는 계좌의 스냅샷을 남긴다.
+     */
+    @Scheduled(fixedDelayString = "${account.balance.ledger.snapshot-check-millis:1000}")
+    public void snapshotPendingAccounts() {
+        long deadline = System.currentTimeMillis() - snapshotIntervalMillis;
+
+        pendingSnapshots.forEach((accountNumber, pending) -> {
+            if (pending.getSince() > deadline
+                    || !pendingSnapshots.remove(accountNumber, pending)) {
+                return;
+            }
+            try {
+                lockService.lock(accountNumber);
+                try {
+                    transactionTemplate.executeWithoutResult(
+                            status -> snapshot(pending.getAccountId()));
+                } finally {
+                    lockService.unlock(accountNumber);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to write balance snapshot. accountNumber : {}", accountNumber, e);
+                pendingSnapshots.putIfAbsent(accountNumber, pending);
+            }
+        });
+    }
+
+    private void snapshot(Long accountId) {
+        Position position = getPosition(accountId);
+        if (position.getLastSequence() > position.getSnapshotSequence()) {
+            writeSnapshot(accountId, position.getLastSequence(), position.getBalance());
+        }
+    }
+
+    private void writeSnapshot(Long accountId, long sequence, long balance) {
+        balanceSnapshotRepository.save(BalanceSnapshot.builder()
+                .account(accountRepository.getReferenceById(accountId))
+                .balance(balance)
+                .lastSequence(sequence)
+                .snapshotAt(LocalDateTime.now())
+                .build());
+        accountRepository.updateBalance(accountId, balance);
+    }
+
+    /**
+     * 원장 모드를 처음 쓰는 계좌는 현재 Account.balance 를 0 번 스냅샷으로 남긴다.
+     */
+    private BalanceSnapshot getLatestSnapshot(Long accountId) {
+        return balanceSnapshotRepository.findFirstByAccountIdOrderByLastSequenceDesc(accountId)
+                .orElseGet(() -> balanceSnapshotRepository.save(BalanceSnapshot.builder()
+                        .account(accountRepository.getReferenceById(accountId))
+                        .balance(accountRepository.findBalanceById(accountId)
+                                .orElseThrow(() -> new AccountException(
+                                        ErrorCode.ACCOUNT_NOT_FOUND)))
+                        .lastSequence(0L)
+                        .snapshotAt(LocalDateTime.now())
+                        .build()));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Position {
+        private final long lastSequence;
+        private final long balance;
+        private final long snapshotSequence;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class PendingSnapshot {
+        private final Long accountId;
+        private final long since;
+    }
+}
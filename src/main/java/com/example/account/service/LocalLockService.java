@@ -0,0 +1,110 @@
+package com.example.account.service;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * JVM 내부 계좌 lock
+ * 계좌 번호의 hash 로 고정된 개수의 ReentrantLock 중 하나(stripe)를 골라 사용한다.
+ * 서로 다른 계좌가 같은 stripe 를 공유할 수는 있지만, 같은 계좌가 다른 stripe 를 쓰는 일은 없다.
+ */
+@Slf4j
+@Service
+public class LocalLockService {
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public LocalLockService(@Value("${account.lock.local.stripes:1024}") int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public boolean tryLock(String accountNumber, long waitTime, TimeUnit unit)
+            throws InterruptedException {
+        return stripeFor(accountNumber).tryLock(waitTime, unit);
+    }
+
+    public void unlock(String accountNumber) {
+        ReentrantLock lock = stripeFor(accountNumber);
+        if (!lock.isHeldByCurrentThread()) {
+            log.warn("Local lock is not held by current thread : {}", accountNumber);
+            return;
+        }
+        lock.unlock();
+    }
+
+    /**
+     * 여러 계좌의 lock 을 한 번에 잡는다. 하나라도 실패하면 잡은 lock 을 모두 놓고 false.
+     * 계좌 번호가 아니라 stripe 번호 순서로 잡아야 서로 다른 계좌가 같은 stripe 를 공유해도
+     * 두 스레드가 stripe 를 엇갈린 순서로 기다리는 일이 없다.
+     */
+    public boolean tryLockAll(Collection<String> accountNumbers, long waitTime, TimeUnit unit)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(waitTime);
+        int[] indexes = stripeIndexes(accountNumbers);
+
+        for (int i = 0; i < indexes.length; i++) {
+            boolean isLock;
+            try {
+                isLock = stripes[indexes[i]].tryLock(
+                        Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                release(indexes, i);
+                throw e;
+            }
+            if (!isLock) {
+                release(indexes, i);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void unlockAll(Collection<String> accountNumbers) {
+        int[] indexes = stripeIndexes(accountNumbers);
+        for (int i = indexes.length - 1; i >= 0; i--) {
+            ReentrantLock lock = stripes[indexes[i]];
+            if (!lock.isHeldByCurrentThread()) {
+                log.warn("Local lock is not held by current thread : {}", accountNumbers);
+                continue;
+            }
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 중복을 뺀 stripe 번호 (오름차순)
+     */
+    int[] stripeIndexes(Collection<String> accountNumbers) {
+        return accountNumbers.stream()
+                .mapToInt(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    private void release(int[] indexes, int acquired) {
+        for (int i = acquired - 1; i >= 0; i--) {
+            stripes[indexes[i]].unlock();
+        }
+    }
+
+    int stripeIndex(String accountNumber) {
+        int h = accountNumber.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private ReentrantLock stripeFor(String accountNumber) {
+        return stripes[stripeIndex(accountNumber)];
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.account.service;
 
+import com.example.account.aop.AccountLock;
 import com.example.account.aop.AccountLockIdInterface;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
@@ -7,6 +8,9 @@ import org.aspectj.lang.annotation.Aspect;
 import org.springframework.stereotype.Component;
 
 import com.example.account.dto.UseBalance.Request;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.LockMode;
 
 import lombok.RequiredArgsConstructor;
 
@@ -15,15 +19,47 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class LockAopAspect {
     private final LockService lockService;
+    private final AccountLockPolicy accountLockPolicy;
+    private final HotAccountTracker hotAccountTracker;
+    private final DatabaseLockService databaseLockService;
 
-    @Around("@annotation(com.example.account.aop.AccountLock) && args(request)")
+    @Around("@annotation(accountLock) && args(request)")
     public Object aroundMethod(
             ProceedingJoinPoint pjp,
+            AccountLock accountLock,
             AccountLockIdInterface request
     ) throws Throwable {
+        if (accountLockPolicy.isLockDelegated(request.getAccountNumber())) {
+            hotAccountTracker.record(request.getAccountNumber(), 0L);
+            return pjp.proceed();
+        }
+
+        if (lockService.currentMode() == LockMode.DATABASE) {
+            // 잔액 변경 트랜잭션 안에서 계좌 row 를 잠근다.
+            hotAccountTracker.record(request.getAccountNumber(), 0L);
+            return databaseLockService.execute(pjp::proceed);
+        }
+
         // lock 취득 시도
-        lockService.lock(request.getAccountNumber());
+        long startedAt = System.nanoTime();
+        try {
+            lockService.lock(request.getAccountNumber(),
+                    accountLock.tryLockTime(), accountLock.leaseTime());
+        } catch (AccountException e) {
+            // Redis 장애로 DATABASE 로 넘어갔으면 lock 없이 진행하지 않고 DB row lock 으로 처리한다.
+            if (e.getErrorCode() != ErrorCode.LOCK_UNAVAILABLE
+                    || lockService.currentMode() != LockMode.DATABASE) {
+                throw e;
+            }
+            return databaseLockService.execute(pjp::proceed);
+        } finally {
+            hotAccountTracker.record(request.getAccountNumber(), System.nanoTime() - startedAt);
+        }
         try {
+            // 장애로 DATABASE 로 넘어간 노드는 row lock 만 잡으므로 이 노드도 row lock 을 같이 잡는다.
+            if (lockService.isRowLockRequired()) {
+                return databaseLockService.execute(pjp::proceed);
+            }
             return pjp.proceed();
         } finally {
             // lock 해제
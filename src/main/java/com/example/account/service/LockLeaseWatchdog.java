@@ -0,0 +1,144 @@
+package com.example.account.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.annotation.PreDestroy;
+
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 계좌 lock 임대 시간 관리
+ * 최근 lock 점유 시간의 p99 를 기준으로 임대 시간을 정하고,
+ * 트랜잭션이 끝나지 않았으면 임대 시간의 1/3 마다 lock 을 연장한다.
+ * 점유 중인 노드가 죽으면 lock 은 고정된 15초가 아니라 임대 시간 뒤에 풀린다.
+ */
+@Slf4j
+@Service
+public class LockLeaseWatchdog {
+    private static final int SAMPLE_SIZE = 1024;
+    private static final int MIN_SAMPLES = 100;
+    private static final int RECALCULATE_EVERY = 128;
+
+    // 확인과 연장 사이에 lock 이 풀리고 다른 스레드가 잡으면 그 lock 을 연장하게 되므로 스크립트 하나로 처리한다.
+    // KEYS[1] : lock key, ARGV : 임대 시간(ms), lock hash 의 필드 (Redisson 인스턴스 id:스레드 id)
+    private static final String RENEW_SCRIPT =
+            "if redis.call('HEXISTS', KEYS[1], ARGV[2]) == 1 then " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[1]) " +
+            "return 1 end " +
+            "return 0";
+
+    private final RedissonClient redissonClient;
+    private final long minLeaseMillis;
+    private final long maxLeaseMillis;
+    private final long p99Multiplier;
+
+    private final AtomicLongArray holdTimes = new AtomicLongArray(SAMPLE_SIZE);
+    private final AtomicLong sampleCount = new AtomicLong();
+    private volatile long p99HoldMillis;
+
+    private final Map<String, ScheduledFuture<?>> renewals = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "lock-lease-watchdog");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    public LockLeaseWatchdog(
+            @Lazy RedissonClient redissonClient,
+            @Value("${account.lock.lease.min-millis:1000}") long minLeaseMillis,
+            @Value("${account.lock.lease.max-millis:15000}") long maxLeaseMillis,
+            @Value("${account.lock.lease.p99-multiplier:3}") long p99Multiplier) {
+        this.redissonClient = redissonClient;
+        this.minLeaseMillis = minLeaseMillis;
+        this.maxLeaseMillis = maxLeaseMillis;
+        this.p99Multiplier = p99Multiplier;
+    }
+
+    public long currentLeaseMillis() {
+        if (sampleCount.get() < MIN_SAMPLES) {
+            return maxLeaseMillis;
+        }
+        long lease = p99HoldMillis * p99Multiplier;
+        return Math.max(minLeaseMillis, Math.min(maxLeaseMillis, lease));
+    }
+
+    public void recordHoldTime(long holdMillis) {
+        long count = sampleCount.getAndIncrement();
+        holdTimes.set((int) (count % SAMPLE_SIZE), holdMillis);
+        if (count % RECALCULATE_EVERY == 0) {
+            p99HoldMillis = calculateP99(Math.min(count + 1, SAMPLE_SIZE));
+        }
+    }
+
+    public long getP99HoldMillis() {
+        return p99HoldMillis;
+    }
+
+    /**
+     * 호출한 스레드가 잡은 lock 을 연장한다. 그 스레드가 더 이상 잡고 있지 않으면 멈춘다.
+     */
+    public void startRenewal(String lockKey, long leaseMillis) {
+        String owner = redissonClient.getId() + ":" + Thread.currentThread().getId();
+        long period = Math.max(1L, leaseMillis / 3);
+
+        ScheduledFuture<?> renewal = scheduler.scheduleAtFixedRate(() -> {
+            try {
+                if (!renew(lockKey, owner, leaseMillis)) {
+                    stopRenewal(lockKey);
+                }
+            } catch (Exception e) {
+                log.warn("Lock lease renewal failed : {}", lockKey, e);
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+
+        ScheduledFuture<?> previous = renewals.put(lockKey, renewal);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+
+    public void stopRenewal(String lockKey) {
+        ScheduledFuture<?> renewal = renewals.remove(lockKey);
+        if (renewal != null) {
+            renewal.cancel(false);
+        }
+    }
+
+    boolean renew(String lockKey, String owner, long leaseMillis) {
+        Boolean renewed = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE, RENEW_SCRIPT, RScript.ReturnType.BOOLEAN,
+                Collections.<Object>singletonList(lockKey), String.valueOf(leaseMillis), owner);
+        return Boolean.TRUE.equals(renewed);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private long calculateP99(long size) {
+        long[] samples = new long[(int) size];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = holdTimes.get(i);
+        }
+        Arrays.sort(samples);
+        return samples[(int) Math.min(samples.length - 1, (long) Math.ceil(samples.length * 0.99) - 1)];
+    }
+}
@@ -1,13 +1,21 @@
 package com.example.account.service;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import com.example.account.exception.AccountException;
 import com.example.account.type.ErrorCode;
+import com.example.account.type.LockMode;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,31 +24,322 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 @RequiredArgsConstructor
 public class LockService {
+    public static final long DEFAULT_WAIT_MILLIS = 5000L;
+    public static final long ADAPTIVE_LEASE = -1L;
+
+    @Lazy
     private final RedissonClient redissonClient;
+    private final LocalLockService localLockService;
+    private final LockLeaseWatchdog lockLeaseWatchdog;
+    private final AccountMetrics accountMetrics;
+    private final RedisLockHealth redisLockHealth;
+    private final Map<String, Long> lockedAt = new ConcurrentHashMap<>();
+    private final Map<String, LockMode> lockedModes = new ConcurrentHashMap<>();
+
+    /**
+     * REDIS : Redis lock 만 사용
+     * LOCAL : JVM 내부 lock 만 사용 (단일 노드, 테스트)
+     * TWO_LEVEL : JVM 내부 lock 을 먼저 잡고 Redis lock 을 잡는다.
+     * DATABASE : @AccountLock 경로는 잔액 변경 트랜잭션에서 계좌 row 를 잠근다. (DatabaseLockService)
+     *            LockService 를 직접 쓰는 경로(모음 처리, shard, 이체, 승인)는 JVM 내부 lock 을 잡고 row 도 잠근다.
+     * REDIS, TWO_LEVEL 은 Redis 장애나 응답 지연 시 cooldown 동안 DATABASE 로 넘어간다. (RedisLockHealth)
+     */
+    @Value("${account.lock.mode:REDIS}")
+    private LockMode lockMode = LockMode.REDIS;
+
+    /**
+     * 지금 사용할 lock 방식
+     */
+    public LockMode currentMode() {
+        if ((lockMode == LockMode.REDIS || lockMode == LockMode.TWO_LEVEL)
+                && redisLockHealth.isFailedOver()) {
+            return LockMode.DATABASE;
+        }
+        return lockMode;
+    }
+
+    /**
+     * 외부 lock 과 함께 DB row lock 도 잡아야 하는지
+     * DATABASE 로 넘어갈 수 있는 방식이면 넘어간 노드는 row lock 만 잡으므로, 정상인 노드도 row lock 을 잡아야 서로 막힌다.
+     */
+    public boolean isRowLockRequired() {
+        if (lockMode == LockMode.DATABASE) {
+            return true;
+        }
+        return (lockMode == LockMode.REDIS || lockMode == LockMode.TWO_LEVEL)
+                && redisLockHealth.isEnabled();
+    }
 
     public void lock(String accountNumber) {
-        RLock lock = redissonClient.getLock(getLockKey(accountNumber));
+        lock(accountNumber, DEFAULT_WAIT_MILLIS, ADAPTIVE_LEASE);
+    }
+
+    /**
+     * @param waitMillis  lock 획득 대기 시간
+     * @param leaseMillis lock 임대 시간, 음수면 watchdog 이 정한 임대 시간을 쓰고 자동으로 연장한다.
+     */
+    public void lock(String accountNumber, long waitMillis, long leaseMillis) {
         log.debug("Trying lock for accountNumber : {}", accountNumber);
 
+        LockMode mode = currentMode();
+        long startedAt = System.nanoTime();
+        try {
+            switch (mode) {
+                case LOCAL:
+                case DATABASE:
+                    lockLocal(accountNumber, waitMillis);
+                    break;
+                case TWO_LEVEL:
+                    lockLocal(accountNumber, waitMillis);
+                    try {
+                        lockRedis(accountNumber, waitMillis, leaseMillis);
+                    } catch (RuntimeException e) {
+                        localLockService.unlock(accountNumber);
+                        throw e;
+                    }
+                    break;
+                default:
+                    lockRedis(accountNumber, waitMillis, leaseMillis);
+            }
+        } catch (RuntimeException e) {
+            accountMetrics.recordLockWait(mode.name(), false, System.nanoTime() - startedAt);
+            accountMetrics.lockFailed(accountNumber);
+            throw e;
+        }
+
+        long acquiredAt = System.nanoTime();
+        accountMetrics.recordLockWait(mode.name(), true, acquiredAt - startedAt);
+        lockedAt.put(accountNumber, acquiredAt);
+        lockedModes.put(accountNumber, mode);
+    }
+
+    public void unlock(String accountNumber) {
+        log.debug("Unlock for accountNumber : {}", accountNumber);
+
+        // lock 을 잡은 뒤에 방식이 바뀌었어도 잡을 때의 방식으로 푼다.
+        LockMode mode = lockedModes.getOrDefault(accountNumber, lockMode);
+        lockedModes.remove(accountNumber);
+        Long startedAt = lockedAt.remove(accountNumber);
+        if (startedAt != null) {
+            long holdNanos = System.nanoTime() - startedAt;
+            lockLeaseWatchdog.recordHoldTime(TimeUnit.NANOSECONDS.toMillis(holdNanos));
+            accountMetrics.recordLockHold(mode.name(), holdNanos);
+        }
+
+        switch (mode) {
+            case LOCAL:
+            case DATABASE:
+                localLockService.unlock(accountNumber);
+                break;
+            case TWO_LEVEL:
+                try {
+                    unlockRedis(accountNumber);
+                } finally {
+                    localLockService.unlock(accountNumber);
+                }
+                break;
+            default:
+                unlockRedis(accountNumber);
+        }
+    }
+
+    /**
+     * 여러 계좌의 lock 을 정렬된 순서로 한 번에 잡는다. (계좌 이체)
+     * A -> B 와 B -> A 요청이 동시에 와도 같은 순서로 기다리므로 교착 상태가 생기지 않는다.
+     * REDIS 는 Redisson MultiLock 으로 잡고, LOCAL 은 stripe 순서로 잡는다.
+     */
+    public void lockAll(Collection<String> accountNumbers) {
+        lockAll(accountNumbers, DEFAULT_WAIT_MILLIS, ADAPTIVE_LEASE);
+    }
+
+    public void lockAll(Collection<String> accountNumbers, long waitMillis, long leaseMillis) {
+        List<String> sorted = sortedDistinct(accountNumbers);
+        log.debug("Trying lock for accountNumbers : {}", sorted);
+
+        LockMode mode = currentMode();
+        long startedAt = System.nanoTime();
+        try {
+            switch (mode) {
+                case LOCAL:
+                case DATABASE:
+                    lockLocalAll(sorted, waitMillis);
+                    break;
+                case TWO_LEVEL:
+                    lockLocalAll(sorted, waitMillis);
+                    try {
+                        lockRedisAll(sorted, waitMillis, leaseMillis);
+                    } catch (RuntimeException e) {
+                        localLockService.unlockAll(sorted);
+                        throw e;
+                    }
+                    break;
+                default:
+                    lockRedisAll(sorted, waitMillis, leaseMillis);
+            }
+        } catch (RuntimeException e) {
+            accountMetrics.recordLockWait(mode.name(), false, System.nanoTime() - startedAt);
+            sorted.forEach(accountMetrics::lockFailed);
+            throw e;
+        }
+
+        long acquiredAt = System.nanoTime();
+        accountMetrics.recordLockWait(mode.name(), true, acquiredAt - startedAt);
+        lockedAt.put(String.join(",", sorted), acquiredAt);
+        lockedModes.put(String.join(",", sorted), mode);
+    }
+
+    public void unlockAll(Collection<String> accountNumbers) {
+        List<String> sorted = sortedDistinct(accountNumbers);
+        log.debug("Unlock for accountNumbers : {}", sorted);
+
+        String key = String.join(",", sorted);
+        LockMode mode = lockedModes.getOrDefault(key, lockMode);
+        lockedModes.remove(key);
+        Long startedAt = lockedAt.remove(key);
+        if (startedAt != null) {
+            long holdNanos = System.nanoTime() - startedAt;
+            lockLeaseWatchdog.recordHoldTime(TimeUnit.NANOSECONDS.toMillis(holdNanos));
+            accountMetrics.recordLockHold(mode.name(), holdNanos);
+        }
+
+        switch (mode) {
+            case LOCAL:
+            case DATABASE:
+                localLockService.unlockAll(sorted);
+                break;
+            case TWO_LEVEL:
+                try {
+                    unlockRedisAll(sorted);
+                } finally {
+                    localLockService.unlockAll(sorted);
+                }
+                break;
+            default:
+                unlockRedisAll(sorted);
+        }
+    }
+
+    private void lockLocal(String accountNumber, long waitMillis) {
         try {
-            boolean isLock = lock.tryLock(1, 15, TimeUnit.SECONDS);
+            boolean isLock = localLockService.tryLock(accountNumber, waitMillis, TimeUnit.MILLISECONDS);
+            if (!isLock) {
+                log.error("========== Local lock acquisition failed ======");
+                throw new AccountException(ErrorCode.LOCK_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountException(ErrorCode.LOCK_TIMEOUT);
+        }
+    }
+
+    private void lockRedis(String accountNumber, long waitMillis, long leaseMillis) {
+        String lockKey = getLockKey(accountNumber);
+        RLock lock = redissonClient.getLock(lockKey);
+        boolean adaptive = leaseMillis < 0;
+        long lease = adaptive ? lockLeaseWatchdog.currentLeaseMillis() : leaseMillis;
+
+        try {
+            boolean isLock = lock.tryLock(waitMillis, lease, TimeUnit.MILLISECONDS);
             if (!isLock) {
                 log.error("========== Lock acquisition failed ======");
-                throw new AccountException(ErrorCode.ACCOUNT_NOT_FOUND);
+                throw new AccountException(ErrorCode.LOCK_TIMEOUT);
+            }
+            if (adaptive) {
+                lockLeaseWatchdog.startRenewal(lockKey, lease);
             }
         } catch(AccountException e) {
             throw e;
         } catch (Exception e) {
+            // lock 없이 진행하지 않는다. @AccountLock 경로는 DB row lock 으로 다시 시도한다.
             log.error("Redis lock failed: ", e);
+            redisLockHealth.recordFailure();
+            throw new AccountException(ErrorCode.LOCK_UNAVAILABLE);
         }
     }
 
-    public void unlock(String accountNumber) {
-        log.debug("Unlock for accountNumber : {}", accountNumber);
-        redissonClient.getLock(getLockKey(accountNumber)).unlock();
+    private void lockLocalAll(List<String> accountNumbers, long waitMillis) {
+        try {
+            boolean isLock = localLockService.tryLockAll(
+                    accountNumbers, waitMillis, TimeUnit.MILLISECONDS);
+            if (!isLock) {
+                log.error("========== Local lock acquisition failed ======");
+                throw new AccountException(ErrorCode.LOCK_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountException(ErrorCode.LOCK_TIMEOUT);
+        }
+    }
+
+    private void lockRedisAll(List<String> accountNumbers, long waitMillis, long leaseMillis) {
+        RLock[] locks = accountNumbers.stream()
+                .map(accountNumber -> redissonClient.getLock(getLockKey(accountNumber)))
+                .toArray(RLock[]::new);
+        boolean adaptive = leaseMillis < 0;
+        long lease = adaptive ? lockLeaseWatchdog.currentLeaseMillis() : leaseMillis;
+
+        try {
+            // MultiLock 은 넘겨준 순서대로 잡고, 하나라도 실패하면 잡은 lock 을 풀고 다시 시도한다.
+            boolean isLock = redissonClient.getMultiLock(locks)
+                    .tryLock(waitMillis, lease, TimeUnit.MILLISECONDS);
+            if (!isLock) {
+                log.error("========== Lock acquisition failed ======");
+                throw new AccountException(ErrorCode.LOCK_TIMEOUT);
+            }
+            if (adaptive) {
+                for (String accountNumber : accountNumbers) {
+                    lockLeaseWatchdog.startRenewal(getLockKey(accountNumber), lease);
+                }
+            }
+        } catch(AccountException e) {
+            throw e;
+        } catch (Exception e) {
+            // lock 없이 진행하지 않는다. @AccountLock 경로는 DB row lock 으로 다시 시도한다.
+            log.error("Redis lock failed: ", e);
+            redisLockHealth.recordFailure();
+            throw new AccountException(ErrorCode.LOCK_UNAVAILABLE);
+        }
+    }
+
+    private void unlockRedisAll(List<String> accountNumbers) {
+        RuntimeException failure = null;
+        for (int i = accountNumbers.size() - 1; i >= 0; i--) {
+            try {
+                unlockRedis(accountNumbers.get(i));
+            } catch (RuntimeException e) {
+                // 나머지 계좌의 lock 은 계속 푼다.
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private List<String> sortedDistinct(Collection<String> accountNumbers) {
+        return accountNumbers.stream()
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private void unlockRedis(String accountNumber) {
+        String lockKey = getLockKey(accountNumber);
+        lockLeaseWatchdog.stopRenewal(lockKey);
+
+        long startedAt = System.nanoTime();
+        try {
+            redissonClient.getLock(lockKey).unlock();
+        } catch (IllegalMonitorStateException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            redisLockHealth.recordFailure();
+            throw e;
+        }
+        redisLockHealth.recordLatency(System.nanoTime() - startedAt);
     }
 
     private String getLockKey(String accountNumber) {
         return "ACLK:" + accountNumber;
     }
-}
\ No newline at end of file
+}
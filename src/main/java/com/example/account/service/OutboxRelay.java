@@ -0,0 +1,96 @@
+package com.example.account.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.account.domain.TransactionOutbox;
+import com.example.account.dto.TransactionEvent;
+import com.example.account.repository.TransactionOutboxRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * outbox 의 거래 이벤트를 batch 단위로 읽어서 sink 로 보내고 지운다.
+ * 읽기, 보내기, 지우기가 한 DB 트랜잭션이라 보내기에 실패하면 outbox 가 남고 다음 주기에 다시 보낸다.
+ * batch 가 가득 차 있으면 쉬지 않고 다음 batch 를 처리한다.
+ */
+@Slf4j
+@Service
+public class OutboxRelay {
+    private final TransactionOutboxRepository transactionOutboxRepository;
+    private final TransactionEventSink transactionEventSink;
+    private final AccountMetrics accountMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public OutboxRelay(
+            TransactionOutboxRepository transactionOutboxRepository,
+            TransactionEventSink transactionEventSink,
+            AccountMetrics accountMetrics,
+            PlatformTransactionManager transactionManager,
+            @Value("${account.outbox.enabled:true}") boolean enabled,
+            @Value("${account.outbox.batch-size:1000}") int batchSize,
+            @Value("${account.outbox.max-batches-per-run:100}") int maxBatchesPerRun) {
+        this.transactionOutboxRepository = transactionOutboxRepository;
+        this.transactionEventSink = transactionEventSink;
+        this.accountMetrics = accountMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${account.outbox.poll-interval-millis:50}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            if (relayBatch() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    int relayBatch() {
+        long startedAt = System.nanoTime();
+
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<TransactionOutbox> outboxes = transactionOutboxRepository.findBatchForUpdate(
+                    PageRequest.of(0, batchSize));
+            if (outboxes.isEmpty()) {
+                return 0;
+            }
+
+            transactionEventSink.publish(outboxes.stream()
+                    .map(TransactionEvent::from)
+                    .collect(Collectors.toList()));
+            transactionOutboxRepository.deleteAllByIdInBatch(outboxes.stream()
+                    .map(TransactionOutbox::getId)
+                    .collect(Collectors.toList()));
+
+            // batch 에서 가장 오래된 이벤트가 저장된 뒤 보내지기까지 걸린 시간
+            accountMetrics.recordOutboxLag(Duration.between(
+                    outboxes.get(0).getCreatedAt(), LocalDateTime.now()));
+            return outboxes.size();
+        });
+
+        int count = relayed == null ? 0 : relayed;
+        if (count > 0) {
+            accountMetrics.recordOutboxRelay(count, System.nanoTime() - startedAt);
+            log.debug("Relayed {} transaction events", count);
+        }
+        return count;
+    }
+}
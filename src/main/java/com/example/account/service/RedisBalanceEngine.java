@@ -0,0 +1,416 @@
+package com.example.account.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.redisson.api.PendingEntry;
+import org.redisson.api.RScript;
+import org.redisson.api.RStream;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.StreamMessageId;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.domain.TransactionOutbox;
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionOutboxRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.BalanceMode;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * REDIS_LUA 모드의 잔액 처리
+ * 계좌 잔액의 기준은 Redis hash(ACBAL:{계좌번호}) 이다. 사용/취소는 Lua 스크립트 한 번(EVALSHA)으로
+ * 상태, 소유주, 금액 범위, 잔액을 확인하고 잔액 변경과 거래 기록(stream XADD)을 함께 처리한다.
+ * Account/Transaction 테이블은 stream 을 consumer group 으로 읽어서 비동기로 채운다.
+ * Redis 에 잔액이 없으면 DB 에서 한 번 읽어서 올린다. Redis 는 AOF 등으로 영속화해야 하고, stream 은 Redis 5 이상이 필요하다.
+ */
+@Slf4j
+@Service
+public class RedisBalanceEngine {
+    private static final String ACCOUNT_KEY_PREFIX = "ACBAL:";
+    private static final String CONSUMER_GROUP = "account-persister";
+    private static final String OK = "OK";
+    private static final String MISS = "MISS";
+
+    // KEYS[1] : 계좌 hash, KEYS[2] : 거래 stream
+    // ARGV : ownerId, amount, minAmount, maxAmount, transactionId, transactedAt, IN_USE
+    private static final String USE_SCRIPT =
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return {'MISS'} end " +
+            "local account = redis.call('HMGET', KEYS[1], 'ownerId', 'status', 'balance', 'accountNumber') " +
+            "if account[1] ~= ARGV[1] then return {'USER_ACCOUNT_UNMATCH'} end " +
+            "if account[2] ~= ARGV[7] then return {'ACCOUNT_ALREADY_UNREGISTERED'} end " +
+            "local amount = tonumber(ARGV[2]) " +
+            "if amount < tonumber(ARGV[3]) then return {'AMOUNT_TOO_SMALL'} end " +
+            "if amount >= tonumber(ARGV[4]) then return {'AMOUNT_TOO_BIG'} end " +
+            "if tonumber(account[3]) < amount then return {'AMOUNT_EXCEED_BALANCE'} end " +
+            "local balance = redis.call('HINCRBY', KEYS[1], 'balance', -amount) " +
+            "redis.call('XADD', KEYS[2], '*', 'transactionId', ARGV[5], 'transactionType', 'USE', " +
+            "'accountNumber', account[4], 'amount', ARGV[2], 'balance', balance, 'transactedAt', ARGV[6]) " +
+            "return {'OK', tostring(balance)}";
+
+    // ARGV : amount, transactionId, transactedAt
+    private static final String CANCEL_SCRIPT =
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return {'MISS'} end " +
+            "local balance = redis.call('HINCRBY', KEYS[1], 'balance', ARGV[1]) " +
+            "redis.call('XADD', KEYS[2], '*', 'transactionId', ARGV[2], 'transactionType', 'CANCEL', " +
+            "'accountNumber', redis.call('HGET', KEYS[1], 'accountNumber'), 'amount', ARGV[1], " +
+            "'balance', balance, 'transactedAt', ARGV[3]) " +
+            "return {'OK', tostring(balance)}";
+
+    // 다른 노드가 먼저 올렸으면 덮어쓰지 않는다. ARGV : accountNumber, ownerId, status, balance
+    private static final String LOAD_SCRIPT =
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return {'OK'} end " +
+            "redis.call('HMSET', KEYS[1], 'accountNumber', ARGV[1], 'ownerId', ARGV[2], " +
+            "'status', ARGV[3], 'balance', ARGV[4]) " +
+            "return {'OK'}";
+
+    // ARGV : 해지 상태
+    private static final String UNREGISTER_SCRIPT =
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return {'MISS'} end " +
+            "if tonumber(redis.call('HGET', KEYS[1], 'balance')) > 0 then return {'BALANCE_NOT_EMPTY'} end " +
+            "redis.call('HSET', KEYS[1], 'status', ARGV[1]) " +
+            "return {'OK'}";
+
+    private final RedissonClient redissonClient;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionOutboxRepository transactionOutboxRepository;
+    private final TransactionCache transactionCache;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final String streamKey;
+    private final String consumerName;
+    private final int batchSize;
+    private final long claimIdleMillis;
+    private final Map<String, String> scriptShas = new ConcurrentHashMap<>();
+    private volatile boolean groupCreated;
+
+    public RedisBalanceEngine(
+            @Lazy RedissonClient redissonClient,
+            AccountRepository accountRepository,
+            TransactionRepository transactionRepository,
+            TransactionOutboxRepository transactionOutboxRepository,
+            TransactionCache transactionCache,
+            TransactionIdGenerator transactionIdGenerator,
+            PlatformTransactionManager transactionManager,
+            BalanceMode balanceMode,
+            @Value("${account.balance.redis.stream-key:ACBAL:STREAM}") String streamKey,
+            @Value("${account.balance.redis.consumer:account-1}") String consumerName,
+            @Value("${account.balance.redis.persist-batch-size:500}") int batchSize,
+            @Value("${account.balance.redis.claim-idle-seconds:60}") long claimIdleSeconds) {
+        this.redissonClient = redissonClient;
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionOutboxRepository = transactionOutboxRepository;
+        this.transactionCache = transactionCache;
+        this.transactionIdGenerator = transactionIdGenerator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = balanceMode == BalanceMode.REDIS_LUA;
+        this.streamKey = streamKey;
+        this.consumerName = consumerName;
+        this.batchSize = batchSize;
+        this.claimIdleMillis = TimeUnit.SECONDS.toMillis(claimIdleSeconds);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
+        String transactionId = transactionIdGenerator.generate();
+        LocalDateTime transactedAt = LocalDateTime.now();
+
+        List<Object> result = evalAccount(USE_SCRIPT, accountNumber,
+                String.valueOf(userId), String.valueOf(amount),
+                String.valueOf(TransactionService.MIN_AMOUNT),
+                String.valueOf(TransactionService.MAX_AMOUNT),
+                transactionId, transactedAt.toString(), AccountStatus.IN_USE.name());
+
+        return toTransaction(result, TransactionType.USE, accountNumber, amount,
+                transactionId, transactedAt);
+    }
+
+    public TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount) {
+        TransactionDto transaction = transactionCache.get(transactionId, () ->
+                        transactionRepository.findDtoByTransactionId(transactionId))
+                .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
+        if (!Objects.equals(transaction.getAmount(), amount)) {
+            throw new AccountException(ErrorCode.CANCEL_MUST_FULLY);
+        }
+
+        String cancelTransactionId = transactionIdGenerator.generate();
+        LocalDateTime transactedAt = LocalDateTime.now();
+
+        List<Object> result = evalAccount(CANCEL_SCRIPT, accountNumber,
+                String.valueOf(amount), cancelTransactionId, transactedAt.toString());
+
+        return toTransaction(result, TransactionType.CANCEL, accountNumber, amount,
+                cancelTransactionId, transactedAt);
+    }
+
+    /**
+     * Redis 잔액이 0 이면 해지 상태로 바꿔서 이후 사용을 막는다.
+     * Redis 에 잔액이 올라가 있지 않으면 false 를 반환한다. (DB 잔액으로 확인)
+     */
+    public boolean unregister(String accountNumber) {
+        List<Object> result = eval(UNREGISTER_SCRIPT,
+                Collections.singletonList(getAccountKey(accountNumber)),
+                AccountStatus.UNREGISTERD.name());
+        String status = (String) result.get(0);
+        if (MISS.equals(status)) {
+            return false;
+        }
+        if (!OK.equals(status)) {
+            throw new AccountException(toErrorCode(status));
+        }
+        return true;
+    }
+
+    /**
+     * stream 의 거래 기록을 Transaction 으로 저장하고 계좌 잔액을 마지막 기록의 잔액으로 맞춘다.
+     * 커밋한 뒤에 ack 하므로 중간에 멈추면 같은 기록을 다시 읽는다. 이미 저장된 거래는 건너뛴다.
+     * 다른 consumer 가 읽고 ack 하지 못한 기록(멈춘 노드, consumer 이름 변경)은 claim-idle-seconds 가 지나면 가져와서 처리한다.
+     */
+    @Scheduled(fixedDelayString = "${account.balance.redis.persist-interval-millis:100}")
+    public void persist() {
+        if (!enabled) {
+            return;
+        }
+
+        RStream<String, String> stream = redissonClient.getStream(streamKey, StringCodec.INSTANCE);
+        createGroupIfAbsent(stream);
+
+        // 읽고 ack 하지 못한 기록부터 다시 처리한다.
+        Map<StreamMessageId, Map<String, String>> messages =
+                stream.readGroup(CONSUMER_GROUP, consumerName, batchSize, StreamMessageId.ALL);
+        if (messages.isEmpty()) {
+            messages = claimIdle(stream);
+        }
+        if (messages.isEmpty()) {
+            messages = stream.readGroup(CONSUMER_GROUP, consumerName, batchSize,
+                    StreamMessageId.NEVER_DELIVERED);
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        List<Map<String, String>> records = messages.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator
+                        .comparingLong(StreamMessageId::getId0)
+                        .thenComparingLong(StreamMessageId::getId1)))
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+        transactionTemplate.executeWithoutResult(status -> save(records));
+
+        StreamMessageId[] ids = messages.keySet().toArray(new StreamMessageId[0]);
+        stream.ack(CONSUMER_GROUP, ids);
+        stream.remove(ids);
+
+        log.debug("Persisted {} redis balance records", records.size());
+    }
+
+    /**
+     * 다른 consumer 의 pending 목록에서 claimIdleMillis 이상 ack 되지 않은 기록을 이 consumer 로 가져온다. (XPENDING + XCLAIM)
+     * XCLAIM 에 같은 idle 시간을 주므로 그 사이 다른 노드가 먼저 가져간 기록은 가져오지 않는다.
+     */
+    private Map<StreamMessageId, Map<String, String>> claimIdle(RStream<String, String> stream) {
+        StreamMessageId[] ids = stream.listPending(CONSUMER_GROUP,
+                        StreamMessageId.MIN, StreamMessageId.MAX, batchSize).stream()
+                .filter(entry -> !consumerName.equals(entry.getConsumerName()))
+                .filter(entry -> entry.getIdleTime() >= claimIdleMillis)
+                .map(PendingEntry::getId)
+                .toArray(StreamMessageId[]::new);
+        if (ids.length == 0) {
+            return Collections.emptyMap();
+        }
+
+        Map<StreamMessageId, Map<String, String>> claimed = new HashMap<>(
+                stream.claim(CONSUMER_GROUP, consumerName, claimIdleMillis, TimeUnit.MILLISECONDS, ids));
+        // 이미 지워진 기록은 내용 없이 돌아온다.
+        claimed.values().removeIf(Objects::isNull);
+        log.warn("Claimed {} redis balance records pending on other consumers", claimed.size());
+        return claimed;
+    }
+
+    private void save(List<Map<String, String>> records) {
+        Map<String, Account> accounts = accountRepository.findAllByAccountNumberIn(
+                        records.stream()
+                                .map(record -> record.get("accountNumber"))
+                                .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Account::getAccountNumber, Function.identity()));
+        Set<String> saved = new HashSet<>(transactionRepository.findTransactionIdsIn(
+                records.stream()
+                        .map(record -> record.get("transactionId"))
+                        .collect(Collectors.toList())));
+
+        Map<String, Long> balances = new HashMap<>();
+        List<Transaction> transactions = new ArrayList<>(records.size());
+        for (Map<String, String> record : records) {
+            Account account = accounts.get(record.get("accountNumber"));
+            if (account == null) {
+                log.warn("Dropped redis balance record of unknown account : {}",
+                        record.get("accountNumber"));
+                continue;
+            }
+            long balance = Long.parseLong(record.get("balance"));
+            balances.put(account.getAccountNumber(), balance);
+            if (saved.contains(record.get("transactionId"))) {
+                continue;
+            }
+            transactions.add(Transaction.builder()
+                    .transactionType(TransactionType.valueOf(record.get("transactionType")))
+                    .transactionResultType(TransactionResultType.S)
+                    .account(account)
+                    .amount(Long.parseLong(record.get("amount")))
+                    .balanceSnapshot(balance)
+                    .transactionId(record.get("transactionId"))
+                    .transactedAt(LocalDateTime.parse(record.get("transactedAt")))
+                    .build());
+        }
+
+        balances.forEach((accountNumber, balance) -> accounts.get(accountNumber).setBalance(balance));
+        transactionRepository.saveAll(transactions);
+        transactionOutboxRepository.saveAll(transactions.stream()
+                .map(transaction -> TransactionOutbox.from(
+                        transaction, transaction.getAccount().getAccountNumber()))
+                .collect(Collectors.toList()));
+    }
+
+    private void createGroupIfAbsent(RStream<String, String> stream) {
+        if (groupCreated) {
+            return;
+        }
+        try {
+            stream.createGroup(CONSUMER_GROUP, StreamMessageId.ALL);
+        } catch (RedisException e) {
+            if (e.getMessage() == null || !e.getMessage().contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+        groupCreated = true;
+    }
+
+    private List<Object> evalAccount(String script, String accountNumber, Object... args) {
+        List<Object> keys = Arrays.asList(getAccountKey(accountNumber), streamKey);
+
+        List<Object> result = eval(script, keys, args);
+        if (MISS.equals(result.get(0))) {
+            load(accountNumber);
+            result = eval(script, keys, args);
+        }
+        return result;
+    }
+
+    private void load(String accountNumber) {
+        Object[] args = transactionTemplate.execute(status -> {
+            Account account = accountRepository.findByAccountNumber(accountNumber)
+                    .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+            return new Object[]{
+                    accountNumber,
+                    String.valueOf(account.getAccountUser().getId()),
+                    account.getAccountStatus().name(),
+                    String.valueOf(account.getBalance())};
+        });
+
+        eval(LOAD_SCRIPT, Collections.singletonList(getAccountKey(accountNumber)), args);
+        log.debug("Loaded account balance into redis : {}", accountNumber);
+    }
+
+    private List<Object> eval(String script, List<Object> keys, Object... args) {
+        RScript rScript = redissonClient.getScript(StringCodec.INSTANCE);
+        String sha = scriptShas.computeIfAbsent(script, rScript::scriptLoad);
+        try {
+            return rScript.evalSha(RScript.Mode.READ_WRITE, sha, RScript.ReturnType.MULTI,
+                    keys, args);
+        } catch (RedisException e) {
+            if (e.getMessage() == null || !e.getMessage().contains("NOSCRIPT")) {
+                throw e;
+            }
+            // Redis 재시작 등으로 스크립트 캐시가 비었다. 다음 호출에서 다시 올린다.
+            scriptShas.remove(script);
+            return rScript.eval(RScript.Mode.READ_WRITE, script, RScript.ReturnType.MULTI,
+                    keys, args);
+        }
+    }
+
+    private TransactionDto toTransaction(List<Object> result, TransactionType transactionType,
+                                         String accountNumber, Long amount,
+                                         String transactionId, LocalDateTime transactedAt) {
+        String status = (String) result.get(0);
+        if (!OK.equals(status)) {
+            throw new AccountException(toErrorCode(status));
+        }
+
+        TransactionDto transactionDto = TransactionDto.builder()
+                .accountNumber(accountNumber)
+                .transactionType(transactionType)
+                .transactionResultType(TransactionResultType.S)
+                .amount(amount)
+                .balanceSnapshot(Long.parseLong((String) result.get(1)))
+                .transactionId(transactionId)
+                .transactedAt(transactedAt)
+                .build();
+        // DB 에 저장되기 전에도 거래 조회/취소가 되도록 캐시에 먼저 넣는다.
+        transactionCache.put(transactionDto);
+        return transactionDto;
+    }
+
+    /**
+     * 스크립트가 돌려준 실패 사유를 오류 코드로 바꾼다.
+     * 문자열이라 컴파일러가 확인할 수 없으므로 ErrorCode.valueOf 대신 스크립트의 사유를 모두 나열한다.
+     */
+    static ErrorCode toErrorCode(String status) {
+        switch (status) {
+            case "USER_ACCOUNT_UNMATCH":
+                return ErrorCode.USER_ACCOUNT_UN_MATHCHED;
+            case "ACCOUNT_ALREADY_UNREGISTERED":
+                return ErrorCode.ACCOUNT_ALREADY_UNREGISTERED;
+            case "AMOUNT_TOO_SMALL":
+                return ErrorCode.AMOUNT_TOO_SMALL;
+            case "AMOUNT_TOO_BIG":
+                return ErrorCode.AMOUNT_TOO_BIG;
+            case "AMOUNT_EXCEED_BALANCE":
+                return ErrorCode.AMOUNT_EXCEED_BALANCE;
+            case "BALANCE_NOT_EMPTY":
+                return ErrorCode.BALANCE_NOT_EMPTY;
+            default:
+                log.error("Unknown redis balance script result : {}", status);
+                return ErrorCode.INTERNAL_SERVER_ERROR;
+        }
+    }
+
+    private static String getAccountKey(String accountNumber) {
+        return ACCOUNT_KEY_PREFIX + accountNumber;
+    }
+}
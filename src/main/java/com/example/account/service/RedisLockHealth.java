@@ -0,0 +1,82 @@
+package com.example.account.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Redis lock 상태 판단
+ * Redis 호출이 실패하거나 unlock 응답 시간의 지수 이동 평균(EWMA)이 기준을 넘으면
+ * cooldown 동안 DB row lock(LockMode.DATABASE) 으로 넘어간다.
+ * unlock 은 대기 없이 한 번 왕복하므로 경합과 관계없는 Redis 응답 시간으로 본다.
+ * 켜면 넘어간 노드와 서로 막히도록 정상인 노드도 모든 요청에서 DB row lock 을 같이 잡으므로 기본값은 끈다.
+ * (LockService.isRowLockRequired, 비용은 RowLockBenchmark 로 측정)
+ */
+@Slf4j
+@Component
+public class RedisLockHealth {
+    private final boolean enabled;
+    private final long thresholdNanos;
+    private final long cooldownNanos;
+    private final double alpha;
+
+    private final AtomicLong ewmaBits = new AtomicLong(Double.doubleToLongBits(0.0));
+    private volatile long failedOverUntil;
+
+    public RedisLockHealth(
+            @Value("${account.lock.failover.enabled:false}") boolean enabled,
+            @Value("${account.lock.failover.latency-threshold-millis:50}") long thresholdMillis,
+            @Value("${account.lock.failover.cooldown-seconds:30}") long cooldownSeconds,
+            @Value("${account.lock.failover.ewma-alpha:0.2}") double alpha) {
+        this.enabled = enabled;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.cooldownNanos = TimeUnit.SECONDS.toNanos(cooldownSeconds);
+        this.alpha = alpha;
+        this.failedOverUntil = System.nanoTime();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isFailedOver() {
+        return enabled && System.nanoTime() - failedOverUntil < 0;
+    }
+
+    public void recordLatency(long nanos) {
+        while (true) {
+            long previous = ewmaBits.get();
+            double ewma = Double.longBitsToDouble(previous);
+            double next = ewma == 0.0 ? nanos : ewma + alpha * (nanos - ewma);
+            if (ewmaBits.compareAndSet(previous, Double.doubleToLongBits(next))) {
+                if (next > thresholdNanos) {
+                    failover("latency " + TimeUnit.NANOSECONDS.toMillis((long) next) + " ms");
+                }
+                return;
+            }
+        }
+    }
+
+    public void recordFailure() {
+        failover("error");
+    }
+
+    double getEwmaMillis() {
+        return Double.longBitsToDouble(ewmaBits.get()) / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private void failover(String reason) {
+        if (!enabled || isFailedOver()) {
+            return;
+        }
+        failedOverUntil = System.nanoTime() + cooldownNanos;
+        // cooldown 이 끝나면 Redis 를 새로 측정한다.
+        ewmaBits.set(Double.doubleToLongBits(0.0));
+        log.warn("Redis lock failed over to database lock for {} s : {}",
+                TimeUnit.NANOSECONDS.toSeconds(cooldownNanos), reason);
+    }
+}
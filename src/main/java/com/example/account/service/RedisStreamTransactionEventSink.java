@@ -0,0 +1,62 @@
+package com.example.account.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.redisson.api.RBatch;
+import org.redisson.api.RStreamAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.stream.StreamAddArgs;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import com.example.account.dto.TransactionEvent;
+
+/**
+ * Redis Stream 으로 이벤트를 보낸다. batch 하나를 RBatch 로 묶어서 한 번에 보낸다.
+ * stream 은 max-length 근처에서 잘라낸다. (MAXLEN ~)
+ */
+@Component
+@ConditionalOnProperty(name = "account.outbox.sink", havingValue = "redis", matchIfMissing = true)
+public class RedisStreamTransactionEventSink implements TransactionEventSink {
+    private final RedissonClient redissonClient;
+    private final String streamKey;
+    private final int maxLength;
+
+    public RedisStreamTransactionEventSink(
+            @Lazy RedissonClient redissonClient,
+            @Value("${account.outbox.redis.stream-key:ACTX:EVENTS}") String streamKey,
+            @Value("${account.outbox.redis.max-length:1000000}") int maxLength) {
+        this.redissonClient = redissonClient;
+        this.streamKey = streamKey;
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    public void publish(List<TransactionEvent> events) {
+        RBatch batch = redissonClient.createBatch();
+        RStreamAsync<String, String> stream = batch.getStream(streamKey, StringCodec.INSTANCE);
+        for (TransactionEvent event : events) {
+            stream.addAsync(StreamAddArgs.entries(toEntries(event)));
+        }
+        stream.trimNonStrictAsync(maxLength);
+        batch.execute();
+    }
+
+    private Map<String, String> toEntries(TransactionEvent event) {
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("eventId", String.valueOf(event.getEventId()));
+        entries.put("transactionId", event.getTransactionId());
+        entries.put("accountNumber", event.getAccountNumber());
+        entries.put("transactionType", event.getTransactionType().name());
+        entries.put("transactionResultType", event.getTransactionResultType().name());
+        entries.put("amount", String.valueOf(event.getAmount()));
+        entries.put("balanceSnapshot", String.valueOf(event.getBalanceSnapshot()));
+        entries.put("transactedAt", String.valueOf(event.getTransactedAt()));
+        return entries;
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.account.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountBalanceShard;
+import com.example.account.dto.AccountMetadata;
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountBalanceShardRepository;
+import com.example.account.repository.AccountRepository;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.BalanceMode;
+import com.example.account.type.ErrorCode;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 분할 잔액 계좌 처리
+ * 요청이 몰리는 계좌의 잔액을 N 개의 shard row 로 나누고, shard 마다 따로 lock 을 잡아서 동시에 차감한다.
+ * 사용 : 임의의 shard 부터 probes 개를 차례로 시도하고, 모두 부족하면 모든 shard lock 을 한 번에 잡고 나눠서 차감한다.
+ * 취소 : 임의의 shard 하나에 더한다.
+ */
+@Slf4j
+@Service
+public class ShardedBalanceService {
+    private final TransactionService transactionService;
+    private final LockService lockService;
+    private final DatabaseLockService databaseLockService;
+    private final AccountCache accountCache;
+    private final AccountRepository accountRepository;
+    private final AccountBalanceShardRepository accountBalanceShardRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BalanceMode balanceMode;
+    private final int maxShards;
+    private final int probes;
+
+    public ShardedBalanceService(
+            TransactionService transactionService,
+            LockService lockService,
+            DatabaseLockService databaseLockService,
+            AccountCache accountCache,
+            AccountRepository accountRepository,
+            AccountBalanceShardRepository accountBalanceShardRepository,
+            PlatformTransactionManager transactionManager,
+            BalanceMode balanceMode,
+            @Value("${account.balance.shard.max-shards:64}") int maxShards,
+            @Value("${account.balance.shard.probes:2}") int probes) {
+        this.transactionService = transactionService;
+        this.lockService = lockService;
+        this.databaseLockService = databaseLockService;
+        this.accountCache = accountCache;
+        this.accountRepository = accountRepository;
+        this.accountBalanceShardRepository = accountBalanceShardRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.balanceMode = balanceMode;
+        this.maxShards = maxShards;
+        this.probes = Math.max(probes, 1);
+    }
+
+    public boolean isSharded(String accountNumber) {
+        return getShardCount(accountNumber) > 0;
+    }
+
+    public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
+        int shardCount = getShardCount(accountNumber);
+        int start = ThreadLocalRandom.current().nextInt(shardCount);
+
+        for (int i = 0; i < Math.min(probes, shardCount); i++) {
+            int shardIndex = (start + i) % shardCount;
+            String lockName = getShardLockName(accountNumber, shardIndex);
+            lockService.lock(lockName);
+            try {
+                return transactionService.useBalanceSharded(
+                        userId, accountNumber, amount, shardIndex);
+            } catch (AccountException e) {
+                if (e.getErrorCode() != ErrorCode.AMOUNT_EXCEED_BALANCE) {
+                    throw e;
+                }
+            } finally {
+                lockService.unlock(lockName);
+            }
+        }
+
+        log.debug("Borrowing balance across {} shards : {}", shardCount, accountNumber);
+        List<String> lockNames = getShardLockNames(accountNumber, shardCount);
+        lockService.lockAll(lockNames);
+        try {
+            return databaseLockService.executeIfRequired(() ->
+                    transactionService.useBalanceAcrossShards(userId, accountNumber, amount));
+        } finally {
+            lockService.unlockAll(lockNames);
+        }
+    }
+
+    public TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount) {
+        int shardIndex = ThreadLocalRandom.current().nextInt(getShardCount(accountNumber));
+        String lockName = getShardLockName(accountNumber, shardIndex);
+
+        lockService.lock(lockName);
+        try {
+            return transactionService.cancelBalanceSharded(
+                    transactionId, accountNumber, amount, shardIndex);
+        } finally {
+            lockService.unlock(lockName);
+        }
+    }
+
+    /**
+     * 계좌 잔액을 shardCount 개로 나눈다. 나눈 뒤에는 Account.balance 는 0 이고 잔액은 shard 에 있다.
+     * 원장 모드는 거래 순번이 계좌 하나에 하나씩이라, REDIS_LUA 모드는 잔액이 Redis 에 있어서 분할할 수 없다.
+     */
+    public AccountMetadata shardAccount(String accountNumber, int shardCount) {
+        if (!balanceMode.supportsSharding()
+                || shardCount < 2 || shardCount > maxShards) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+
+        lockService.lock(accountNumber);
+        try {
+            return databaseLockService.executeIfRequired(() -> transactionTemplate.execute(status -> {
+                databaseLockService.lockIfRequired(accountNumber);
+                Account account = accountRepository.findByAccountNumber(accountNumber)
+                        .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+                if (account.getAccountStatus() != AccountStatus.IN_USE) {
+                    throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+                }
+                if (account.getShardCount() != null && account.getShardCount() > 0
+                        || account.getHeldAmount() > 0) {
+                    // 승인으로 묶인 금액은 Account.balance 에 남아 있어야 한다.
+                    throw new AccountException(ErrorCode.INVALID_REQUEST);
+                }
+
+                long balance = account.getBalance();
+                List<AccountBalanceShard> shards = new ArrayList<>(shardCount);
+                for (int i = 0; i < shardCount; i++) {
+                    shards.add(AccountBalanceShard.builder()
+                            .account(account)
+                            .shardIndex(i)
+                            .balance(balance / shardCount + (i < balance % shardCount ? 1 : 0))
+                            .build());
+                }
+                accountBalanceShardRepository.saveAll(shards);
+
+                account.setBalance(0L);
+                account.setShardCount(shardCount);
+                accountCache.invalidate(accountNumber);
+
+                log.info("Account balance sharded : {} into {} shards", accountNumber, shardCount);
+                return AccountMetadata.from(account);
+            }));
+        } finally {
+            lockService.unlock(accountNumber);
+        }
+    }
+
+    private int getShardCount(String accountNumber) {
+        return accountCache.get(accountNumber, () ->
+                        transactionTemplate.execute(status ->
+                                accountRepository.findByAccountNumber(accountNumber)
+                                        .map(AccountMetadata::from)))
+                .map(AccountMetadata::getShardCount)
+                .orElse(0);
+    }
+
+    /**
+     * 계좌의 모든 shard lock 이름, LockService.lockAll 로 정렬된 순서로 한 번에 잡는다.
+     * (LOCAL 은 다른 계좌의 shard 와 stripe 를 같이 쓰므로 하나씩 잡으면 서로 기다릴 수 있다.)
+     */
+    static List<String> getShardLockNames(String accountNumber, int shardCount) {
+        List<String> lockNames = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            lockNames.add(getShardLockName(accountNumber, i));
+        }
+        return lockNames;
+    }
+
+    /**
+     * shard lock 이름, LockService 의 lock key 는 "ACLK:{계좌번호}:{shard}" 가 된다.
+     */
+    static String getShardLockName(String accountNumber, int shardIndex) {
+        return accountNumber + ":" + shardIndex;
+    }
+}
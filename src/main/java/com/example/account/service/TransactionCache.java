@@ -0,0 +1,126 @@
+package com.example.account.service;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.account.dto.TransactionDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * transactionId 로 조회하는 거래 캐시
+ * 1차 : JVM 내부 Caffeine (W-TinyLFU), 2차 : Redis RMapCache (선택)
+ * 거래는 저장 후 바뀌지 않으므로 무효화 없이 용량과 TTL 로만 관리한다.
+ * 꺼낸 값은 복사본이라 호출자가 수정해도 캐시에는 영향이 없다.
+ */
+@Slf4j
+@Service
+public class TransactionCache {
+    private static final String REDIS_CACHE_KEY = "ACTX:CACHE";
+
+    private final Cache<String, TransactionDto> cache;
+    private final boolean redisEnabled;
+    private final long redisTtlSeconds;
+    private final RedissonClient redissonClient;
+
+    private final LongAdder redisHits = new LongAdder();
+    private final LongAdder redisMisses = new LongAdder();
+
+    public TransactionCache(
+            @Value("${account.cache.transaction.maximum-size:100000}") long maximumSize,
+            @Value("${account.cache.transaction.redis-enabled:false}") boolean redisEnabled,
+            @Value("${account.cache.transaction.redis-ttl-seconds:600}") long redisTtlSeconds,
+            @Lazy RedissonClient redissonClient) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        this.redisEnabled = redisEnabled;
+        this.redisTtlSeconds = redisTtlSeconds;
+        this.redissonClient = redissonClient;
+    }
+
+    public Optional<TransactionDto> get(String transactionId,
+                                        Supplier<Optional<TransactionDto>> loader) {
+        TransactionDto cached = cache.getIfPresent(transactionId);
+        if (cached != null) {
+            return Optional.of(cached.toBuilder().build());
+        }
+
+        if (redisEnabled) {
+            TransactionDto remote = remoteCache().get(transactionId);
+            if (remote != null) {
+                redisHits.increment();
+                cache.put(transactionId, remote);
+                return Optional.of(remote.toBuilder().build());
+            }
+            redisMisses.increment();
+        }
+
+        Optional<TransactionDto> loaded = loader.get();
+        loaded.ifPresent(this::store);
+        return loaded.map(transactionDto -> transactionDto.toBuilder().build());
+    }
+
+    /**
+     * 새로 저장한 거래를 캐시에 넣는다.
+     * DB 트랜잭션 안이면 커밋된 뒤에 넣어서 롤백된 거래가 조회되지 않게 한다.
+     */
+    public void put(TransactionDto transactionDto) {
+        TransactionDto snapshot = transactionDto.toBuilder().build();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            store(snapshot);
+                        }
+                    });
+            return;
+        }
+        store(snapshot);
+    }
+
+    public CacheStats getLocalStats() {
+        return cache.stats();
+    }
+
+    public long getRedisHits() {
+        return redisHits.sum();
+    }
+
+    public long getRedisMisses() {
+        return redisMisses.sum();
+    }
+
+    private void store(TransactionDto transactionDto) {
+        cache.put(transactionDto.getTransactionId(), transactionDto);
+
+        if (redisEnabled) {
+            try {
+                remoteCache().fastPut(transactionDto.getTransactionId(), transactionDto,
+                        redisTtlSeconds, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                log.warn("Failed to write transaction cache to redis", e);
+            }
+        }
+    }
+
+    private RMapCache<String, TransactionDto> remoteCache() {
+        return redissonClient.getMapCache(REDIS_CACHE_KEY);
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.account.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.account.dto.BalanceOperation;
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 계좌별 요청 모음 처리기
+ * 계좌 번호마다 대기열을 두고, 계좌 번호로 정해지는 단일 스레드(shard)가 대기열을 비운다.
+ * 모인 요청은 lock 한 번, DB 트랜잭션 한 번으로 순서대로 처리되고,
+ * 각 요청자는 자신의 결과를 future 로 받는다.
+ */
+@Slf4j
+@Service
+public class TransactionCoalescer {
+    private final TransactionService transactionService;
+    private final LockService lockService;
+    private final DatabaseLockService databaseLockService;
+    private final HotAccountTracker hotAccountTracker;
+    private final boolean enabled;
+    private final boolean hotAccountsOnly;
+    private final int maxBatchSize;
+    private final ExecutorService[] shards;
+    private final ConcurrentHashMap<String, AccountQueue> queues = new ConcurrentHashMap<>();
+
+    public TransactionCoalescer(
+            TransactionService transactionService,
+            LockService lockService,
+            DatabaseLockService databaseLockService,
+            HotAccountTracker hotAccountTracker,
+            @Value("${account.transaction.coalescing.enabled:false}") boolean enabled,
+            @Value("${account.transaction.coalescing.hot-accounts:false}") boolean hotAccountsOnly,
+            @Value("${account.transaction.coalescing.shards:8}") int shardCount,
+            @Value("${account.transaction.coalescing.max-batch-size:100}") int maxBatchSize) {
+        this.transactionService = transactionService;
+        this.lockService = lockService;
+        this.databaseLockService = databaseLockService;
+        this.hotAccountTracker = hotAccountTracker;
+        this.enabled = enabled;
+        this.hotAccountsOnly = hotAccountsOnly;
+        this.maxBatchSize = maxBatchSize;
+        this.shards = new ExecutorService[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            String name = "transaction-coalescer-" + i;
+            shards[i] = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, name));
+        }
+    }
+
+    /**
+     * 모든 계좌를 모아서 처리하거나, hot-accounts 설정 시 요청이 몰리는 계좌만 모아서 처리한다.
+     */
+    public boolean shouldCoalesce(String accountNumber) {
+        return enabled || (hotAccountsOnly && hotAccountTracker.isHot(accountNumber));
+    }
+
+    public CompletableFuture<TransactionDto> submit(BalanceOperation operation) {
+        Pending pending = new Pending(operation);
+        AccountQueue queue = queues.computeIfAbsent(operation.getAccountNumber(), AccountQueue::new);
+        queue.items.add(pending);
+        schedule(queue);
+        return pending.future;
+    }
+
+    /**
+     * future 를 기다리고, 실패했으면 원래의 AccountException 을 그대로 던진다.
+     */
+    TransactionDto await(CompletableFuture<TransactionDto> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void schedule(AccountQueue queue) {
+        if (queue.scheduled.compareAndSet(false, true)) {
+            shardFor(queue.accountNumber).execute(() -> drain(queue));
+        }
+    }
+
+    private void drain(AccountQueue queue) {
+        List<Pending> batch = new ArrayList<>();
+        Pending pending;
+        while (batch.size() < maxBatchSize && (pending = queue.items.poll()) != null) {
+            batch.add(pending);
+        }
+
+        if (!batch.isEmpty()) {
+            process(queue.accountNumber, batch);
+        }
+
+        queue.scheduled.set(false);
+        if (!queue.items.isEmpty()) {
+            schedule(queue);
+        } else {
+            // 같은 계좌의 대기열은 항상 같은 shard 스레드에서 처리되므로,
+            // 제거 직후 새 대기열이 생겨도 동시에 처리되지 않는다.
+            queues.remove(queue.accountNumber, queue);
+        }
+    }
+
+    private void process(String accountNumber, List<Pending> batch) {
+        List<BalanceOperation> operations = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            operations.add(pending.operation);
+        }
+
+        try {
+            long startedAt = System.nanoTime();
+            try {
+                lockService.lock(accountNumber);
+            } finally {
+                long waitNanos = System.nanoTime() - startedAt;
+                for (int i = 0; i < batch.size(); i++) {
+                    hotAccountTracker.record(accountNumber, waitNanos);
+                }
+            }
+            try {
+                List<BalanceOperation.Result> results = databaseLockService.executeIfRequired(
+                        () -> transactionService.applyBatch(operations));
+                for (int i = 0; i < batch.size(); i++) {
+                    complete(batch.get(i), results.get(i));
+                }
+            } finally {
+                lockService.unlock(accountNumber);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to process coalesced batch. accountNumber : {}", accountNumber, e);
+            for (Pending pending : batch) {
+                pending.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void complete(Pending pending, BalanceOperation.Result result) {
+        if (result.isSuccess()) {
+            pending.future.complete(result.getTransaction());
+        } else {
+            AccountException exception = result.getException();
+            pending.future.completeExceptionally(exception);
+        }
+    }
+
+    private ExecutorService shardFor(String accountNumber) {
+        return shards[Math.floorMod(accountNumber.hashCode(), shards.length)];
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService shard : shards) {
+            shard.shutdown();
+        }
+    }
+
+    private static class AccountQueue {
+        private final String accountNumber;
+        private final Queue<Pending> items = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private AccountQueue(String accountNumber) {
+            this.accountNumber = accountNumber;
+        }
+    }
+
+    private static class Pending {
+        private final BalanceOperation operation;
+        private final CompletableFuture<TransactionDto> future = new CompletableFuture<>();
+
+        private Pending(BalanceOperation operation) {
+            this.operation = operation;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.account.service;
+
+import java.util.List;
+
+import com.example.account.dto.TransactionEvent;
+
+/**
+ * OutboxRelay 가 거래 이벤트를 보내는 곳 (account.outbox.sink : redis, memory)
+ * 예외를 던지면 outbox 를 지우지 않고 다음에 다시 보낸다. (at-least-once, eventId 로 중복 제거)
+ */
+public interface TransactionEventSink {
+    void publish(List<TransactionEvent> events);
+}
@@ -0,0 +1,112 @@
+package com.example.account.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.account.dto.AccountMetadata;
+import com.example.account.dto.QueryTransaction;
+import com.example.account.dto.TransactionHistoryRow;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.ErrorCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * 계좌의 거래 내역을 NDJSON (한 줄에 QtResponse 하나) 으로 내보낸다.
+ * (transactedAt, id) keyset 으로 페이지를 나누고, 페이지마다 짧은 읽기 전용 트랜잭션에서 cursor 로 읽는다.
+ * 한 번에 메모리에 올라가는 건 한 줄뿐이라 내역이 많아도 메모리 사용량이 일정하다.
+ */
+@Service
+public class TransactionHistoryService {
+    private static final int NEW_LINE = '\n';
+
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final AccountCache accountCache;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter objectWriter;
+    private final int pageSize;
+
+    public TransactionHistoryService(
+            TransactionRepository transactionRepository,
+            AccountRepository accountRepository,
+            AccountCache accountCache,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${account.transaction.history.page-size:1000}") int pageSize) {
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.accountCache = accountCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectWriter = objectMapper.writerFor(QueryTransaction.QtResponse.class);
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * 응답을 쓰기 시작하기 전에 계좌를 확인한다. (없으면 일반 오류 응답)
+     */
+    public AccountMetadata getAccount(String accountNumber) {
+        return accountCache.get(accountNumber, () ->
+                        accountRepository.findByAccountNumber(accountNumber)
+                                .map(AccountMetadata::from))
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+    }
+
+    public void export(AccountMetadata account, OutputStream outputStream) throws IOException {
+        BufferedOutputStream out = new BufferedOutputStream(outputStream);
+        Cursor cursor = new Cursor();
+
+        do {
+            cursor.rowsInPage = 0;
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<TransactionHistoryRow> rows = nextPage(account.getId(), cursor)) {
+                    rows.forEach(row -> {
+                        write(out, row.toResponse(account.getAccountNumber()));
+                        cursor.transactedAt = row.getTransactedAt();
+                        cursor.id = row.getId();
+                        cursor.rowsInPage++;
+                    });
+                }
+            });
+            out.flush();
+        } while (cursor.rowsInPage == pageSize);
+    }
+
+    private Stream<TransactionHistoryRow> nextPage(Long accountId, Cursor cursor) {
+        PageRequest page = PageRequest.ofSize(pageSize);
+        if (cursor.id == null) {
+            return transactionRepository.streamHistory(accountId, page);
+        }
+        return transactionRepository.streamHistoryAfter(
+                accountId, cursor.transactedAt, cursor.id, page);
+    }
+
+    private void write(OutputStream out, QueryTransaction.QtResponse response) {
+        try {
+            out.write(objectWriter.writeValueAsBytes(response));
+            out.write(NEW_LINE);
+        } catch (IOException e) {
+            // 클라이언트가 연결을 끊은 경우, 남은 페이지를 읽지 않고 중단한다.
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static class Cursor {
+        private LocalDateTime transactedAt;
+        private Long id;
+        private int rowsInPage;
+    }
+}
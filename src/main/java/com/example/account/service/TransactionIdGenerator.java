@@ -0,0 +1,101 @@
+package com.example.account.service;
+
+import java.security.SecureRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 시간 순으로 정렬되는 128bit 거래 ID 생성기 (UUIDv7 형식)
+ * 상위 64bit : 48bit 밀리초 timestamp | 4bit version(7) | 12bit 밀리초 내 순번
+ * 하위 64bit : 2bit variant | 14bit 노드 ID | 48bit 난수
+ * 문자열은 기존과 같은 32자리 소문자 hex 이고, DB 에는 BINARY(16) 으로 저장된다.
+ */
+@Component
+public class TransactionIdGenerator {
+    public static final int ID_BYTES = 16;
+
+    private static final long VERSION_BITS = 0x7000L;
+    private static final long SEQUENCE_MASK = 0x0FFFL;
+    private static final long VARIANT_BITS = 0x8000_0000_0000_0000L;
+    private static final long RANDOM_MASK = 0x0000_FFFF_FFFF_FFFFL;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final long nodeBits;
+    private final AtomicLong lastHigh = new AtomicLong();
+
+    public TransactionIdGenerator(@Value("${account.node-id:-1}") int nodeId) {
+        int node = nodeId >= 0 ? nodeId : new SecureRandom().nextInt();
+        this.nodeBits = ((long) (node & 0x3FFF)) << 48;
+    }
+
+    public String generate() {
+        long high = nextHigh();
+        long low = VARIANT_BITS | nodeBits
+                | (ThreadLocalRandom.current().nextLong() & RANDOM_MASK);
+        return toHex(high, low);
+    }
+
+    private long nextHigh() {
+        long timestamp = (System.currentTimeMillis() << 16) | VERSION_BITS;
+        while (true) {
+            long previous = lastHigh.get();
+            long next;
+            if (timestamp > previous) {
+                next = timestamp;
+            } else if ((previous & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                next = previous + 1;
+            } else {
+                // 밀리초 내 순번을 다 쓰면 다음 밀리초를 미리 사용한다.
+                next = (((previous >>> 16) + 1) << 16) | VERSION_BITS;
+            }
+            if (lastHigh.compareAndSet(previous, next)) {
+                return next;
+            }
+        }
+    }
+
+    static String toHex(long high, long low) {
+        char[] chars = new char[ID_BYTES * 2];
+        for (int i = 15; i >= 0; i--) {
+            chars[i] = HEX[(int) (high & 0xF)];
+            high >>>= 4;
+            chars[i + 16] = HEX[(int) (low & 0xF)];
+            low >>>= 4;
+        }
+        return new String(chars);
+    }
+
+    public static String toHex(byte[] bytes) {
+        if (bytes == null || bytes.length != ID_BYTES) {
+            return null;
+        }
+        char[] chars = new char[ID_BYTES * 2];
+        for (int i = 0; i < ID_BYTES; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 32자리 hex 문자열을 16byte 로 바꾼다. 형식이 다르면 null.
+     */
+    public static byte[] toBytes(String transactionId) {
+        if (transactionId == null || transactionId.length() != ID_BYTES * 2) {
+            return null;
+        }
+        byte[] bytes = new byte[ID_BYTES];
+        for (int i = 0; i < ID_BYTES; i++) {
+            int hi = Character.digit(transactionId.charAt(i * 2), 16);
+            int lo = Character.digit(transactionId.charAt(i * 2 + 1), 16);
+            if (hi < 0 || lo < 0) {
+                return null;
+            }
+            bytes[i] = (byte) ((hi << 4) | lo);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.account.service;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.Transfer;
+import com.example.account.type.TransactionResultType;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * TransactionService public 메소드의 처리 시간을 결과(S / F) 별로 기록한다.
+ * 결과는 반환한 거래의 결과 타입을 쓰고, 예외로 끝나면 F 다.
+ * 실패 거래 기록(saveAndFailedUseTransaction)과 요청 여러 건의 묶음(applyBatch)은 거래 하나의 결과가 아니라서 제외한다.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class TransactionMetricsAspect {
+    private final AccountMetrics accountMetrics;
+
+    @Around("execution(public * com.example.account.service.TransactionService.*(..))"
+            + " && !execution(* com.example.account.service.TransactionService.saveAndFailedUseTransaction(..))"
+            + " && !execution(* com.example.account.service.TransactionService.applyBatch(..))")
+    public Object aroundMethod(ProceedingJoinPoint pjp) throws Throwable {
+        long startedAt = System.nanoTime();
+        TransactionResultType result = TransactionResultType.F;
+        try {
+            Object value = pjp.proceed();
+            result = resultOf(value);
+            return value;
+        } finally {
+            accountMetrics.recordTransaction(pjp.getSignature().getName(), result.name(),
+                    System.nanoTime() - startedAt);
+        }
+    }
+
+    static TransactionResultType resultOf(Object value) {
+        TransactionResultType result = null;
+        if (value instanceof TransactionDto) {
+            result = ((TransactionDto) value).getTransactionResultType();
+        } else if (value instanceof Transfer.Response) {
+            result = ((Transfer.Response) value).getTransactionResult();
+        }
+        return result == null ? TransactionResultType.S : result;
+    }
+}
@@ -1,36 +1,82 @@
 package com.example.account.service;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.transaction.Transactional;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.google.common.base.Objects;
 import com.example.account.domain.Account;
+import com.example.account.domain.AccountBalanceShard;
 import com.example.account.domain.AccountUser;
+import com.example.account.domain.BalanceHold;
 import com.example.account.domain.Transaction;
+import com.example.account.domain.TransactionOutbox;
+import com.example.account.dto.AccountMetadata;
+import com.example.account.dto.BalanceOperation;
+import com.example.account.dto.HoldDto;
 import com.example.account.dto.TransactionDto;
+import com.example.account.dto.Transfer;
 import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountBalanceShardRepository;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.BalanceHoldRepository;
+import com.example.account.repository.TransactionOutboxRepository;
 import com.example.account.repository.TransactionRepository;
 import com.example.account.type.AccountStatus;
+import com.example.account.type.BalanceMode;
 import com.example.account.type.ErrorCode;
+import com.example.account.type.HoldStatus;
 import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
+    public static final long MIN_AMOUNT = 10L;
+    public static final long MAX_AMOUNT = 100_000_000L;
+
     private final TransactionRepository transactionRepository;
     private final AccountUserRepository accountUserRepository;
     private final AccountRepository accountRepository;
-    private final Long minAmount = (long) 10L;
-    private final Long maxAmount = (long) 100_000_000L;
+    private final TransactionCache transactionCache;
+    private final AccountCache accountCache;
+    private final FailedTransactionWriter failedTransactionWriter;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final LedgerService ledgerService;
+    private final AccountBalanceShardRepository accountBalanceShardRepository;
+    private final RedisBalanceEngine redisBalanceEngine;
+    private final TransactionOutboxRepository transactionOutboxRepository;
+    private final BalanceHoldRepository balanceHoldRepository;
+    private final DatabaseLockService databaseLockService;
+    private final LockService lockService;
+    private final PlatformTransactionManager transactionManager;
+    private final BalanceMode balanceMode;
+    private final Long minAmount = MIN_AMOUNT;
+    private final Long maxAmount = MAX_AMOUNT;
+
+    @Value("${account.outbox.enabled:true}")
+    private boolean outboxEnabled = true;
 
     @Transactional
     public TransactionDto useBalance(
@@ -39,10 +85,17 @@ public class TransactionService {
         AccountUser accountUser = accountUserRepository.findById(userId)
                 .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
 
+        validateUseRequest(amount, accountUser, getAccountMetadata(accountNumber));
+
+        databaseLockService.lockIfRequired(accountNumber);
         Account account = accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
 
-        validateUseBalance(amount, accountUser, account);
+        // 캐시된 상태는 다른 노드의 해지를 늦게 알 수 있으므로 읽어 온 계좌로 다시 확인한다.
+        if (account.getAccountStatus() != AccountStatus.IN_USE) {
+            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+        }
+        validateBalance(amount, account);
 
         account.useBalance(amount);
 
@@ -53,35 +106,517 @@ public class TransactionService {
                 account));
     }
 
+    /**
+     * 잔액 확인과 차감을 조건부 UPDATE 하나로 처리한다. 외부 lock 이 필요 없다.
+     */
+    @Transactional
+    public TransactionDto useBalanceAtomically(
+            Long userId, String accountNumber, Long amount
+    ) {
+        AccountUser accountUser = accountUserRepository.findById(userId)
+                .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+
+        AccountMetadata metadata = getAccountMetadata(accountNumber);
+
+        validateUseRequest(amount, accountUser, metadata);
+
+        if (accountRepository.decreaseBalance(accountNumber, amount) == 0) {
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+
+        return TransactionDto.fromEntity(saveAndGetTransaction(
+                TransactionType.USE,
+                TransactionResultType.S,
+                amount,
+                accountRepository.getReferenceById(metadata.getId()),
+                accountNumber,
+                getCurrentBalance(accountNumber)), accountNumber);
+    }
+
+    @Transactional
+    public TransactionDto cancelBalanceAtomically(
+            String transactionId, String accountNumber, Long amount
+    ) {
+        TransactionDto transaction = findTransaction(transactionId);
+
+        AccountMetadata metadata = getAccountMetadata(accountNumber);
+
+        validateCancelBalance(amount, transaction);
+
+        if (accountRepository.increaseBalance(accountNumber, amount) == 0) {
+            throw new AccountException(ErrorCode.ACCOUNT_NOT_FOUND);
+        }
+
+        return TransactionDto.fromEntity(saveAndGetTransaction(
+                TransactionType.CANCEL,
+                TransactionResultType.S,
+                amount,
+                accountRepository.getReferenceById(metadata.getId()),
+                accountNumber,
+                getCurrentBalance(accountNumber)), accountNumber);
+    }
+
+    /**
+     * 원장 모드 사용 : 계좌 row 는 건드리지 않고 순번을 붙인 거래만 추가한다. (계좌 lock 필요)
+     */
+    @Transactional
+    public TransactionDto useBalanceLedger(
+            Long userId, String accountNumber, Long amount
+    ) {
+        AccountUser accountUser = accountUserRepository.findById(userId)
+                .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+
+        AccountMetadata metadata = getAccountMetadata(accountNumber);
+
+        validateUseRequest(amount, accountUser, metadata);
+
+        databaseLockService.lockIfRequired(accountNumber);
+        LedgerService.Position position = ledgerService.getPosition(metadata.getId());
+        if (position.getBalance() < amount) {
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+
+        return appendLedger(TransactionType.USE, amount, metadata,
+                position, position.getBalance() - amount);
+    }
+
+    @Transactional
+    public TransactionDto cancelBalanceLedger(
+            String transactionId, String accountNumber, Long amount
+    ) {
+        TransactionDto transaction = findTransaction(transactionId);
+
+        AccountMetadata metadata = getAccountMetadata(accountNumber);
+
+        validateCancelBalance(amount, transaction);
+
+        databaseLockService.lockIfRequired(accountNumber);
+        LedgerService.Position position = ledgerService.getPosition(metadata.getId());
+
+        return appendLedger(TransactionType.CANCEL, amount, metadata,
+                position, position.getBalance() + amount);
+    }
+
+    /**
+     * 분할 잔액 계좌 사용 : 지정한 shard 에서만 조건부 UPDATE 로 차감한다. (shard lock 필요)
+     */
+    @Transactional
+    public TransactionDto useBalanceSharded(
+            Long userId, String accountNumber, Long amount, int shardIndex
+    ) {
+        AccountUser accountUser = accountUserRepository.findById(userId)
+                .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+
+        AccountMetadata metadata = getAccountMetadata(accountNumber);
+
+        validateUseRequest(amount, accountUser, metadata);
+
+        if (accountBalanceShardRepository.decreaseBalance(
+                metadata.getId(), shardIndex, amount) == 0) {
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+
+        return saveShardedTransaction(TransactionType.USE, amount, metadata);
+    }
+
+    /**
+     * shard 하나의 잔액으로 부족할 때 잔액이 많은 shard 부터 나눠서 차감한다.
+     * 모든 shard lock 을 잡은 상태에서 호출한다.
+     * 중간에 차감에 실패하면 앞서 차감한 shard 를 직접 되돌리므로, 호출한 쪽이 트랜잭션을 커밋해도(배치) 부분 차감이 남지 않는다.
+     */
+    @Transactional
+    public TransactionDto useBalanceAcrossShards(
+            Long userId, String accountNumber, Long amount
+    ) {
+        AccountUser accountUser = accountUserRepository.findById(userId)
+                .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+
+        AccountMetadata metadata = getAccountMetadata(accountNumber);
+
+        validateUseRequest(amount, accountUser, metadata);
+
+        // 다른 노드의 shard 전체 차감, 잔액 분할과 엇갈리지 않게 계좌 row 를 잠근다.
+        databaseLockService.lockIfRequired(accountNumber);
+        List<AccountBalanceShard> shards =
+                accountBalanceShardRepository.findAllByAccountIdOrderByShardIndex(metadata.getId());
+        long[] borrowed = planBorrow(shards, amount);
+
+        // shard 순서대로 변경해서 다른 요청과 DB lock 순서가 엇갈리지 않게 한다.
+        for (int i = 0; i < shards.size(); i++) {
+            if (borrowed[i] > 0 && accountBalanceShardRepository.decreaseBalance(
+                    metadata.getId(), shards.get(i).getShardIndex(), borrowed[i]) == 0) {
+                // 다른 요청이 먼저 차감했다.
+                restoreShards(metadata.getId(), shards, borrowed, i);
+                throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+            }
+        }
+
+        return saveShardedTransaction(TransactionType.USE, amount, metadata);
+    }
+
+    /**
+     * shard 별 차감 금액, 잔액이 많은 shard 부터 채운다.
+     */
+    private long[] planBorrow(List<AccountBalanceShard> shards, long amount) {
+        if (shards.stream().mapToLong(AccountBalanceShard::getBalance).sum() < amount) {
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+        List<Integer> order = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparing((Integer i) -> shards.get(i).getBalance()).reversed());
+
+        long[] borrowed = new long[shards.size()];
+        long remaining = amount;
+        for (int i : order) {
+            borrowed[i] = Math.min(remaining, shards.get(i).getBalance());
+            remaining -= borrowed[i];
+        }
+        return borrowed;
+    }
+
+    private void restoreShards(Long accountId, List<AccountBalanceShard> shards,
+                               long[] borrowed, int failedAt) {
+        for (int i = 0; i < failedAt; i++) {
+            if (borrowed[i] > 0) {
+                accountBalanceShardRepository.increaseBalance(
+                        accountId, shards.get(i).getShardIndex(), borrowed[i]);
+            }
+        }
+    }
+
+    @Transactional
+    public TransactionDto cancelBalanceSharded(
+            String transactionId, String accountNumber, Long amount, int shardIndex
+    ) {
+        TransactionDto transaction = findTransaction(transactionId);
+
+        AccountMetadata metadata = getAccountMetadata(accountNumber);
+
+        validateCancelBalance(amount, transaction);
+
+        if (accountBalanceShardRepository.increaseBalance(
+                metadata.getId(), shardIndex, amount) == 0) {
+            throw new AccountException(ErrorCode.ACCOUNT_NOT_FOUND);
+        }
+
+        return saveShardedTransaction(TransactionType.CANCEL, amount, metadata);
+    }
+
+    /**
+     * 계좌 이체 : 출금과 입금을 하나의 DB 트랜잭션에서 처리하고 출금/입금 거래를 한 쌍으로 저장한다.
+     * 두 계좌의 row 는 계좌 번호 순서로 변경해서 반대 방향 이체와 DB lock 순서가 엇갈리지 않게 한다.
+     * 계좌 lock 이 필요한 방식이면 호출하는 쪽(TransferService)에서 두 계좌의 lock 을 잡는다.
+     */
+    @Transactional
+    public Transfer.Response transfer(
+            Long userId, String fromAccountNumber, String toAccountNumber, Long amount
+    ) {
+        if (Objects.equal(fromAccountNumber, toAccountNumber)) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+
+        AccountUser accountUser = accountUserRepository.findById(userId)
+                .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+
+        AccountMetadata from = getAccountMetadata(fromAccountNumber);
+        AccountMetadata to = getAccountMetadata(toAccountNumber);
+
+        validateUseRequest(amount, accountUser, from);
+        validateDeposit(to);
+        if (from.isSharded() || to.isSharded()) {
+            // 분할 잔액 계좌는 shard 별 lock 으로 처리하므로 이체 대상에서 제외한다.
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+
+        // 계좌 번호 순서로 잠가서 반대 방향 이체와 엇갈리지 않게 한다.
+        if (fromAccountNumber.compareTo(toAccountNumber) < 0) {
+            databaseLockService.lockIfRequired(fromAccountNumber);
+            databaseLockService.lockIfRequired(toAccountNumber);
+        } else {
+            databaseLockService.lockIfRequired(toAccountNumber);
+            databaseLockService.lockIfRequired(fromAccountNumber);
+        }
+
+        if (balanceMode == BalanceMode.LEDGER) {
+            return transferLedger(amount, from, to);
+        }
+
+        if (fromAccountNumber.compareTo(toAccountNumber) < 0) {
+            withdraw(fromAccountNumber, amount);
+            deposit(toAccountNumber, amount);
+        } else {
+            deposit(toAccountNumber, amount);
+            withdraw(fromAccountNumber, amount);
+        }
+
+        return Transfer.Response.fromDto(
+                saveTransferTransaction(TransactionType.TRANSFER_OUT, amount, from),
+                saveTransferTransaction(TransactionType.TRANSFER_IN, amount, to));
+    }
+
+    private Transfer.Response transferLedger(Long amount, AccountMetadata from,
+                                             AccountMetadata to) {
+        LedgerService.Position fromPosition = ledgerService.getPosition(from.getId());
+        if (fromPosition.getBalance() < amount) {
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+        LedgerService.Position toPosition = ledgerService.getPosition(to.getId());
+
+        return Transfer.Response.fromDto(
+                appendLedger(TransactionType.TRANSFER_OUT, amount, from,
+                        fromPosition, fromPosition.getBalance() - amount),
+                appendLedger(TransactionType.TRANSFER_IN, amount, to,
+                        toPosition, toPosition.getBalance() + amount));
+    }
+
+    private void withdraw(String accountNumber, Long amount) {
+        if (accountRepository.decreaseBalance(accountNumber, amount) == 0) {
+            // 앞서 입금한 계좌도 트랜잭션 롤백으로 되돌려진다.
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+    }
+
+    private void deposit(String accountNumber, Long amount) {
+        if (accountRepository.increaseBalance(accountNumber, amount) == 0) {
+            throw new AccountException(ErrorCode.ACCOUNT_NOT_FOUND);
+        }
+    }
+
+    private TransactionDto saveTransferTransaction(TransactionType transactionType, Long amount,
+                                                   AccountMetadata metadata) {
+        return TransactionDto.fromEntity(saveAndGetTransaction(
+                transactionType,
+                TransactionResultType.S,
+                amount,
+                accountRepository.getReferenceById(metadata.getId()),
+                metadata.getAccountNumber(),
+                getCurrentBalance(metadata.getAccountNumber())), metadata.getAccountNumber());
+    }
+
+    /**
+     * 승인 : 사용 가능 잔액에서 금액을 묶어 두고 승인 내역을 저장한다. 계좌 잔액은 바뀌지 않는다.
+     */
+    @Transactional
+    public HoldDto authorizeHold(
+            Long userId, String accountNumber, Long amount, LocalDateTime expiresAt
+    ) {
+        AccountUser accountUser = accountUserRepository.findById(userId)
+                .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+
+        AccountMetadata metadata = getAccountMetadata(accountNumber);
+
+        validateUseRequest(amount, accountUser, metadata);
+        if (metadata.isSharded()) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+
+        databaseLockService.lockIfRequired(accountNumber);
+        if (accountRepository.holdBalance(accountNumber, amount) == 0) {
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+
+        BalanceHold hold = balanceHoldRepository.save(BalanceHold.builder()
+                .holdId(transactionIdGenerator.generate())
+                .account(accountRepository.getReferenceById(metadata.getId()))
+                .amount(amount)
+                .holdStatus(HoldStatus.AUTHORIZED)
+                .expiresAt(expiresAt)
+                .build());
+
+        return HoldDto.fromEntity(hold, accountNumber);
+    }
+
+    /**
+     * 매입 : 묶어 둔 금액을 풀고 매입 금액만큼 잔액을 차감한 뒤 사용 거래를 저장한다.
+     * amount 가 null 이면 승인 금액 전체를 매입한다.
+     */
+    @Transactional
+    public HoldDto captureHold(String holdId, Long amount) {
+        BalanceHold hold = getAuthorizedHold(holdId);
+        databaseLockService.lockIfRequired(hold.getAccount().getAccountNumber());
+
+        long capturedAmount = amount == null ? hold.getAmount() : amount;
+        if (capturedAmount > hold.getAmount()) {
+            throw new AccountException(ErrorCode.CAPTURE_AMOUNT_EXCEED_HOLD);
+        }
+
+        closeHold(hold, HoldStatus.CAPTURED, capturedAmount);
+
+        String accountNumber = hold.getAccount().getAccountNumber();
+        TransactionDto transaction = TransactionDto.fromEntity(saveAndGetTransaction(
+                TransactionType.USE,
+                TransactionResultType.S,
+                capturedAmount,
+                hold.getAccount(),
+                accountNumber,
+                getCurrentBalance(accountNumber)), accountNumber);
+
+        return HoldDto.fromEntity(hold, accountNumber).toBuilder()
+                .holdStatus(HoldStatus.CAPTURED)
+                .capturedAmount(capturedAmount)
+                .transactionId(transaction.getTransactionId())
+                .balanceSnapshot(transaction.getBalanceSnapshot())
+                .build();
+    }
+
+    @Transactional
+    public HoldDto voidHold(String holdId) {
+        BalanceHold hold = getAuthorizedHold(holdId);
+        databaseLockService.lockIfRequired(hold.getAccount().getAccountNumber());
+
+        closeHold(hold, HoldStatus.VOIDED, 0L);
+
+        return HoldDto.fromEntity(hold, hold.getAccount().getAccountNumber()).toBuilder()
+                .holdStatus(HoldStatus.VOIDED)
+                .capturedAmount(0L)
+                .build();
+    }
+
+    /**
+     * 만료 : 이미 매입/취소된 승인이면 아무것도 하지 않고 false 를 반환한다.
+     */
+    @Transactional
+    public boolean expireHold(Long id) {
+        BalanceHold hold = balanceHoldRepository.findById(id).orElse(null);
+        if (hold == null || hold.getHoldStatus() != HoldStatus.AUTHORIZED) {
+            return false;
+        }
+        databaseLockService.lockIfRequired(hold.getAccount().getAccountNumber());
+        if (balanceHoldRepository.close(
+                id, HoldStatus.EXPIRED, 0L, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        accountRepository.releaseHold(hold.getAccount().getId(), hold.getAmount(), 0L);
+        return true;
+    }
+
+    private BalanceHold getAuthorizedHold(String holdId) {
+        BalanceHold hold = balanceHoldRepository.findByHoldId(holdId)
+                .orElseThrow(() -> new AccountException(ErrorCode.HOLD_NOT_FOUND));
+        // 만료 시각이 지났으면 타이머가 아직 처리하지 않았더라도 닫힌 것으로 본다.
+        if (hold.getHoldStatus() != HoldStatus.AUTHORIZED
+                || !hold.getExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new AccountException(ErrorCode.HOLD_ALREADY_CLOSED);
+        }
+        return hold;
+    }
+
+    private void closeHold(BalanceHold hold, HoldStatus holdStatus, long capturedAmount) {
+        if (balanceHoldRepository.close(
+                hold.getId(), holdStatus, capturedAmount, LocalDateTime.now()) == 0) {
+            throw new AccountException(ErrorCode.HOLD_ALREADY_CLOSED);
+        }
+        accountRepository.releaseHold(hold.getAccount().getId(), hold.getAmount(), capturedAmount);
+    }
+
+    private TransactionDto saveShardedTransaction(TransactionType transactionType, Long amount,
+                                                  AccountMetadata metadata) {
+        return TransactionDto.fromEntity(saveAndGetTransaction(
+                transactionType,
+                TransactionResultType.S,
+                amount,
+                accountRepository.getReferenceById(metadata.getId()),
+                metadata.getAccountNumber(),
+                getCurrentBalance(metadata.getAccountNumber())), metadata.getAccountNumber());
+    }
+
+    private TransactionDto appendLedger(TransactionType transactionType, Long amount,
+                                        AccountMetadata metadata,
+                                        LedgerService.Position position, long balance) {
+        long sequence = position.getLastSequence() + 1;
+
+        Transaction transaction = saveAndGetTransaction(
+                transactionType,
+                TransactionResultType.S,
+                amount,
+                accountRepository.getReferenceById(metadata.getId()),
+                metadata.getAccountNumber(),
+                balance,
+                sequence);
+
+        ledgerService.appended(metadata.getId(), metadata.getAccountNumber(),
+                position, sequence, balance);
+
+        return TransactionDto.fromEntity(transaction, metadata.getAccountNumber());
+    }
+
+    private AccountMetadata getAccountMetadata(String accountNumber) {
+        return accountCache.get(accountNumber, () ->
+                        accountRepository.findByAccountNumber(accountNumber)
+                                .map(AccountMetadata::from))
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+    }
+
+    private Long getCurrentBalance(String accountNumber) {
+        // 조건부 UPDATE 이후의 값은 영속성 컨텍스트가 아니라 DB 에서 다시 읽는다.
+        return accountRepository.findBalanceByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+    }
+
     private Transaction saveAndGetTransaction(
             TransactionType transactionType,
             TransactionResultType transactionResultType,
             Long amount, Account account) {
-        return transactionRepository.save(
+        return saveAndGetTransaction(transactionType, transactionResultType,
+                amount, account, account.getAccountNumber(), account.getBalance());
+    }
+
+    /**
+     * account 는 프록시일 수 있으므로 계좌 번호는 따로 받아서 초기화 없이 DTO 를 만든다.
+     */
+    private Transaction saveAndGetTransaction(
+            TransactionType transactionType,
+            TransactionResultType transactionResultType,
+            Long amount, Account account,
+            String accountNumber, Long balanceSnapshot) {
+        return saveAndGetTransaction(transactionType, transactionResultType,
+                amount, account, accountNumber, balanceSnapshot, null);
+    }
+
+    private Transaction saveAndGetTransaction(
+            TransactionType transactionType,
+            TransactionResultType transactionResultType,
+            Long amount, Account account,
+            String accountNumber, Long balanceSnapshot, Long ledgerSequence) {
+        Transaction transaction = transactionRepository.save(
                 Transaction.builder()
                         .transactionType(transactionType)
                         .transactionResultType(transactionResultType)
                         .account(account)
                         .amount(amount)
-                        .balanceSnapshot(account.getBalance())
-                        .transactionId(UUID.randomUUID().toString().replace("-", ""))
+                        .balanceSnapshot(balanceSnapshot)
+                        .transactionId(transactionIdGenerator.generate())
                         .transactedAt(LocalDateTime.now())
+                        .ledgerSequence(ledgerSequence)
                         .build()
         );
+        if (outboxEnabled) {
+            // 거래와 같은 DB 트랜잭션에 저장한다. (OutboxRelay 가 외부로 보낸다.)
+            transactionOutboxRepository.save(TransactionOutbox.from(transaction, accountNumber));
+        }
+        transactionCache.put(TransactionDto.fromEntity(transaction, accountNumber));
+        return transaction;
     }
 
-    private void validateUseBalance(Long amount, AccountUser accountUser,
-                                    Account account) {
-        if(!Objects.equal(accountUser.getId(), account.getAccountUser().getId())) {
-            throw new AccountException(ErrorCode.USER_ACCOUNT_UNMATCH);
+    private void validateBalance(Long amount, Account account) {
+        if (account.getAvailableBalance() < amount) {
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
         }
+    }
 
-        if (!Objects.equal(account.getAccountStatus(), AccountStatus.IN_USE)) {
-            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+    /**
+     * 캐시된 계좌 정보만으로 할 수 있는 검증 (DB 조회 없음)
+     */
+    private void validateUseRequest(Long amount, AccountUser accountUser,
+                                    AccountMetadata account) {
+        if(!Objects.equal(accountUser.getId(), account.getOwnerId())) {
+            throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATHCHED);
         }
 
-        if (account.getBalance() < amount) {
-            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        if (!Objects.equal(account.getAccountStatus(), AccountStatus.IN_USE)) {
+            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
         }
 
         if (amount < minAmount) {
@@ -93,29 +628,44 @@ public class TransactionService {
         }
     }
 
+    private void validateDeposit(AccountMetadata account) {
+        if (!Objects.equal(account.getAccountStatus(), AccountStatus.IN_USE)) {
+            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+        }
+    }
+
     @Transactional
     public void saveAndFailedUseTransaction(
             TransactionType transactionType,
             TransactionResultType transactionResultType,
             String accountNumber,
             Long amount) {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        if (failedTransactionWriter.isEnabled()
+                && failedTransactionWriter.append(
+                        transactionType, transactionResultType, accountNumber, amount)) {
+            return;
+        }
+
+        AccountMetadata metadata = getAccountMetadata(accountNumber);
 
         saveAndGetTransaction(
                 transactionType,
                 transactionResultType,
                 amount,
-                account);
+                accountRepository.getReferenceById(metadata.getId()),
+                accountNumber,
+                balanceMode == BalanceMode.LEDGER
+                        ? ledgerService.getPosition(metadata.getId()).getBalance()
+                        : getCurrentBalance(accountNumber));
     }
 
     @Transactional
     public TransactionDto cancelBalance(
             String transactionId, String accountNumber, Long amount
     ) {
-        Transaction transaction = transactionRepository.findByTransactionId(transactionId)
-                .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
+        TransactionDto transaction = findTransaction(transactionId);
 
+        databaseLockService.lockIfRequired(accountNumber);
         Account account = accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
 
@@ -130,18 +680,229 @@ public class TransactionService {
                 account));
     }
 
-    private void validateCancelBalance(Long amount, Transaction transaction) {
+    private void validateCancelBalance(Long amount, TransactionDto transaction) {
+        if (transaction.getTransactionType() == TransactionType.TRANSFER_OUT
+                || transaction.getTransactionType() == TransactionType.TRANSFER_IN) {
+            // 이체는 한쪽 계좌만 되돌릴 수 없다.
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
         if(!Objects.equal(transaction.getAmount(), amount)) {
-            throw new AccountException(ErrorCode.CANCEL_AMOUNT_UNMATCH);
+            throw new AccountException(ErrorCode.CANCEL_MUST_FULLY);
+        }
+    }
+
+    /**
+     * 한 계좌의 사용/취소 요청들을 순서대로 하나의 DB 트랜잭션에서 처리한다.
+     * 실패한 요청은 실패 거래로 기록하고 나머지 요청은 계속 처리한다.
+     * AccountException 이 아닌 예외(낙관적 잠금 충돌, DB 오류 등)는 트랜잭션을 되돌린 뒤 그 요청만 빼고 다시 처리하고,
+     * 커밋할 때 실패해서 원인을 알 수 없으면 한 건씩 나눠서 처리한다. 요청 하나 때문에 배치 전체가 실패하지 않는다.
+     * 실패 거래는 다시 처리하는 동안 여러 번 남지 않도록 최종 결과가 정해진 뒤에 한 번만 기록한다.
+     */
+    public List<BalanceOperation.Result> applyBatch(List<BalanceOperation> operations) {
+        List<BalanceOperation.Result> results = applyPending(operations);
+        for (int i = 0; i < operations.size(); i++) {
+            if (!results.get(i).isSuccess()) {
+                recordFailureInNewTransaction(operations.get(i));
+            }
+        }
+        return results;
+    }
+
+    private List<BalanceOperation.Result> applyPending(List<BalanceOperation> operations) {
+        BalanceOperation.Result[] results = new BalanceOperation.Result[operations.size()];
+        List<Integer> pending = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            pending.add(i);
+        }
+
+        while (!pending.isEmpty()) {
+            List<BalanceOperation> batch = new ArrayList<>(pending.size());
+            for (int index : pending) {
+                batch.add(operations.get(index));
+            }
+            AtomicReference<List<BalanceOperation.Result>> attempted = new AtomicReference<>();
+            try {
+                newTransactionTemplate().execute(status -> {
+                    attempted.set(applyAll(batch));
+                    return null;
+                });
+                fill(results, pending, attempted.get());
+                break;
+            } catch (BatchItemException e) {
+                int index = pending.remove(e.getPosition());
+                log.error("Failed to apply batch item. Retrying the others.", e.getCause());
+                results[index] = BalanceOperation.Result.failure(toAccountException(e.getCause()));
+            } catch (RuntimeException e) {
+                if (balanceMode == BalanceMode.REDIS_LUA && attempted.get() != null) {
+                    // Redis 에는 이미 반영됐으므로 다시 처리하지 않고 그 결과를 그대로 쓴다.
+                    log.error("Failed to commit batch applied on redis.", e);
+                    fill(results, pending, attempted.get());
+                    break;
+                }
+                if (pending.size() == 1) {
+                    results[pending.get(0)] = BalanceOperation.Result.failure(toAccountException(e));
+                    break;
+                }
+                log.error("Failed to commit batch. Applying {} operations one by one.",
+                        pending.size(), e);
+                for (int index : pending) {
+                    results[index] = applyPending(List.of(operations.get(index))).get(0);
+                }
+                break;
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
+    private static void fill(BalanceOperation.Result[] results, List<Integer> pending,
+                             List<BalanceOperation.Result> applied) {
+        for (int i = 0; i < pending.size(); i++) {
+            results[pending.get(i)] = applied.get(i);
+        }
+    }
+
+    private List<BalanceOperation.Result> applyAll(List<BalanceOperation> operations) {
+        List<BalanceOperation.Result> results = new ArrayList<>(operations.size());
+        Set<String> shardLocked = new HashSet<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            BalanceOperation operation = operations.get(i);
+            try {
+                results.add(BalanceOperation.Result.success(apply(operation, shardLocked)));
+            } catch (AccountException e) {
+                results.add(BalanceOperation.Result.failure(e));
+            } catch (RuntimeException e) {
+                if (balanceMode == BalanceMode.REDIS_LUA) {
+                    // Redis 에 반영된 앞의 요청은 되돌릴 수 없으므로 다시 처리하지 않는다.
+                    log.error("Failed to apply batch item.", e);
+                    results.add(BalanceOperation.Result.failure(toAccountException(e)));
+                    continue;
+                }
+                throw new BatchItemException(i, e);
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * 배치 트랜잭션 밖에서 실패 거래를 요청마다 따로 기록한다.
+     */
+    private void recordFailureInNewTransaction(BalanceOperation operation) {
+        try {
+            newTransactionTemplate().executeWithoutResult(status -> recordFailure(operation));
+        } catch (RuntimeException recordError) {
+            log.error("Failed to record failed transaction.", recordError);
+        }
+    }
+
+    private static AccountException toAccountException(RuntimeException e) {
+        if (e instanceof OptimisticLockingFailureException) {
+            return new AccountException(ErrorCode.LOCK_TIMEOUT);
+        }
+        return new AccountException(ErrorCode.INTERNAL_SERVER_ERROR);
+    }
+
+    private TransactionTemplate newTransactionTemplate() {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    private TransactionDto apply(BalanceOperation operation, Set<String> shardLocked) {
+        if (balanceMode == BalanceMode.REDIS_LUA) {
+            return operation.getTransactionType() == TransactionType.CANCEL
+                    ? redisBalanceEngine.cancelBalance(operation.getTransactionId(),
+                            operation.getAccountNumber(), operation.getAmount())
+                    : redisBalanceEngine.useBalance(operation.getUserId(),
+                            operation.getAccountNumber(), operation.getAmount());
+        }
+
+        AccountMetadata metadata = getAccountMetadata(operation.getAccountNumber());
+        if (metadata.isSharded()) {
+            // 계좌 lock 은 shard lock 을 쓰는 요청(ShardedBalanceService)을 막지 못한다.
+            if (shardLocked.add(metadata.getAccountNumber())) {
+                lockShardsUntilCompletion(metadata);
+            }
+            return operation.getTransactionType() == TransactionType.CANCEL
+                    ? cancelBalanceSharded(operation.getTransactionId(),
+                            operation.getAccountNumber(), operation.getAmount(),
+                            ThreadLocalRandom.current().nextInt(metadata.getShardCount()))
+                    : useBalanceAcrossShards(operation.getUserId(),
+                            operation.getAccountNumber(), operation.getAmount());
+        }
+
+        boolean ledger = balanceMode == BalanceMode.LEDGER;
+        if (operation.getTransactionType() == TransactionType.CANCEL) {
+            return ledger
+                    ? cancelBalanceLedger(operation.getTransactionId(),
+                            operation.getAccountNumber(), operation.getAmount())
+                    : cancelBalance(operation.getTransactionId(),
+                            operation.getAccountNumber(), operation.getAmount());
+        }
+        return ledger
+                ? useBalanceLedger(operation.getUserId(),
+                        operation.getAccountNumber(), operation.getAmount())
+                : useBalance(operation.getUserId(),
+                        operation.getAccountNumber(), operation.getAmount());
+    }
+
+    /**
+     * 모든 shard lock 을 한 번에 잡고 배치 트랜잭션이 끝날 때 푼다.
+     */
+    private void lockShardsUntilCompletion(AccountMetadata metadata) {
+        List<String> lockNames = ShardedBalanceService.getShardLockNames(
+                metadata.getAccountNumber(), metadata.getShardCount());
+        lockService.lockAll(lockNames);
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        lockService.unlockAll(lockNames);
+                    }
+                });
+    }
+
+    private void recordFailure(BalanceOperation operation) {
+        try {
+            saveAndFailedUseTransaction(
+                    operation.getTransactionType(),
+                    TransactionResultType.F,
+                    operation.getAccountNumber(),
+                    operation.getAmount());
+        } catch (AccountException e) {
+            log.error("Failed to record failed transaction. {}", e.getErrorCode());
         }
     }
 
     @Transactional
     public TransactionDto queryTransactionId(String transactionId) {
-        return TransactionDto.fromEntity(
-                transactionRepository.findByTransactionId(transactionId)
-                        .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND))
-        );
+        return findTransaction(transactionId);
     }
 
-}
\ No newline at end of file
+    private TransactionDto findTransaction(String transactionId) {
+        return transactionCache.get(transactionId, () ->
+                        transactionRepository.findDtoByTransactionId(transactionId))
+                .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
+    }
+
+    /**
+     * 배치에서 AccountException 이 아닌 예외가 난 요청의 위치
+     */
+    private static class BatchItemException extends RuntimeException {
+        private final int position;
+
+        private BatchItemException(int position, RuntimeException cause) {
+            super(cause);
+            this.position = position;
+        }
+
+        private int getPosition() {
+            return position;
+        }
+
+        @Override
+        public synchronized RuntimeException getCause() {
+            return (RuntimeException) super.getCause();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.account.service;
+
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import com.example.account.dto.Transfer;
+import com.example.account.exception.AccountException;
+import com.example.account.type.BalanceMode;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 계좌 이체 요청 처리
+ * 계좌 lock 이 필요한 방식(LOCK, LEDGER)이면 두 계좌의 lock 을 계좌 번호 순서로 한 번에 잡는다.
+ * 그 밖의 방식은 조건부 UPDATE 를 계좌 번호 순서로 실행하는 것으로 충분하다. (TransactionService.transfer)
+ */
+@Slf4j
+@Service
+public class TransferService {
+    private final TransactionService transactionService;
+    private final LockService lockService;
+    private final DatabaseLockService databaseLockService;
+    private final AccountLockPolicy accountLockPolicy;
+    private final BalanceMode balanceMode;
+
+    public TransferService(
+            TransactionService transactionService,
+            LockService lockService,
+            DatabaseLockService databaseLockService,
+            AccountLockPolicy accountLockPolicy,
+            BalanceMode balanceMode) {
+        this.transactionService = transactionService;
+        this.lockService = lockService;
+        this.databaseLockService = databaseLockService;
+        this.accountLockPolicy = accountLockPolicy;
+        this.balanceMode = balanceMode;
+    }
+
+    /**
+     * 실패하면 출금 계좌에 실패 거래를 남긴다.
+     * lock 을 잡은 스레드에서 끝까지 실행되어야 하므로 비동기 실행기 안에서 호출한다.
+     */
+    public Transfer.Response transfer(Transfer.Request request) {
+        try {
+            return transfer(request.getUserId(), request.getFromAccountNumber(),
+                    request.getToAccountNumber(), request.getAmount());
+        } catch (AccountException e) {
+            log.error("Failed to transfer. ");
+
+            transactionService.saveAndFailedUseTransaction(
+                    TransactionType.TRANSFER_OUT,
+                    TransactionResultType.F,
+                    request.getFromAccountNumber(),
+                    request.getAmount());
+            throw e;
+        }
+    }
+
+    public Transfer.Response transfer(Long userId, String fromAccountNumber,
+                                      String toAccountNumber, Long amount) {
+        if (!balanceMode.supportsTransfer()) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+
+        if (accountLockPolicy.isLockDelegated(fromAccountNumber)
+                && accountLockPolicy.isLockDelegated(toAccountNumber)) {
+            return transactionService.transfer(userId, fromAccountNumber, toAccountNumber, amount);
+        }
+
+        List<String> accountNumbers = List.of(fromAccountNumber, toAccountNumber);
+        lockService.lockAll(accountNumbers);
+        try {
+            return databaseLockService.executeIfRequired(() -> transactionService.transfer(
+                    userId, fromAccountNumber, toAccountNumber, amount));
+        } finally {
+            lockService.unlockAll(accountNumbers);
+        }
+    }
+}
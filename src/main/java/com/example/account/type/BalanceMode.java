@@ -0,0 +1,49 @@
+package com.example.account.type;
+
+/**
+ * 잔액 변경 방식 (account.balance.mode), BalanceService 참고
+ * 방식마다 지원하는 기능은 여기에서만 정한다.
+ */
+public enum BalanceMode {
+    LOCK,
+    OPTIMISTIC,
+    ATOMIC_SQL,
+    LEDGER,
+    REDIS_LUA;
+
+    /**
+     * 잔액의 기준이 Account.balance 인지 (LEDGER 는 원장 거래, REDIS_LUA 는 Redis hash 가 기준)
+     */
+    public boolean usesAccountRow() {
+        return this != LEDGER && this != REDIS_LUA;
+    }
+
+    /**
+     * 승인 금액은 Account.heldAmount 에 묶으므로 잔액이 Account row 에 있어야 한다.
+     */
+    public boolean supportsHolds() {
+        return usesAccountRow();
+    }
+
+    /**
+     * 분할 잔액은 Account.balance 를 shard row 로 나누므로 잔액이 Account row 에 있어야 한다.
+     */
+    public boolean supportsSharding() {
+        return usesAccountRow();
+    }
+
+    /**
+     * 잔액이 Redis 에 있는 방식은 두 계좌를 한 번에 바꾸는 스크립트가 없다.
+     */
+    public boolean supportsTransfer() {
+        return this != REDIS_LUA;
+    }
+
+    /**
+     * 잔액을 바꾸기 전에 계좌 lock(@AccountLock) 이 필요한지
+     * 낙관적 잠금, 조건부 UPDATE, Redis Lua 방식은 외부 lock 이 필요 없다.
+     */
+    public boolean requiresAccountLock() {
+        return this == LOCK || this == LEDGER;
+    }
+}
@@ -16,9 +16,18 @@ public enum ErrorCode {
     CANCEL_MUST_FULLY("부분 취소는 허용되지 않습니다."),
     TOO_OLD_ORDER_TO_CANCLE("1년이 지난 거래는 취소가 불가능합니다."),
     USER_ACCOUNT_UN_MATHCHED("사용자와 계좌의 소유주가 다릅니다."),
+    AMOUNT_TOO_SMALL("거래 금액이 너무 작습니다."),
+    AMOUNT_TOO_BIG("거래 금액이 너무 큽니다."),
     ACCOUNT_ALREADY_UNREGISTERED("계좌가 이미 해지되었습니다."),
     BALANCE_NOT_EMPTY("잔액이 있는 계좌는 해지할 수 없습니다."),
-    MAX_ACCOUNT_PER_USER_10("사용자 최대 계좌는 10개입니다.")
+    MAX_ACCOUNT_PER_USER_10("사용자 최대 계좌는 10개입니다."),
+    LOCK_TIMEOUT("해당 계좌는 사용 중입니다. 잠시 후 다시 시도해주세요."),
+    LOCK_UNAVAILABLE("계좌 lock 서버에 연결할 수 없습니다. 잠시 후 다시 시도해주세요."),
+    BALANCE_HISTORY_NOT_FOUND("해당 시점의 잔액 기록이 없습니다."),
+    REQUEST_IN_PROGRESS("같은 요청을 처리하고 있습니다. 잠시 후 다시 시도해주세요."),
+    HOLD_NOT_FOUND("해당 승인 내역이 없습니다."),
+    HOLD_ALREADY_CLOSED("이미 매입, 취소 또는 만료된 승인입니다."),
+    CAPTURE_AMOUNT_EXCEED_HOLD("매입 금액이 승인 금액보다 큽니다.")
     ;
 
     private String description;
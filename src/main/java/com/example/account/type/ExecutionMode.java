@@ -0,0 +1,6 @@
+package com.example.account.type;
+
+public enum ExecutionMode {
+    PLATFORM,
+    VIRTUAL
+}
\ No newline at end of file
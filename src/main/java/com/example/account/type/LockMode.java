@@ -0,0 +1,8 @@
+package com.example.account.type;
+
+public enum LockMode {
+    REDIS,
+    LOCAL,
+    TWO_LEVEL,
+    DATABASE
+}
\ No newline at end of file
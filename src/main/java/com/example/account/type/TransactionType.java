@@ -1,5 +1,5 @@
 package com.example.account.type;
 
 public enum TransactionType {
-    USE, CANCEL
-}
\ No newline at end of file
+    USE, CANCEL, TRANSFER_OUT, TRANSFER_IN
+}
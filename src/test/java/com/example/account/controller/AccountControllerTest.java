@@ -1,8 +1,9 @@
 package com.example.account.controller;
 
-import com.example.account.domain.Account;
 import com.example.account.service.AccountService;
+import com.example.account.service.AccountServiceTest;
 import com.example.account.service.RedisTestService;
+import com.example.account.service.ShardedBalanceService;
 import com.example.account.type.AccountStatus;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,9 +32,15 @@ class AccountControllerTest {
     @MockBean
     private AccountService accountService;
 
+    @MockBean
+    private AccountServiceTest accountServiceTest;
+
     @MockBean
     private RedisTestService redisTestService;
 
+    @MockBean
+    private ShardedBalanceService shardedBalanceService;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -69,9 +76,11 @@ class AccountControllerTest {
     @Test
     void successGetAccount() throws Exception {
         //given
-        given(accountService.getAccount(anyLong()))
-                .willReturn(Account.builder()
+        given(accountServiceTest.getAccount(anyLong()))
+                .willReturn(AccountDto.builder()
+                        .userId(1L)
                         .accountNumber("3456")
+                        .balance(1000L)
                         .accountStatus(AccountStatus.IN_USE)
                         .build());
 
@@ -79,8 +88,11 @@ class AccountControllerTest {
         //then
         mockMvc.perform(get("/account/876"))
                 .andDo(print())
+                .andExpect(jsonPath("$.userId").value(1))
                 .andExpect(jsonPath("$.accountNumber").value("3456"))
+                .andExpect(jsonPath("$.balance").value(1000))
                 .andExpect(jsonPath("$.accountStatus").value("IN_USE"))
+                .andExpect(jsonPath("$.accountUser").doesNotExist())
                 .andExpect(status().isOk());
     }
 
@@ -0,0 +1,165 @@
+package com.example.account.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountUser;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.AccountDto;
+import com.example.account.dto.TransactionDto;
+import com.example.account.service.TransactionIdGenerator;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 조회 API 별 SQL 실행 수 / 엔티티 로딩 수 비교 리포트
+ * before : 엔티티를 조회해서 연관 엔티티까지 DTO 로 변환 (기존 EAGER 매핑과 같은 로딩)
+ * after  : 응답에 필요한 컬럼만 조회하는 projection 쿼리
+ */
+@Slf4j
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@DisplayName("조회 쿼리 통계 리포트")
+class QueryStatisticsReportTest {
+    private static final int ACCOUNT_COUNT = 10;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private AccountUser accountUser;
+    private String transactionId;
+
+    @BeforeEach
+    void setUp() {
+        accountUser = entityManager.persist(new AccountUser());
+
+        Account first = null;
+        for (int i = 0; i < ACCOUNT_COUNT; i++) {
+            Account account = entityManager.persist(Account.builder()
+                    .accountUser(accountUser)
+                    .accountNumber(String.valueOf(1_000_000_000L + i))
+                    .accountStatus(AccountStatus.IN_USE)
+                    .balance(10_000L)
+                    .registeredAt(LocalDateTime.now())
+                    .build());
+            if (first == null) {
+                first = account;
+            }
+        }
+
+        transactionId = new TransactionIdGenerator(1).generate();
+        entityManager.persist(Transaction.builder()
+                .account(first)
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .amount(1_000L)
+                .balanceSnapshot(9_000L)
+                .transactionId(transactionId)
+                .transactedAt(LocalDateTime.now())
+                .build());
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("GET /account - 계좌 목록")
+    void getAccounts() {
+        Result before = measure(() -> {
+            List<Account> accounts = entityManager.getEntityManager()
+                    .createQuery("select a from Account a where a.accountUser.id = :userId",
+                            Account.class)
+                    .setParameter("userId", accountUser.getId())
+                    .getResultList();
+            accounts.forEach(account -> Hibernate.initialize(account.getAccountUser()));
+            return accounts.stream()
+                    .map(AccountDto::fromEntity)
+                    .collect(Collectors.toList());
+        });
+        Result after = measure(() ->
+                accountRepository.findAccountDtosByUserId(accountUser.getId()));
+
+        report("GET /account", before, after);
+        assertEquals(1, after.statements);
+        assertEquals(0, after.entities);
+        assertTrue(after.statements <= before.statements);
+    }
+
+    @Test
+    @DisplayName("GET /transaction/{id} - 거래 확인")
+    void queryTransaction() {
+        Result before = measure(() -> {
+            Transaction transaction = transactionRepository.findByTransactionId(transactionId)
+                    .orElseThrow(IllegalStateException::new);
+            Hibernate.initialize(transaction.getAccount());
+            Hibernate.initialize(transaction.getAccount().getAccountUser());
+            return TransactionDto.fromEntity(transaction);
+        });
+        Result after = measure(() ->
+                transactionRepository.findDtoByTransactionId(transactionId)
+                        .orElseThrow(IllegalStateException::new));
+
+        report("GET /transaction/{id}", before, after);
+        assertEquals(1, after.statements);
+        assertEquals(0, after.entities);
+        assertTrue(after.statements < before.statements);
+    }
+
+    private Result measure(Supplier<?> query) {
+        entityManager.clear();
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        query.get();
+
+        return new Result(statistics.getPrepareStatementCount(),
+                statistics.getEntityLoadCount());
+    }
+
+    private void report(String endpoint, Result before, Result after) {
+        log.info("[{}] before : {} statements, {} entities / after : {} statements, {} entities",
+                endpoint, before.statements, before.entities, after.statements, after.entities);
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+    }
+
+    private static class Result {
+        private final long statements;
+        private final long entities;
+
+        private Result(long statements, long entities) {
+            this.statements = statements;
+            this.entities = entities;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.account.dto.AccountMetadata;
+import com.example.account.type.AccountStatus;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("계좌 정보 캐시 테스트")
+class AccountCacheTest {
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RTopic topic;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("두 번째 조회는 캐시에서")
+    void get_cached() {
+        // given
+        AccountCache accountCache = new AccountCache(100, false, null);
+        AtomicInteger loads = new AtomicInteger();
+
+        // when
+        accountCache.get("1000000000", () -> load(loads));
+        Optional<AccountMetadata> cached = accountCache.get("1000000000", () -> load(loads));
+
+        // then
+        assertEquals(1, loads.get());
+        assertEquals(AccountStatus.IN_USE, cached.get().getAccountStatus());
+    }
+
+    @Test
+    @DisplayName("없는 계좌는 캐시하지 않음")
+    void get_notFoundNotCached() {
+        // given
+        AccountCache accountCache = new AccountCache(100, false, null);
+        AtomicInteger loads = new AtomicInteger();
+
+        // when
+        accountCache.get("1000000000", () -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        accountCache.get("1000000000", () -> load(loads));
+
+        // then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("트랜잭션 안에서 무효화 - 커밋 후에 한 번 더 지우고 다른 노드에 알림")
+    void invalidate_afterCommit() {
+        // given
+        AccountCache accountCache = new AccountCache(100, true, redissonClient);
+        given(redissonClient.getTopic(anyString(), any())).willReturn(topic);
+        AtomicInteger loads = new AtomicInteger();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        accountCache.invalidate("1000000000");
+        // 커밋 전에 다른 요청이 옛 값을 다시 넣는다.
+        accountCache.get("1000000000", () -> load(loads));
+        verify(topic, never()).publish(any());
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+        accountCache.get("1000000000", () -> load(loads));
+
+        // then
+        assertEquals(2, loads.get());
+        verify(topic, times(1)).publish("1000000000");
+    }
+
+    @Test
+    @DisplayName("무효화를 끄면 다른 노드에 알리지 않음")
+    void invalidate_disabled() {
+        // given
+        AccountCache accountCache = new AccountCache(100, false, redissonClient);
+
+        // when
+        accountCache.invalidate("1000000000");
+
+        // then
+        verify(redissonClient, never()).getTopic(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("다른 노드의 무효화 알림을 받으면 캐시에서 지움")
+    @SuppressWarnings("unchecked")
+    void subscribe_invalidatedByOtherNode() {
+        // given
+        AccountCache accountCache = new AccountCache(100, true, redissonClient);
+        given(redissonClient.getTopic(anyString(), any())).willReturn(topic);
+        ArgumentCaptor<MessageListener<String>> captor =
+                ArgumentCaptor.forClass(MessageListener.class);
+        AtomicInteger loads = new AtomicInteger();
+        accountCache.subscribe();
+        verify(topic).addListener(eq(String.class), captor.capture());
+        accountCache.get("1000000000", () -> load(loads));
+
+        // when
+        captor.getValue().onMessage("ACCOUNT:INVALIDATE", "1000000000");
+        accountCache.get("1000000000", () -> load(loads));
+
+        // then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("구독에 실패해도 시작을 막지 않음")
+    void subscribe_redisUnavailable() {
+        // given
+        AccountCache accountCache = new AccountCache(100, true, redissonClient);
+        given(redissonClient.getTopic(anyString(), any()))
+                .willThrow(new IllegalStateException("redis unavailable"));
+
+        // when
+        // then
+        assertDoesNotThrow(accountCache::subscribe);
+    }
+
+    private Optional<AccountMetadata> load(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return Optional.of(AccountMetadata.builder()
+                .id(1L)
+                .accountNumber("1000000000")
+                .ownerId(1L)
+                .accountStatus(AccountStatus.IN_USE)
+                .build());
+    }
+}
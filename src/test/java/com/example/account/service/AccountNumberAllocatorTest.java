@@ -0,0 +1,126 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RedissonClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.account.domain.Account;
+import com.example.account.repository.AccountRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("계좌 번호 발급 테스트")
+class AccountNumberAllocatorTest {
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RAtomicLong sequence;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @InjectMocks
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @Test
+    @DisplayName("첫 발급 - DB 의 마지막 계좌 번호 다음부터 발급")
+    void nextAccountNumber_seedFromDatabase() {
+        // given
+        given(redissonClient.getAtomicLong(anyString()))
+                .willReturn(sequence);
+        given(sequence.get())
+                .willReturn(0L);
+        given(accountRepository.findFirstByOrderByIdDesc())
+                .willReturn(Optional.of(Account.builder()
+                        .accountNumber("1000000012").build()));
+        given(sequence.addAndGet(anyLong()))
+                .willReturn(1_000_000_112L);
+
+        // when
+        String accountNumber = accountNumberAllocator.nextAccountNumber();
+
+        // then
+        verify(sequence, times(1)).compareAndSet(0L, 1_000_000_012L);
+        assertEquals("1000000013", accountNumber);
+    }
+
+    @Test
+    @DisplayName("블록 안에서는 Redis 호출 없이 발급")
+    void nextAccountNumber_withinBlock() {
+        // given
+        given(redissonClient.getAtomicLong(anyString()))
+                .willReturn(sequence);
+        given(sequence.get())
+                .willReturn(1_000_000_100L);
+        given(sequence.addAndGet(anyLong()))
+                .willReturn(1_000_000_200L);
+
+        // when
+        String first = accountNumberAllocator.nextAccountNumber();
+        String second = accountNumberAllocator.nextAccountNumber();
+
+        // then
+        verify(sequence, times(1)).addAndGet(anyLong());
+        assertEquals("1000000101", first);
+        assertEquals("1000000102", second);
+        assertEquals(98L, accountNumberAllocator.getRemainingInBlock());
+    }
+
+    @Test
+    @DisplayName("블록 소진 - 새 블록 임대")
+    void nextAccountNumber_leaseNextBlock() {
+        // given
+        given(redissonClient.getAtomicLong(anyString()))
+                .willReturn(sequence);
+        given(sequence.get())
+                .willReturn(1_000_000_100L);
+        given(sequence.addAndGet(anyLong()))
+                .willReturn(1_000_000_200L, 1_000_000_500L);
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            accountNumberAllocator.nextAccountNumber();
+        }
+        String accountNumber = accountNumberAllocator.nextAccountNumber();
+
+        // then
+        verify(sequence, times(2)).addAndGet(anyLong());
+        assertEquals("1000000401", accountNumber);
+        assertEquals(2L, accountNumberAllocator.getLeasedBlocks());
+    }
+
+    @Test
+    @DisplayName("Redis 미사용 - JVM 안의 순번으로 발급")
+    void nextAccountNumber_withoutRedis() {
+        // given
+        ReflectionTestUtils.setField(accountNumberAllocator, "redisEnabled", false);
+        given(accountRepository.findFirstByOrderByIdDesc())
+                .willReturn(Optional.of(Account.builder()
+                        .accountNumber("1000000012").build()));
+
+        // when
+        String first = accountNumberAllocator.nextAccountNumber();
+        String second = accountNumberAllocator.nextAccountNumber();
+
+        // then
+        verify(redissonClient, never()).getAtomicLong(anyString());
+        assertEquals("1000000013", first);
+        assertEquals("1000000014", second);
+    }
+}
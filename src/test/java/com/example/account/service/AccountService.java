@@ -1,6 +1,6 @@
 package com.example.account.service;
 
-import com.example.account.domain.Account;
+import com.example.account.dto.AccountDto;
 import com.example.account.type.AccountStatus;
 import com.example.account.repository.AccountRepository;
 import org.junit.jupiter.api.DisplayName;
@@ -32,17 +32,17 @@ class AccountServiceTest {
     @DisplayName("계좌 조회 성공")
     void testXXX() {
         //given
-        given(accountRepository.findById(anyLong()))
-                .willReturn(Optional.of(Account.builder()
+        given(accountRepository.findAccountDtoById(anyLong()))
+                .willReturn(Optional.of(AccountDto.builder()
                         .accountStatus(AccountStatus.UNREGISTERED)
                         .accountNumber("65789").build()));
         ArgumentCaptor<Long> captor = ArgumentCaptor.forClass(Long.class);
 
         //when
-        Account account = accountService.getAccount(4555L);
+        AccountDto account = accountService.getAccount(4555L);
 
         //then
-        verify(accountRepository, times(1)).findById(captor.capture());
+        verify(accountRepository, times(1)).findAccountDtoById(captor.capture());
         verify(accountRepository, times(0)).save(any());
         assertEquals(4555L, captor.getValue());
         assertNotEquals(45515L, captor.getValue());
@@ -66,13 +66,13 @@ class AccountServiceTest {
     @DisplayName("Test 이름 변경")
     void testGetAccount() {
         //given
-        given(accountRepository.findById(anyLong()))
-                .willReturn(Optional.of(Account.builder()
+        given(accountRepository.findAccountDtoById(anyLong()))
+                .willReturn(Optional.of(AccountDto.builder()
                         .accountStatus(AccountStatus.UNREGISTERED)
                         .accountNumber("65789").build()));
 
         //when
-        Account account = accountService.getAccount(4555L);
+        AccountDto account = accountService.getAccount(4555L);
 
         //then
         assertEquals("65789", account.getAccountNumber());
@@ -82,13 +82,13 @@ class AccountServiceTest {
     @Test
     void testGetAccount2() {
         //given
-        given(accountRepository.findById(anyLong()))
-                .willReturn(Optional.of(Account.builder()
+        given(accountRepository.findAccountDtoById(anyLong()))
+                .willReturn(Optional.of(AccountDto.builder()
                         .accountStatus(AccountStatus.UNREGISTERED)
                         .accountNumber("65789").build()));
 
         //when
-        Account account = accountService.getAccount(4555L);
+        AccountDto account = accountService.getAccount(4555L);
 
         //then
         assertEquals("65789", account.getAccountNumber());
@@ -5,8 +5,10 @@ import com.example.account.domain.AccountStatus;
 import com.example.account.domain.AccountUser;
 import com.example.account.dto.AccountDto;
 import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountBalanceShardRepository;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
+import com.example.account.type.BalanceMode;
 import com.example.account.type.ErrorCode;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,6 +17,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Optional;
 
@@ -33,6 +36,24 @@ class AccountServiceTest {
     @Mock
     private AccountUserRepository accountUserRepository;
 
+    @Mock
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @Mock
+    private AccountCache accountCache;
+
+    @Mock
+    private AccountBalanceShardRepository accountBalanceShardRepository;
+
+    @Mock
+    private RedisBalanceEngine redisBalanceEngine;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private LockService lockService;
+
     @InjectMocks
     private AccountService accountService;
 
@@ -44,9 +65,8 @@ class AccountServiceTest {
                 .name("Pobi").build();
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(user));
-        given(accountRepository.findFirstByOrderByIdDesc())
-                .willReturn(Optional.of(Account.builder()
-                        .accountNumber("1000000012").build()));
+        given(accountNumberAllocator.nextAccountNumber())
+                .willReturn("1000000013");
         given(accountRepository.save(any()))
                 .willReturn(Account.builder()
                         .accountUser(user)
@@ -71,8 +91,8 @@ class AccountServiceTest {
                 .name("Pobi").build();
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(user));
-        given(accountRepository.findFirstByOrderByIdDesc())
-                .willReturn(Optional.empty());
+        given(accountNumberAllocator.nextAccountNumber())
+                .willReturn("1000000000");
         given(accountRepository.save(any()))
                 .willReturn(Account.builder()
                         .accountUser(user)
@@ -93,7 +113,7 @@ class AccountServiceTest {
     @DisplayName("해당 유저 없음 - 계좌 생성 실패")
     void createAccount_UserNotFound() {
         //given
-        given(accountRepository.findFirstByOrderByIdDesc())
+        given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.empty());
 
         //when
@@ -111,6 +131,42 @@ class AccountServiceTest {
         //when
         //then
     }
-}
 
+    @Test
+    @DisplayName("원장 모드 계좌 해지 - 스냅샷 이후 쌓인 원장 잔액이 있으면 실패")
+    void deleteAccount_ledgerBalanceNotEmpty() {
+        //given
+        AccountService ledgerAccountService = new AccountService(accountRepository,
+                accountUserRepository, accountNumberAllocator, accountCache,
+                accountBalanceShardRepository, redisBalanceEngine, ledgerService, lockService,
+                BalanceMode.LEDGER);
+        AccountUser user = AccountUser.builder()
+                .name("Pobi").build();
+        user.setId(12L);
+        Account account = Account.builder()
+                .accountUser(user)
+                .accountStatus(com.example.account.type.AccountStatus.IN_USE)
+                .balance(0L)
+                .accountNumber("1000000012").build();
+        account.setId(1L);
+        given(accountUserRepository.findById(12L))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber("1000000012"))
+                .willReturn(Optional.of(account));
+        given(ledgerService.getPosition(1L))
+                .willReturn(new LedgerService.Position(3L, 1000L, 0L));
 
+        //when
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            AccountException exception = assertThrows(AccountException.class,
+                    () -> ledgerAccountService.deleteAccount(12L, "1000000012"));
+
+            //then
+            assertEquals(ErrorCode.BALANCE_NOT_EMPTY, exception.getErrorCode());
+            verify(lockService, times(1)).lock("1000000012");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
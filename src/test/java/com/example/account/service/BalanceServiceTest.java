@@ -0,0 +1,133 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import com.example.account.domain.Account;
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.type.BalanceMode;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("잔액 변경 방식 테스트")
+class BalanceServiceTest {
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private ShardedBalanceService shardedBalanceService;
+
+    @Mock
+    private RedisBalanceEngine redisBalanceEngine;
+
+    @Test
+    @DisplayName("낙관적 잠금 - 충돌 후 재시도 성공")
+    void useBalance_optimisticRetry() {
+        // given
+        BalanceService balanceService =
+                new BalanceService(transactionService, shardedBalanceService,
+                        redisBalanceEngine, BalanceMode.OPTIMISTIC, 3, 0L);
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willThrow(new ObjectOptimisticLockingFailureException(Account.class, 1L))
+                .willReturn(TransactionDto.builder()
+                        .transactionId("transactionId")
+                        .build());
+
+        // when
+        TransactionDto transactionDto =
+                balanceService.useBalance(1L, "1000000000", 1000L);
+
+        // then
+        verify(transactionService, times(2)).useBalance(1L, "1000000000", 1000L);
+        assertEquals("transactionId", transactionDto.getTransactionId());
+    }
+
+    @Test
+    @DisplayName("낙관적 잠금 - 재시도 횟수 초과")
+    void useBalance_optimisticRetryExhausted() {
+        // given
+        BalanceService balanceService =
+                new BalanceService(transactionService, shardedBalanceService,
+                        redisBalanceEngine, BalanceMode.OPTIMISTIC, 3, 0L);
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willThrow(new ObjectOptimisticLockingFailureException(Account.class, 1L));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> balanceService.useBalance(1L, "1000000000", 1000L));
+
+        // then
+        verify(transactionService, times(3)).useBalance(1L, "1000000000", 1000L);
+        assertEquals(ErrorCode.LOCK_TIMEOUT, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("조건부 UPDATE - 원자적 차감 경로 사용")
+    void useBalance_atomicSql() {
+        // given
+        BalanceService balanceService =
+                new BalanceService(transactionService, shardedBalanceService,
+                        redisBalanceEngine, BalanceMode.ATOMIC_SQL, 3, 0L);
+
+        // when
+        balanceService.useBalance(1L, "1000000000", 1000L);
+
+        // then
+        verify(transactionService, times(1)).useBalanceAtomically(1L, "1000000000", 1000L);
+        verify(transactionService, never()).useBalance(anyLong(), anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("잔액 사용 실패 - 실패 거래 저장")
+    void useBalance_failedTransactionSaved() {
+        // given
+        BalanceService balanceService =
+                new BalanceService(transactionService, shardedBalanceService,
+                        redisBalanceEngine, BalanceMode.LOCK, 3, 0L);
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willThrow(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> balanceService.useBalance(
+                        new UseBalance.Request(1L, "1000000000", 1000L)));
+
+        // then
+        verify(transactionService, times(1)).saveAndFailedUseTransaction(
+                TransactionType.USE, TransactionResultType.F, "1000000000", 1000L);
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("분할 잔액 계좌 - shard 처리로 위임")
+    void useBalance_sharded() {
+        // given
+        BalanceService balanceService = new BalanceService(
+                transactionService, shardedBalanceService, redisBalanceEngine,
+                BalanceMode.LOCK, 3, 0L);
+        given(shardedBalanceService.isSharded("1000000000")).willReturn(true);
+
+        // when
+        balanceService.useBalance(1L, "1000000000", 1000L);
+
+        // then
+        verify(shardedBalanceService, times(1)).useBalance(1L, "1000000000", 1000L);
+        verify(transactionService, never()).useBalance(anyLong(), anyString(), anyLong());
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.account.dto.BalanceOperation;
+import com.example.account.dto.BatchTransaction;
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("일괄 거래 처리 테스트")
+class BatchTransactionServiceTest {
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private LockService lockService;
+
+    private BatchTransactionService batchTransactionService;
+
+    @BeforeEach
+    void setUp() {
+        batchTransactionService =
+                new BatchTransactionService(transactionService, lockService,
+                        new DatabaseLockService(null, null, lockService), Runnable::run);
+    }
+
+    @Test
+    @DisplayName("계좌별로 lock 한 번, 결과는 요청 순서대로")
+    void apply_groupedByAccount() {
+        // given
+        given(transactionService.applyBatch(anyList()))
+                .willAnswer(invocation -> {
+                    List<BalanceOperation> operations = invocation.getArgument(0);
+                    return operations.stream()
+                            .map(operation -> BalanceOperation.Result.success(
+                                    TransactionDto.builder()
+                                            .accountNumber(operation.getAccountNumber())
+                                            .transactionResultType(TransactionResultType.S)
+                                            .amount(operation.getAmount())
+                                            .build()))
+                            .collect(Collectors.toList());
+                });
+
+        // when
+        List<BatchTransaction.Result> results = batchTransactionService.apply(List.of(
+                use("1000000000", 100L),
+                use("1000000001", 200L),
+                use("1000000000", 300L))).join();
+
+        // then
+        verify(lockService, times(1)).lock("1000000000");
+        verify(lockService, times(1)).lock("1000000001");
+        verify(transactionService, times(2)).applyBatch(anyList());
+        assertEquals(3, results.size());
+        assertEquals(100L, results.get(0).getAmount());
+        assertEquals("1000000001", results.get(1).getAccountNumber());
+        assertEquals(300L, results.get(2).getAmount());
+    }
+
+    @Test
+    @DisplayName("lock 실패 - 해당 계좌의 요청만 실패")
+    void apply_lockFailed() {
+        // given
+        willThrow(new AccountException(ErrorCode.LOCK_TIMEOUT))
+                .given(lockService).lock("1000000000");
+        given(transactionService.applyBatch(anyList()))
+                .willReturn(List.of(BalanceOperation.Result.success(
+                        TransactionDto.builder()
+                                .accountNumber("1000000001")
+                                .transactionResultType(TransactionResultType.S)
+                                .build())));
+
+        // when
+        List<BatchTransaction.Result> results = batchTransactionService.apply(List.of(
+                use("1000000000", 100L),
+                use("1000000001", 200L))).join();
+
+        // then
+        assertEquals(TransactionResultType.F, results.get(0).getTransactionResult());
+        assertEquals(ErrorCode.LOCK_TIMEOUT, results.get(0).getErrorCode());
+        assertEquals(TransactionResultType.S, results.get(1).getTransactionResult());
+    }
+
+    @Test
+    @DisplayName("userId 없는 USE, transactionId 없는 CANCEL - 해당 요청만 INVALID_REQUEST")
+    void apply_missingFieldsForType() {
+        // given
+        given(transactionService.applyBatch(anyList()))
+                .willReturn(List.of(BalanceOperation.Result.success(
+                        TransactionDto.builder()
+                                .accountNumber("1000000001")
+                                .transactionResultType(TransactionResultType.S)
+                                .build())));
+
+        // when
+        List<BatchTransaction.Result> results = batchTransactionService.apply(List.of(
+                new BatchTransaction.Operation(
+                        TransactionType.USE, null, null, "1000000000", 100L),
+                use("1000000001", 200L),
+                new BatchTransaction.Operation(
+                        TransactionType.CANCEL, 1L, null, "1000000002", 300L))).join();
+
+        // then
+        verify(lockService, times(1)).lock("1000000001");
+        verify(transactionService, times(1)).applyBatch(anyList());
+        assertEquals(ErrorCode.INVALID_REQUEST, results.get(0).getErrorCode());
+        assertEquals(TransactionResultType.S, results.get(1).getTransactionResult());
+        assertEquals(ErrorCode.INVALID_REQUEST, results.get(2).getErrorCode());
+    }
+
+    private BatchTransaction.Operation use(String accountNumber, Long amount) {
+        return new BatchTransaction.Operation(
+                TransactionType.USE, 1L, null, accountNumber, amount);
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionOutboxRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.BalanceMode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("실패 거래 batch 저장 테스트")
+class FailedTransactionWriterTest {
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionOutboxRepository transactionOutboxRepository;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private FailedTransactionWriter failedTransactionWriter;
+
+    @BeforeEach
+    void setUp() {
+        failedTransactionWriter = writer(BalanceMode.LOCK, 100, 2);
+    }
+
+    private FailedTransactionWriter writer(BalanceMode balanceMode, int batchSize,
+                                           int queueCapacity) {
+        return new FailedTransactionWriter(
+                transactionRepository,
+                accountRepository,
+                transactionOutboxRepository,
+                ledgerService,
+                new TransactionIdGenerator(1),
+                new TransactionCache(100, false, 0, null),
+                transactionManager,
+                balanceMode,
+                true, true, batchSize, queueCapacity);
+    }
+
+    @Test
+    @DisplayName("모아서 한 번에 저장")
+    @SuppressWarnings("unchecked")
+    void flush_saveAll() {
+        // given
+        given(accountRepository.findAllByAccountNumberIn(anyCollection()))
+                .willReturn(List.of(Account.builder()
+                        .accountNumber("1000000000")
+                        .balance(5000L)
+                        .build()));
+        given(transactionRepository.saveAll(any()))
+                .willAnswer(invocation -> new ArrayList<>(
+                        (List<Transaction>) invocation.getArgument(0)));
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+
+        failedTransactionWriter.append(TransactionType.USE, TransactionResultType.F,
+                "1000000000", 1000L);
+        failedTransactionWriter.append(TransactionType.USE, TransactionResultType.F,
+                "9999999999", 1000L);
+
+        // when
+        failedTransactionWriter.flush();
+
+        // then
+        verify(transactionRepository, times(1)).saveAll(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals(5000L, captor.getValue().get(0).getBalanceSnapshot());
+        assertEquals(TransactionResultType.F,
+                captor.getValue().get(0).getTransactionResultType());
+        assertEquals(0, failedTransactionWriter.getPendingCount());
+        verify(transactionOutboxRepository, times(1)).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("분할 잔액 계좌 - shard 합계를 잔액 스냅샷으로 저장")
+    @SuppressWarnings("unchecked")
+    void flush_shardedBalanceSnapshot() {
+        // given
+        given(accountRepository.findAllByAccountNumberIn(anyCollection()))
+                .willReturn(List.of(Account.builder()
+                        .accountNumber("1000000000")
+                        .balance(0L)
+                        .shardCount(4)
+                        .build()));
+        given(accountRepository.findBalanceByAccountNumber("1000000000"))
+                .willReturn(Optional.of(8000L));
+        given(transactionRepository.saveAll(any()))
+                .willAnswer(invocation -> new ArrayList<>(
+                        (List<Transaction>) invocation.getArgument(0)));
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+
+        failedTransactionWriter.append(TransactionType.USE, TransactionResultType.F,
+                "1000000000", 1000L);
+
+        // when
+        failedTransactionWriter.flush();
+
+        // then
+        verify(transactionRepository, times(1)).saveAll(captor.capture());
+        assertEquals(8000L, captor.getValue().get(0).getBalanceSnapshot());
+    }
+
+    @Test
+    @DisplayName("종료할 때 DB 오류로 실패한 batch 는 다시 넣어서 저장")
+    @SuppressWarnings("unchecked")
+    void flushAll_continuesAfterFailure() {
+        // given
+        FailedTransactionWriter writer = writer(BalanceMode.LOCK, 1, 10);
+        given(accountRepository.findAllByAccountNumberIn(anyCollection()))
+                .willThrow(new DataAccessResourceFailureException("down"))
+                .willReturn(List.of(Account.builder()
+                        .accountNumber("1000000000")
+                        .balance(5000L)
+                        .build()));
+        given(transactionRepository.saveAll(any()))
+                .willAnswer(invocation -> new ArrayList<>(
+                        (List<Transaction>) invocation.getArgument(0)));
+        writer.append(TransactionType.USE, TransactionResultType.F, "1000000000", 1000L);
+        writer.append(TransactionType.USE, TransactionResultType.F, "1000000000", 2000L);
+
+        // when
+        writer.flushAll();
+
+        // then
+        verify(transactionRepository, times(2)).saveAll(any());
+        assertEquals(0, writer.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("저장할 수 없는 기록이 있으면 batch 를 나눠서 그 기록만 버림")
+    @SuppressWarnings("unchecked")
+    void flush_splitsAndDropsOnlyBadRow() {
+        // given
+        given(accountRepository.findAllByAccountNumberIn(anyCollection()))
+                .willReturn(List.of(Account.builder()
+                        .accountNumber("1000000000")
+                        .balance(5000L)
+                        .build()));
+        List<Long> savedAmounts = new ArrayList<>();
+        given(transactionRepository.saveAll(any()))
+                .willAnswer(invocation -> {
+                    List<Transaction> transactions = invocation.getArgument(0);
+                    if (transactions.stream().anyMatch(t -> t.getAmount() == 2000L)) {
+                        throw new DataIntegrityViolationException("bad row");
+                    }
+                    transactions.forEach(t -> savedAmounts.add(t.getAmount()));
+                    return new ArrayList<>(transactions);
+                });
+        FailedTransactionWriter writer = writer(BalanceMode.LOCK, 100, 10);
+        writer.append(TransactionType.USE, TransactionResultType.F, "1000000000", 1000L);
+        writer.append(TransactionType.USE, TransactionResultType.F, "1000000000", 2000L);
+        writer.append(TransactionType.USE, TransactionResultType.F, "1000000000", 3000L);
+
+        // when
+        writer.flush();
+
+        // then
+        assertEquals(List.of(1000L, 3000L), savedAmounts);
+        assertEquals(0, writer.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("DB 오류가 계속되면 정해진 횟수만 다시 시도")
+    void flush_retryLimit() {
+        // given
+        given(accountRepository.findAllByAccountNumberIn(anyCollection()))
+                .willThrow(new DataAccessResourceFailureException("down"));
+        failedTransactionWriter.append(TransactionType.USE, TransactionResultType.F,
+                "1000000000", 1000L);
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            failedTransactionWriter.flush();
+        }
+
+        // then
+        verify(accountRepository, times(5)).findAllByAccountNumberIn(anyCollection());
+        assertEquals(0, failedTransactionWriter.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("대기열이 가득 차면 거절")
+    void append_queueFull() {
+        assertTrue(failedTransactionWriter.append(TransactionType.USE,
+                TransactionResultType.F, "1000000000", 1000L));
+        assertTrue(failedTransactionWriter.append(TransactionType.USE,
+                TransactionResultType.F, "1000000000", 1000L));
+        assertFalse(failedTransactionWriter.append(TransactionType.USE,
+                TransactionResultType.F, "1000000000", 1000L));
+    }
+}
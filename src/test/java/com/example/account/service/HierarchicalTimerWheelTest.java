@@ -0,0 +1,75 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("계층형 타이머 휠 테스트")
+class HierarchicalTimerWheelTest {
+    private static final long TICK = 10L;
+
+    @Test
+    @DisplayName("만료 시각이 지난 tick 에 만료")
+    void advance_expired() {
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(TICK, 8, 0L);
+        wheel.add("a", 25L);
+        wheel.add("b", 40L);
+
+        assertEquals(List.of(), wheel.advance(25L));
+        assertEquals(List.of("a"), wheel.advance(30L));
+        assertEquals(List.of("b"), wheel.advance(50L));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("한 단계 주기를 넘는 만료 시각은 위 단계에서 내려와 제때 만료")
+    void advance_overflow() {
+        HierarchicalTimerWheel<Long> wheel = new HierarchicalTimerWheel<>(TICK, 4, 0L);
+        // 단계별 주기 : 40, 160, 640
+        long[] expirations = {5L, 39L, 41L, 159L, 161L, 639L, 1_000L};
+        for (long expiration : expirations) {
+            wheel.add(expiration, expiration);
+        }
+
+        List<Long> expired = new ArrayList<>();
+        for (long now = 0; now <= 1_100L; now += TICK) {
+            for (Long key : wheel.advance(now)) {
+                assertTrue(now > key, "expired early : " + key + " at " + now);
+                assertTrue(now <= key + TICK, "expired late : " + key + " at " + now);
+                expired.add(key);
+            }
+        }
+
+        assertEquals(expirations.length, expired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("취소한 키는 만료되지 않음")
+    void remove() {
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(TICK, 8, 0L);
+        wheel.add("a", 25L);
+        wheel.add("b", 500L);
+
+        assertTrue(wheel.remove("a"));
+        assertTrue(wheel.remove("b"));
+        assertFalse(wheel.remove("a"));
+
+        assertEquals(List.of(), wheel.advance(1_000L));
+    }
+
+    @Test
+    @DisplayName("이미 지난 시각은 등록하지 않음")
+    void add_past() {
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(TICK, 8, 0L);
+        wheel.advance(100L);
+
+        assertFalse(wheel.add("a", 50L));
+        assertTrue(wheel.add("b", 100L));
+        assertEquals(List.of("b"), wheel.advance(110L));
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.account.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.account.repository.BalanceHoldRepository;
+import com.example.account.type.BalanceMode;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("승인 만료 테스트")
+class HoldServiceTest {
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private BalanceHoldRepository balanceHoldRepository;
+
+    @Mock
+    private LockService lockService;
+
+    @Mock
+    private DatabaseLockService databaseLockService;
+
+    @Mock
+    private AccountLockPolicy accountLockPolicy;
+
+    @Mock
+    private AccountMetrics accountMetrics;
+
+    private HoldService holdService;
+
+    @BeforeEach
+    void setUp() {
+        holdService = new HoldService(transactionService, balanceHoldRepository, lockService,
+                databaseLockService, accountLockPolicy, accountMetrics, BalanceMode.LOCK,
+                604800L, 2592000L, 1000L, 512, 2);
+    }
+
+    @Test
+    @DisplayName("타이머 휠에 없는 만료된 승인을 DB 에서 찾아서 닫음")
+    @SuppressWarnings("unchecked")
+    void sweepExpiredHolds_success() {
+        // given
+        given(balanceHoldRepository.findExpiredAfter(any(), eq(0L), any()))
+                .willReturn(Arrays.asList(1L, 2L));
+        given(balanceHoldRepository.findExpiredAfter(any(), eq(2L), any()))
+                .willReturn(Collections.singletonList(3L));
+        given(balanceHoldRepository.findAccountNumberById(any()))
+                .willReturn(Optional.of("1000000000"));
+        given(databaseLockService.executeIfRequired(any()))
+                .willAnswer(invocation -> ((Supplier<Object>) invocation.getArgument(0)).get());
+        given(transactionService.expireHold(1L)).willReturn(true);
+        // 다른 노드가 먼저 만료시켰다.
+        given(transactionService.expireHold(2L)).willReturn(false);
+        given(transactionService.expireHold(3L)).willReturn(true);
+
+        // when
+        holdService.sweepExpiredHolds();
+
+        // then
+        verify(lockService, times(3)).lock("1000000000");
+        verify(lockService, times(3)).unlock("1000000000");
+        verify(accountMetrics, times(1)).holdsExpired(2);
+    }
+
+    @Test
+    @DisplayName("승인을 지원하지 않는 방식이면 조회하지 않음")
+    void sweepExpiredHolds_unsupportedMode() {
+        // given
+        holdService = new HoldService(transactionService, balanceHoldRepository, lockService,
+                databaseLockService, accountLockPolicy, accountMetrics, BalanceMode.LEDGER,
+                604800L, 2592000L, 1000L, 512, 2);
+
+        // when
+        holdService.sweepExpiredHolds();
+
+        // then
+        verify(balanceHoldRepository, never()).findExpiredAfter(any(), any(), any());
+        verify(lockService, never()).lock(anyString());
+    }
+}
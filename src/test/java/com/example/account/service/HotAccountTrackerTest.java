@@ -0,0 +1,79 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.account.dto.HotAccount;
+
+@DisplayName("hot 계좌 탐지 테스트")
+class HotAccountTrackerTest {
+
+    @Test
+    @DisplayName("요청이 몰린 계좌가 상위에 오고 hot 으로 표시된다")
+    void report_topAccounts() {
+        // given
+        HotAccountTracker tracker = new HotAccountTracker(1024, 2, 0.0001);
+        for (int i = 0; i < 1000; i++) {
+            tracker.record("1000000000", TimeUnit.MILLISECONDS.toNanos(2));
+        }
+        for (int i = 0; i < 100; i++) {
+            tracker.record("1000000001", 0L);
+        }
+        tracker.record("1000000002", 0L);
+
+        // when
+        tracker.report();
+
+        // then
+        List<HotAccount> top = tracker.getTopAccounts();
+        assertEquals(2, top.size());
+        assertEquals("1000000000", top.get(0).getAccountNumber());
+        assertEquals("1000000001", top.get(1).getAccountNumber());
+        assertEquals(2.0, top.get(0).getAverageLockWaitMillis(), 0.5);
+        assertTrue(tracker.isHot("1000000000"));
+        assertFalse(tracker.isHot("1000000002"));
+    }
+
+    @Test
+    @DisplayName("후보가 가득 찬 뒤에 몰리는 계좌도 먼저 들어온 후보를 밀어내고 탐지된다")
+    void record_evictsSmallestCandidate() {
+        // given : top-K 1 이면 후보는 4 개
+        HotAccountTracker tracker = new HotAccountTracker(1024, 1, 0.0001);
+        for (int i = 0; i < 4; i++) {
+            tracker.record("100000000" + i, 0L);
+        }
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            tracker.record("2000000000", 0L);
+        }
+        tracker.report();
+
+        // then
+        List<HotAccount> top = tracker.getTopAccounts();
+        assertEquals(1, top.size());
+        assertEquals("2000000000", top.get(0).getAccountNumber());
+        assertTrue(tracker.isHot("2000000000"));
+    }
+
+    @Test
+    @DisplayName("주기가 끝나면 sketch 를 비운다")
+    void report_clearsWindow() {
+        // given
+        HotAccountTracker tracker = new HotAccountTracker(1024, 10, 0.0001);
+        tracker.record("1000000000", 0L);
+        tracker.report();
+
+        // when
+        tracker.report();
+
+        // then
+        assertTrue(tracker.getTopAccounts().isEmpty());
+        assertFalse(tracker.isHot("1000000000"));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@DisplayName("Idempotency-Key 중복 요청 테스트")
+class IdempotencyServiceTest {
+    private final IdempotencyService idempotencyService =
+            new IdempotencyService(null, new ObjectMapper(), false, 60, 30, 100);
+
+    @Test
+    @DisplayName("처리가 끝난 키는 저장된 응답을 반환")
+    void execute_completedKey() {
+        AtomicInteger calls = new AtomicInteger();
+
+        UseBalance.Response first = idempotencyService.execute(IdempotencyService.USE,
+                "1000000000", "key", request(100L),
+                () -> CompletableFuture.completedFuture(response(calls.incrementAndGet()))).join();
+        UseBalance.Response second = idempotencyService.execute(IdempotencyService.USE,
+                "1000000000", "key", request(100L),
+                () -> CompletableFuture.completedFuture(response(calls.incrementAndGet()))).join();
+
+        assertEquals(1, calls.get());
+        assertSame(first, second);
+    }
+
+    @Test
+    @DisplayName("처리 중인 키는 첫 요청의 결과를 같이 기다림")
+    void execute_inFlightKey() {
+        CompletableFuture<UseBalance.Response> pending = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<UseBalance.Response> first = idempotencyService.execute(
+                IdempotencyService.USE, "1000000000", "key", request(100L), () -> {
+                    calls.incrementAndGet();
+                    return pending;
+                });
+        CompletableFuture<UseBalance.Response> retry = idempotencyService.execute(
+                IdempotencyService.USE, "1000000000", "key", request(100L), () -> {
+                    calls.incrementAndGet();
+                    return CompletableFuture.completedFuture(response(2));
+                });
+
+        assertFalse(retry.isDone());
+        pending.complete(response(1));
+
+        assertEquals(1, calls.get());
+        assertEquals(1L, retry.join().getAmount());
+        assertSame(first.join(), retry.join());
+    }
+
+    @Test
+    @DisplayName("실패한 요청은 저장하지 않아 다시 시도할 수 있음")
+    void execute_failedNotStored() {
+        CompletableFuture<UseBalance.Response> failed = idempotencyService.execute(
+                IdempotencyService.USE, "1000000000", "key", request(100L), () -> CompletableFuture.failedFuture(
+                        new AccountException(ErrorCode.LOCK_TIMEOUT)));
+        assertThrows(CompletionException.class, failed::join);
+
+        UseBalance.Response retried = idempotencyService.execute(IdempotencyService.USE,
+                "1000000000", "key", request(100L),
+                () -> CompletableFuture.completedFuture(response(3))).join();
+
+        assertEquals(3L, retried.getAmount());
+    }
+
+    @Test
+    @DisplayName("같은 키로 본문이 다른 요청 - INVALID_REQUEST")
+    void execute_requestMismatch() {
+        idempotencyService.execute(IdempotencyService.USE,
+                "1000000000", "key", request(100L),
+                () -> CompletableFuture.completedFuture(response(1))).join();
+
+        AccountException exception = assertThrows(AccountException.class,
+                () -> idempotencyService.execute(IdempotencyService.USE,
+                        "1000000000", "key", request(200L),
+                        () -> CompletableFuture.completedFuture(response(2))));
+
+        assertEquals(ErrorCode.INVALID_REQUEST, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("다른 계좌의 같은 키는 따로 처리")
+    void execute_scopedByAccount() {
+        AtomicInteger calls = new AtomicInteger();
+
+        idempotencyService.execute(IdempotencyService.USE,
+                "1000000000", "key", request(100L),
+                () -> CompletableFuture.completedFuture(response(calls.incrementAndGet()))).join();
+        UseBalance.Response other = idempotencyService.execute(IdempotencyService.USE,
+                "1000000001", "key", request(100L),
+                () -> CompletableFuture.completedFuture(response(calls.incrementAndGet()))).join();
+
+        assertEquals(2, calls.get());
+        assertEquals(2L, other.getAmount());
+    }
+
+    private UseBalance.Request request(long amount) {
+        return new UseBalance.Request(1L, "1000000000", amount);
+    }
+
+    private UseBalance.Response response(long amount) {
+        return UseBalance.Response.builder()
+                .accountNumber("1000000000")
+                .amount(amount)
+                .build();
+    }
+}
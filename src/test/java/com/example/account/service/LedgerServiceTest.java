@@ -0,0 +1,155 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.account.domain.BalanceSnapshot;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.BalanceSnapshotRepository;
+import com.example.account.repository.TransactionRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("원장 잔액 테스트")
+class LedgerServiceTest {
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private LockService lockService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LedgerService ledgerService;
+
+    @BeforeEach
+    void setUp() {
+        ledgerService = new LedgerService(transactionRepository, balanceSnapshotRepository,
+                accountRepository, new AccountCache(100, false, null),
+                lockService, transactionManager, 3, 60);
+    }
+
+    @Test
+    @DisplayName("현재 잔액 = 마지막 스냅샷 + 이후 거래의 합")
+    void getPosition() {
+        // given
+        given(balanceSnapshotRepository.findFirstByAccountIdOrderByLastSequenceDesc(1L))
+                .willReturn(Optional.of(snapshot(10_000L, 5L)));
+        given(transactionRepository.findLastLedgerSequence(1L))
+                .willReturn(Optional.of(7L));
+        given(transactionRepository.sumLedgerAmount(1L, 5L, 7L))
+                .willReturn(-1_500L);
+
+        // when
+        LedgerService.Position position = ledgerService.getPosition(1L);
+
+        // then
+        assertEquals(7L, position.getLastSequence());
+        assertEquals(8_500L, position.getBalance());
+        assertEquals(5L, position.getSnapshotSequence());
+    }
+
+    @Test
+    @DisplayName("처음 쓰는 계좌는 현재 잔액으로 0 번 스냅샷을 남김")
+    void getPosition_baseSnapshot() {
+        // given
+        given(balanceSnapshotRepository.findFirstByAccountIdOrderByLastSequenceDesc(1L))
+                .willReturn(Optional.empty());
+        given(accountRepository.findBalanceById(1L))
+                .willReturn(Optional.of(10_000L));
+        given(balanceSnapshotRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        given(transactionRepository.findLastLedgerSequence(1L))
+                .willReturn(Optional.empty());
+        given(transactionRepository.sumLedgerAmount(1L, 0L, 0L))
+                .willReturn(0L);
+
+        // when
+        LedgerService.Position position = ledgerService.getPosition(1L);
+
+        // then
+        assertEquals(0L, position.getLastSequence());
+        assertEquals(10_000L, position.getBalance());
+    }
+
+    @Test
+    @DisplayName("N 건마다 스냅샷을 남기고 계좌 잔액을 갱신")
+    void appended_snapshotEveryEvents() {
+        // given
+        LedgerService.Position position = new LedgerService.Position(7L, 8_500L, 5L);
+        ArgumentCaptor<BalanceSnapshot> captor = ArgumentCaptor.forClass(BalanceSnapshot.class);
+
+        // when
+        ledgerService.appended(1L, "1000000000", position, 8L, 8_000L);
+
+        // then
+        verify(balanceSnapshotRepository, times(1)).save(captor.capture());
+        assertEquals(8L, captor.getValue().getLastSequence());
+        assertEquals(8_000L, captor.getValue().getBalance());
+        verify(accountRepository, times(1)).updateBalance(1L, 8_000L);
+    }
+
+    @Test
+    @DisplayName("N 건 미만이면 스냅샷을 남기지 않음")
+    void appended_noSnapshot() {
+        // when
+        ledgerService.appended(1L, "1000000000",
+                new LedgerService.Position(5L, 8_500L, 5L), 6L, 8_000L);
+
+        // then
+        verify(balanceSnapshotRepository, never()).save(any());
+        verify(accountRepository, never()).updateBalance(any(), any());
+    }
+
+    @Test
+    @DisplayName("대사 - 스냅샷 사이 거래가 빠지면 불일치")
+    void reconcile_missingEvent() {
+        // given
+        LedgerReconciler ledgerReconciler = new LedgerReconciler(transactionRepository,
+                balanceSnapshotRepository, accountRepository, transactionManager);
+        given(balanceSnapshotRepository.findByAccountIdOrderByLastSequence(1L))
+                .willReturn(List.of(snapshot(10_000L, 0L), snapshot(9_000L, 3L)));
+        given(transactionRepository.countLedger(1L, 0L, 3L)).willReturn(2L);
+        given(transactionRepository.sumLedgerAmount(1L, 0L, 3L)).willReturn(-1_000L);
+        given(transactionRepository.findLastLedgerSequence(1L)).willReturn(Optional.of(3L));
+        given(accountRepository.findBalanceById(1L)).willReturn(Optional.of(9_000L));
+
+        // when
+        LedgerReconciler.Result result = ledgerReconciler.reconcile(1L);
+
+        // then
+        assertEquals(2, result.getSnapshots());
+        assertEquals(1, result.getMismatches());
+    }
+
+    private BalanceSnapshot snapshot(Long balance, Long lastSequence) {
+        return BalanceSnapshot.builder()
+                .balance(balance)
+                .lastSequence(lastSequence)
+                .snapshotAt(LocalDateTime.now())
+                .build();
+    }
+}
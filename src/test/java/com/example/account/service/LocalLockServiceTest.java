@@ -0,0 +1,97 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("JVM 내부 lock 테스트")
+class LocalLockServiceTest {
+    private final LocalLockService localLockService = new LocalLockService(16);
+
+    @Test
+    @DisplayName("같은 스레드는 다시 lock 을 잡을 수 있음")
+    void tryLock_reentrant() throws InterruptedException {
+        assertTrue(localLockService.tryLock("1000000000", 10, TimeUnit.MILLISECONDS));
+        assertTrue(localLockService.tryLock("1000000000", 10, TimeUnit.MILLISECONDS));
+
+        localLockService.unlock("1000000000");
+        localLockService.unlock("1000000000");
+    }
+
+    @Test
+    @DisplayName("다른 스레드가 잡은 계좌는 대기 시간 후 실패")
+    void tryLock_timeout() throws Exception {
+        assertTrue(localLockService.tryLock("1000000000", 10, TimeUnit.MILLISECONDS));
+
+        boolean isLock = CompletableFuture.supplyAsync(() -> {
+            try {
+                return localLockService.tryLock("1000000000", 10, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }).get();
+
+        localLockService.unlock("1000000000");
+        assertFalse(isLock);
+    }
+
+    @Test
+    @DisplayName("여러 계좌 lock - 같은 stripe 는 한 번만, stripe 번호 순서로 잡음")
+    void tryLockAll_sortedByStripe() throws InterruptedException {
+        LocalLockService singleStripe = new LocalLockService(1);
+
+        assertArrayEquals(new int[]{0},
+                singleStripe.stripeIndexes(List.of("2000000000", "1000000000")));
+        assertTrue(singleStripe.tryLockAll(
+                List.of("2000000000", "1000000000"), 10, TimeUnit.MILLISECONDS));
+        singleStripe.unlockAll(List.of("2000000000", "1000000000"));
+
+        int[] indexes = localLockService.stripeIndexes(List.of("2000000000", "1000000000"));
+        for (int i = 1; i < indexes.length; i++) {
+            assertTrue(indexes[i - 1] < indexes[i]);
+        }
+    }
+
+    @Test
+    @DisplayName("여러 계좌 lock - 하나라도 실패하면 잡은 lock 을 모두 놓음")
+    void tryLockAll_releaseOnTimeout() throws Exception {
+        assertTrue(localLockService.tryLock("2000000000", 10, TimeUnit.MILLISECONDS));
+
+        boolean isLock = CompletableFuture.supplyAsync(() -> {
+            try {
+                return localLockService.tryLockAll(
+                        List.of("1000000000", "2000000000"), 10, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return true;
+            }
+        }).get();
+
+        // 먼저 잡았던 stripe 도 놓았으므로 다른 스레드가 바로 잡을 수 있다.
+        boolean isFree = localLockService.tryLock("1000000000", 0, TimeUnit.MILLISECONDS);
+
+        localLockService.unlock("1000000000");
+        localLockService.unlock("2000000000");
+        assertFalse(isLock);
+        assertTrue(isFree);
+    }
+
+    @Test
+    @DisplayName("lock 을 잡지 않은 스레드의 unlock 은 무시")
+    void unlock_notHeld() {
+        assertDoesNotThrow(() -> localLockService.unlock("1000000000"));
+    }
+
+    @Test
+    @DisplayName("같은 계좌는 항상 같은 stripe")
+    void stripeIndex_stable() {
+        int index = localLockService.stripeIndex("1000000000");
+
+        assertEquals(index, localLockService.stripeIndex("1000000000"));
+        assertTrue(index >= 0 && index < 16);
+    }
+}
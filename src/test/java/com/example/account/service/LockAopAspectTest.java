@@ -2,6 +2,10 @@ package com.example.account.service;
 
 import static com.example.account.type.ErrorCode.ACCOUNT_NOT_FOUND;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -15,9 +19,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.example.account.aop.AccountLock;
 import com.example.account.dto.UseBalance;
 import com.example.account.exception.AccountException;
 import com.example.account.type.ErrorCode;
+import com.example.account.type.LockMode;
 
 @ExtendWith(MockitoExtension.class)
 class LockAopAspectTest {
@@ -27,6 +33,18 @@ class LockAopAspectTest {
     @Mock
     private ProceedingJoinPoint proceedingJoinPoint;
 
+    @Mock
+    private AccountLock accountLock;
+
+    @Mock
+    private AccountLockPolicy accountLockPolicy;
+
+    @Mock
+    private HotAccountTracker hotAccountTracker;
+
+    @Mock
+    private DatabaseLockService databaseLockService;
+
     @InjectMocks
     private LockAopAspect lockAopAspect;
 
@@ -43,11 +61,11 @@ class LockAopAspectTest {
                 .willThrow(new AccountException(ACCOUNT_NOT_FOUND));
         // when
         assertThrows(AccountException.class, () ->
-                .lockAopAspect.aroundMethod(proceedingJoinPoint, request));
+                .lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request));
 
         // then
         verify(lockService, times(1))
-                .lock(lockArgumentCaptor.capture());
+                .lock(lockArgumentCaptor.capture(), anyLong(), anyLong());
         verify(lockService, times(1))
                  .unlock(unLockArgumentCaptor.capture());
         assertEquals("1234", lockArgumentCaptor.getValue());
@@ -69,12 +87,46 @@ class LockAopAspectTest {
 
         // when
         assertThrows(AccountException.class, () ->
-                lockAopAspect.aroundMethod(proceedingJoinPoint, request));
+                lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request));
 
         // then
-        verify(lockService, times(1)).lock(lockArgumentCaptor.capture());
+        verify(lockService, times(1)).lock(lockArgumentCaptor.capture(), anyLong(), anyLong());
         verify(lockService, times(1)).unlock(unLockArgumentCaptor.capture());
         assertEquals("54321", lockArgumentCaptor.getValue());
         assertEquals("54321", unLockArgumentCaptor.getValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    void failoverEnabled_rowLockWithExternalLock() throws Throwable {
+        // given
+        UseBalance.Request request =
+                new UseBalance.Request(123L, "54321", 1000L);
+        given(lockService.isRowLockRequired())
+                .willReturn(true);
+
+        // when
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
+
+        // then
+        verify(lockService, times(1)).lock(anyString(), anyLong(), anyLong());
+        verify(databaseLockService, times(1)).execute(any());
+        verify(lockService, times(1)).unlock("54321");
+    }
+
+    @Test
+    void databaseMode_skipExternalLock() throws Throwable {
+        // given
+        UseBalance.Request request =
+                new UseBalance.Request(123L, "54321", 1000L);
+        given(lockService.currentMode())
+                .willReturn(LockMode.DATABASE);
+
+        // when
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
+
+        // then
+        verify(databaseLockService, times(1)).execute(any());
+        verify(lockService, never()).lock(anyString(), anyLong(), anyLong());
+        verify(lockService, never()).unlock(anyString());
+    }
+}
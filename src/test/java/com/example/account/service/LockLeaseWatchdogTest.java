@@ -0,0 +1,66 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("lock 임대 시간 관리 테스트")
+class LockLeaseWatchdogTest {
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RScript rScript;
+
+    @Test
+    @DisplayName("lock 확인과 연장을 스크립트 하나로 처리")
+    void renew_checkAndExpireInOneScript() {
+        // given
+        LockLeaseWatchdog watchdog = new LockLeaseWatchdog(redissonClient, 1000L, 15000L, 3L);
+        given(redissonClient.getScript(any(Codec.class))).willReturn(rScript);
+        given(rScript.<Boolean>eval(any(RScript.Mode.class), anyString(),
+                eq(RScript.ReturnType.BOOLEAN), anyList(), any(), any()))
+                .willReturn(true);
+
+        // when
+        boolean renewed = watchdog.renew("ACLOCK:1000000000", "redisson-id:7", 3000L);
+
+        // then
+        assertTrue(renewed);
+        verify(rScript).eval(eq(RScript.Mode.READ_WRITE), anyString(),
+                eq(RScript.ReturnType.BOOLEAN),
+                eq(Collections.singletonList("ACLOCK:1000000000")),
+                eq("3000"), eq("redisson-id:7"));
+    }
+
+    @Test
+    @DisplayName("다른 스레드가 잡은 lock 이면 연장하지 않음")
+    void renew_notOwner() {
+        // given
+        LockLeaseWatchdog watchdog = new LockLeaseWatchdog(redissonClient, 1000L, 15000L, 3L);
+        given(redissonClient.getScript(any(Codec.class))).willReturn(rScript);
+        given(rScript.<Boolean>eval(any(RScript.Mode.class), anyString(),
+                eq(RScript.ReturnType.BOOLEAN), anyList(), any(), any()))
+                .willReturn(false);
+
+        // when
+        // then
+        assertFalse(watchdog.renew("ACLOCK:1000000000", "redisson-id:7", 3000L));
+    }
+}
@@ -2,6 +2,7 @@ package com.example.account.service;
 
 import com.example.account.exception.AccountException;
 import com.example.account.type.ErrorCode;
+import com.example.account.type.LockMode;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -13,6 +14,9 @@ import org.redisson.api.RedissonClient;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +27,18 @@ class LockServiceTest {
     @Mock
     private RLock rLock;
 
+    @Mock
+    private LocalLockService localLockService;
+
+    @Mock
+    private LockLeaseWatchdog lockLeaseWatchdog;
+
+    @Mock
+    private AccountMetrics accountMetrics;
+
+    @Mock
+    private RedisLockHealth redisLockHealth;
+
     @InjectMocks
     private LockService lockService;
 
@@ -48,6 +64,56 @@ class LockServiceTest {
                 () -> lockService.lock("123"));
 
         //then
-        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        assertEquals(ErrorCode.LOCK_TIMEOUT, exception.getErrorCode());
+        verify(accountMetrics, times(1)).lockFailed("123");
+    }
+
+    @Test
+    void redisError_failClosed() throws InterruptedException {
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willThrow(new IllegalStateException("connection refused"));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> lockService.lock("123"));
+
+        //then
+        assertEquals(ErrorCode.LOCK_UNAVAILABLE, exception.getErrorCode());
+        verify(redisLockHealth, times(1)).recordFailure();
+    }
+
+    @Test
+    void rowLockRequired_whenFailoverEnabled() {
+        given(redisLockHealth.isEnabled())
+                .willReturn(true);
+
+        assertTrue(lockService.isRowLockRequired());
+    }
+
+    @Test
+    void rowLockNotRequired_whenFailoverDisabled() {
+        given(redisLockHealth.isEnabled())
+                .willReturn(false);
+
+        assertFalse(lockService.isRowLockRequired());
+    }
+
+    @Test
+    void failedOver_useLocalLock() throws InterruptedException {
+        given(redisLockHealth.isFailedOver())
+                .willReturn(true);
+        given(localLockService.tryLock(anyString(), anyLong(), any()))
+                .willReturn(true);
+
+        //when
+        lockService.lock("123");
+        lockService.unlock("123");
+
+        //then
+        assertEquals(LockMode.DATABASE, lockService.currentMode());
+        verify(localLockService, times(1)).unlock("123");
+        verify(redissonClient, never()).getLock(anyString());
     }
 }
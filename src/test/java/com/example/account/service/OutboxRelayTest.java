@@ -0,0 +1,101 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.account.domain.TransactionOutbox;
+import com.example.account.repository.TransactionOutboxRepository;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("거래 이벤트 outbox relay 테스트")
+class OutboxRelayTest {
+    @Mock
+    private TransactionOutboxRepository transactionOutboxRepository;
+
+    @Mock
+    private AccountMetrics accountMetrics;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final InMemoryTransactionEventSink sink = new InMemoryTransactionEventSink(100);
+
+    @Test
+    @DisplayName("batch 가 가득 차 있으면 이어서 읽고, 보낸 이벤트는 지운다")
+    void relay_drainsFullBatches() {
+        // given
+        OutboxRelay outboxRelay = new OutboxRelay(transactionOutboxRepository, sink,
+                accountMetrics, transactionManager, true, 2, 10);
+        given(transactionOutboxRepository.findBatchForUpdate(any(Pageable.class)))
+                .willReturn(Arrays.asList(outbox(1L), outbox(2L)))
+                .willReturn(Collections.singletonList(outbox(3L)));
+
+        // when
+        outboxRelay.relay();
+
+        // then
+        verify(transactionOutboxRepository, times(2)).findBatchForUpdate(any(Pageable.class));
+        verify(transactionOutboxRepository, times(1)).deleteAllByIdInBatch(Arrays.asList(1L, 2L));
+        verify(transactionOutboxRepository, times(1)).deleteAllByIdInBatch(Collections.singletonList(3L));
+        verify(accountMetrics, times(1)).recordOutboxRelay(eq(2), anyLong());
+        List<Long> eventIds = new ArrayList<>();
+        sink.getEvents().forEach(event -> eventIds.add(event.getEventId()));
+        assertEquals(Arrays.asList(1L, 2L, 3L), eventIds);
+    }
+
+    @Test
+    @DisplayName("보내기에 실패하면 outbox 를 지우지 않는다")
+    void relay_publishFailed() {
+        // given
+        TransactionEventSink failingSink = mock(TransactionEventSink.class);
+        OutboxRelay outboxRelay = new OutboxRelay(transactionOutboxRepository, failingSink,
+                accountMetrics, transactionManager, true, 2, 10);
+        given(transactionOutboxRepository.findBatchForUpdate(any(Pageable.class)))
+                .willReturn(Collections.singletonList(outbox(1L)));
+        doThrow(new IllegalStateException("redis down")).when(failingSink).publish(any());
+
+        // when
+        assertThrows(IllegalStateException.class, outboxRelay::relay);
+
+        // then
+        verify(transactionOutboxRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    private TransactionOutbox outbox(Long id) {
+        return TransactionOutbox.builder()
+                .id(id)
+                .transactionId("transactionId" + id)
+                .accountNumber("1000000000")
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .amount(1000L)
+                .balanceSnapshot(9000L)
+                .transactedAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
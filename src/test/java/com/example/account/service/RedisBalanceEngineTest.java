@@ -0,0 +1,296 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.PendingEntry;
+import org.redisson.api.RScript;
+import org.redisson.api.RStream;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.StreamMessageId;
+import org.redisson.client.codec.Codec;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountUser;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionOutboxRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.BalanceMode;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionType;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Redis Lua 잔액 처리 테스트")
+class RedisBalanceEngineTest {
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RScript rScript;
+
+    @Mock
+    private RStream<String, String> stream;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionOutboxRepository transactionOutboxRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final TransactionCache transactionCache = new TransactionCache(100, false, 0, null);
+
+    private RedisBalanceEngine redisBalanceEngine;
+
+    @BeforeEach
+    void setUp() {
+        redisBalanceEngine = new RedisBalanceEngine(redissonClient, accountRepository,
+                transactionRepository, transactionOutboxRepository, transactionCache, new TransactionIdGenerator(1),
+                transactionManager, BalanceMode.REDIS_LUA, "ACBAL:STREAM", "account-1", 100, 60);
+    }
+
+    @Test
+    @DisplayName("잔액 사용 성공 - 스크립트 한 번으로 처리하고 거래를 캐시에 넣는다")
+    void useBalance_success() {
+        // given
+        givenScript();
+        given(rScript.<List<Object>>evalSha(any(RScript.Mode.class), anyString(),
+                any(RScript.ReturnType.class), anyList(), any()))
+                .willReturn(Arrays.asList("OK", "9000"));
+
+        // when
+        TransactionDto transactionDto =
+                redisBalanceEngine.useBalance(1L, "1000000000", 1000L);
+
+        // then
+        verify(rScript, times(1)).evalSha(any(RScript.Mode.class), anyString(),
+                any(RScript.ReturnType.class), anyList(), any());
+        assertEquals(9000L, transactionDto.getBalanceSnapshot());
+        assertEquals(TransactionType.USE, transactionDto.getTransactionType());
+        assertTrue(transactionCache.get(transactionDto.getTransactionId(), Optional::empty)
+                .isPresent());
+    }
+
+    @Test
+    @DisplayName("Redis 에 잔액이 없으면 DB 에서 올리고 다시 실행")
+    void useBalance_loadOnMiss() {
+        // given
+        givenScript();
+        AccountUser accountUser = AccountUser.builder()
+                .name("Kim")
+                .build();
+        accountUser.setId(1L);
+        given(accountRepository.findByAccountNumber("1000000000"))
+                .willReturn(Optional.of(Account.builder()
+                        .accountUser(accountUser)
+                        .accountStatus(AccountStatus.IN_USE)
+                        .balance(10_000L)
+                        .accountNumber("1000000000")
+                        .build()));
+        given(rScript.<List<Object>>evalSha(any(RScript.Mode.class), anyString(),
+                any(RScript.ReturnType.class), anyList(), any()))
+                .willReturn(Collections.singletonList("MISS"))
+                .willReturn(Collections.singletonList("OK"))
+                .willReturn(Arrays.asList("OK", "9000"));
+
+        // when
+        TransactionDto transactionDto =
+                redisBalanceEngine.useBalance(1L, "1000000000", 1000L);
+
+        // then
+        verify(rScript, times(3)).evalSha(any(RScript.Mode.class), anyString(),
+                any(RScript.ReturnType.class), anyList(), any());
+        assertEquals(9000L, transactionDto.getBalanceSnapshot());
+    }
+
+    @Test
+    @DisplayName("잔액 부족 - 스크립트의 오류 코드를 그대로 사용")
+    void useBalance_amountExceedBalance() {
+        // given
+        givenScript();
+        given(rScript.<List<Object>>evalSha(any(RScript.Mode.class), anyString(),
+                any(RScript.ReturnType.class), anyList(), any()))
+                .willReturn(Collections.singletonList("AMOUNT_EXCEED_BALANCE"));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> redisBalanceEngine.useBalance(1L, "1000000000", 1000L));
+
+        // then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("스크립트의 모든 실패 사유를 오류 코드로 변환")
+    void useBalance_scriptErrors() {
+        // given
+        givenScript();
+        Map<String, ErrorCode> errors = new LinkedHashMap<>();
+        errors.put("USER_ACCOUNT_UNMATCH", ErrorCode.USER_ACCOUNT_UN_MATHCHED);
+        errors.put("ACCOUNT_ALREADY_UNREGISTERED", ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+        errors.put("AMOUNT_TOO_SMALL", ErrorCode.AMOUNT_TOO_SMALL);
+        errors.put("AMOUNT_TOO_BIG", ErrorCode.AMOUNT_TOO_BIG);
+        errors.put("AMOUNT_EXCEED_BALANCE", ErrorCode.AMOUNT_EXCEED_BALANCE);
+        errors.put("UNKNOWN", ErrorCode.INTERNAL_SERVER_ERROR);
+
+        for (Map.Entry<String, ErrorCode> error : errors.entrySet()) {
+            given(rScript.<List<Object>>evalSha(any(RScript.Mode.class), anyString(),
+                    any(RScript.ReturnType.class), anyList(), any()))
+                    .willReturn(Collections.singletonList(error.getKey()));
+
+            // when
+            AccountException exception = assertThrows(AccountException.class,
+                    () -> redisBalanceEngine.useBalance(1L, "1000000000", 1000L));
+
+            // then
+            assertEquals(error.getValue(), exception.getErrorCode(), error.getKey());
+        }
+    }
+
+    @Test
+    @DisplayName("해지 실패 사유를 오류 코드로 변환")
+    void unregister_balanceNotEmpty() {
+        // given
+        givenScript();
+        given(rScript.<List<Object>>evalSha(any(RScript.Mode.class), anyString(),
+                any(RScript.ReturnType.class), anyList(), any()))
+                .willReturn(Collections.singletonList("BALANCE_NOT_EMPTY"));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> redisBalanceEngine.unregister("1000000000"));
+
+        // then
+        assertEquals(ErrorCode.BALANCE_NOT_EMPTY, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("stream 기록을 저장하고 계좌 잔액을 마지막 기록으로 맞춘 뒤 ack")
+    void persist_success() {
+        // given
+        Account account = Account.builder()
+                .accountNumber("1000000000")
+                .balance(10_000L)
+                .build();
+        Map<StreamMessageId, Map<String, String>> messages = new LinkedHashMap<>();
+        messages.put(new StreamMessageId(1L, 1L), record("t2", "USE", "8000"));
+        messages.put(new StreamMessageId(1L, 0L), record("t1", "USE", "9000"));
+
+        given(redissonClient.<String, String>getStream(anyString(), any(Codec.class)))
+                .willReturn(stream);
+        given(stream.readGroup(eq("account-persister"), eq("account-1"), anyInt(), any()))
+                .willReturn(messages);
+        given(accountRepository.findAllByAccountNumberIn(any()))
+                .willReturn(Collections.singletonList(account));
+        given(transactionRepository.findTransactionIdsIn(any()))
+                .willReturn(Collections.singletonList("t1"));
+
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+
+        // when
+        redisBalanceEngine.persist();
+
+        // then
+        verify(transactionRepository, times(1)).saveAll(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals("t2", captor.getValue().get(0).getTransactionId());
+        assertEquals(8000L, account.getBalance());
+        verify(stream, times(1)).ack(eq("account-persister"), any());
+    }
+
+    @Test
+    @DisplayName("다른 consumer 가 ack 하지 못하고 오래 남은 기록을 가져와서 저장")
+    void persist_claimIdleFromOtherConsumer() {
+        // given
+        Account account = Account.builder()
+                .accountNumber("1000000000")
+                .balance(10_000L)
+                .build();
+        StreamMessageId stale = new StreamMessageId(1L, 0L);
+        StreamMessageId inFlight = new StreamMessageId(2L, 0L);
+        Map<StreamMessageId, Map<String, String>> claimed = new LinkedHashMap<>();
+        claimed.put(stale, record("t1", "USE", "9000"));
+
+        given(redissonClient.<String, String>getStream(anyString(), any(Codec.class)))
+                .willReturn(stream);
+        given(stream.readGroup(eq("account-persister"), eq("account-1"), anyInt(),
+                eq(StreamMessageId.ALL)))
+                .willReturn(Collections.emptyMap());
+        given(stream.listPending(eq("account-persister"), any(), any(), anyInt()))
+                .willReturn(Arrays.asList(
+                        new PendingEntry(stale, "account-2", 120_000L, 1L),
+                        new PendingEntry(inFlight, "account-3", 10L, 1L)));
+        given(stream.claim("account-persister", "account-1", 60_000L, TimeUnit.MILLISECONDS, stale))
+                .willReturn(claimed);
+        given(accountRepository.findAllByAccountNumberIn(any()))
+                .willReturn(Collections.singletonList(account));
+        given(transactionRepository.findTransactionIdsIn(any()))
+                .willReturn(Collections.emptyList());
+
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+
+        // when
+        redisBalanceEngine.persist();
+
+        // then
+        verify(transactionRepository, times(1)).saveAll(captor.capture());
+        assertEquals("t1", captor.getValue().get(0).getTransactionId());
+        assertEquals(9000L, account.getBalance());
+        verify(stream, times(1)).ack("account-persister", stale);
+        verify(stream, never()).readGroup(anyString(), anyString(), anyInt(),
+                eq(StreamMessageId.NEVER_DELIVERED));
+    }
+
+    private void givenScript() {
+        given(redissonClient.getScript(any(Codec.class)))
+                .willReturn(rScript);
+        given(rScript.scriptLoad(anyString()))
+                .willReturn("sha");
+    }
+
+    private Map<String, String> record(String transactionId, String transactionType,
+                                       String balance) {
+        Map<String, String> record = new LinkedHashMap<>();
+        record.put("transactionId", transactionId);
+        record.put("transactionType", transactionType);
+        record.put("accountNumber", "1000000000");
+        record.put("amount", "1000");
+        record.put("balance", balance);
+        record.put("transactedAt", LocalDateTime.now().toString());
+        return record;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Redis lock 상태 판단 테스트")
+class RedisLockHealthTest {
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("응답 시간 평균이 기준 이하면 Redis 유지")
+    void recordLatency_belowThreshold() {
+        RedisLockHealth health = new RedisLockHealth(true, 50L, 30L, 0.5);
+
+        health.recordLatency(10 * MILLIS);
+        health.recordLatency(30 * MILLIS);
+
+        assertFalse(health.isFailedOver());
+        assertEquals(20.0, health.getEwmaMillis(), 0.001);
+    }
+
+    @Test
+    @DisplayName("응답 시간 평균이 기준을 넘으면 DB lock 으로 전환")
+    void recordLatency_overThreshold() {
+        RedisLockHealth health = new RedisLockHealth(true, 50L, 30L, 0.5);
+
+        health.recordLatency(10 * MILLIS);
+        health.recordLatency(80 * MILLIS);
+        assertFalse(health.isFailedOver());
+        health.recordLatency(200 * MILLIS);
+
+        assertTrue(health.isFailedOver());
+        assertEquals(0.0, health.getEwmaMillis(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Redis 호출 실패 시 DB lock 으로 전환")
+    void recordFailure() {
+        RedisLockHealth health = new RedisLockHealth(true, 50L, 30L, 0.2);
+
+        health.recordFailure();
+
+        assertTrue(health.isFailedOver());
+    }
+
+    @Test
+    @DisplayName("사용하지 않도록 설정하면 전환하지 않음")
+    void disabled() {
+        RedisLockHealth health = new RedisLockHealth(false, 50L, 30L, 0.2);
+
+        health.recordFailure();
+        health.recordLatency(500 * MILLIS);
+
+        assertFalse(health.isFailedOver());
+    }
+
+    @Test
+    @DisplayName("cooldown 이 지나면 Redis 로 복귀")
+    void cooldown() {
+        RedisLockHealth health = new RedisLockHealth(true, 50L, 0L, 0.2);
+
+        health.recordFailure();
+
+        assertFalse(health.isFailedOver());
+    }
+}
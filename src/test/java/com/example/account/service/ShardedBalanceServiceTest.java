@@ -0,0 +1,156 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountUser;
+import com.example.account.dto.AccountMetadata;
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountBalanceShardRepository;
+import com.example.account.repository.AccountRepository;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.BalanceMode;
+import com.example.account.type.ErrorCode;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("분할 잔액 계좌 테스트")
+class ShardedBalanceServiceTest {
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private LockService lockService;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private AccountBalanceShardRepository accountBalanceShardRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final AccountCache accountCache = new AccountCache(100, false, null);
+
+    private ShardedBalanceService shardedBalanceService;
+
+    @BeforeEach
+    void setUp() {
+        shardedBalanceService = new ShardedBalanceService(transactionService, lockService,
+                new DatabaseLockService(accountRepository, null, lockService), accountCache, accountRepository, accountBalanceShardRepository,
+                transactionManager, BalanceMode.LOCK, 64, 2);
+    }
+
+    @Test
+    @DisplayName("shard 하나에서 차감 성공 - 해당 shard lock 만 잡는다")
+    void useBalance_singleShard() {
+        // given
+        givenShardedAccount(4);
+        given(transactionService.useBalanceSharded(anyLong(), anyString(), anyLong(), anyInt()))
+                .willReturn(TransactionDto.builder().transactionId("transactionId").build());
+
+        // when
+        TransactionDto transactionDto =
+                shardedBalanceService.useBalance(1L, "1000000000", 1000L);
+
+        // then
+        assertEquals("transactionId", transactionDto.getTransactionId());
+        verify(lockService, times(1)).lock(anyString());
+        verify(lockService, times(1)).unlock(anyString());
+        verify(transactionService, never()).useBalanceAcrossShards(anyLong(), anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("시도한 shard 가 모두 부족하면 모든 shard lock 을 한 번에 잡고 나눠서 차감")
+    void useBalance_borrowAcrossShards() {
+        // given
+        givenShardedAccount(3);
+        given(transactionService.useBalanceSharded(anyLong(), anyString(), anyLong(), anyInt()))
+                .willThrow(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+        given(transactionService.useBalanceAcrossShards(1L, "1000000000", 1000L))
+                .willReturn(TransactionDto.builder().transactionId("transactionId").build());
+
+        // when
+        TransactionDto transactionDto =
+                shardedBalanceService.useBalance(1L, "1000000000", 1000L);
+
+        // then
+        assertEquals("transactionId", transactionDto.getTransactionId());
+        verify(transactionService, times(2))
+                .useBalanceSharded(anyLong(), anyString(), anyLong(), anyInt());
+        List<String> lockNames = List.of("1000000000:0", "1000000000:1", "1000000000:2");
+        InOrder inOrder = inOrder(lockService, transactionService);
+        inOrder.verify(lockService).lockAll(lockNames);
+        inOrder.verify(transactionService).useBalanceAcrossShards(1L, "1000000000", 1000L);
+        inOrder.verify(lockService).unlockAll(lockNames);
+    }
+
+    @Test
+    @DisplayName("분할하지 않은 계좌")
+    void isSharded_notSharded() {
+        // given
+        givenShardedAccount(0);
+
+        // when
+        // then
+        assertFalse(shardedBalanceService.isSharded("1000000000"));
+    }
+
+    @Test
+    @DisplayName("원장 모드에서는 분할할 수 없다")
+    void shardAccount_ledgerMode() {
+        // given
+        ShardedBalanceService ledgerMode = new ShardedBalanceService(transactionService,
+                lockService, new DatabaseLockService(accountRepository, null, lockService),
+                accountCache, accountRepository, accountBalanceShardRepository,
+                transactionManager, BalanceMode.LEDGER, 64, 2);
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> ledgerMode.shardAccount("1000000000", 4));
+
+        // then
+        assertEquals(ErrorCode.INVALID_REQUEST, exception.getErrorCode());
+        verify(lockService, never()).lock(anyString());
+        verify(accountBalanceShardRepository, never()).saveAll(any());
+    }
+
+    private void givenShardedAccount(int shardCount) {
+        AccountUser accountUser = AccountUser.builder()
+                .name("Kim")
+                .build();
+        accountUser.setId(1L);
+
+        accountCache.get("1000000000", () -> Optional.of(AccountMetadata.from(
+                Account.builder()
+                        .id(12L)
+                        .accountUser(accountUser)
+                        .accountStatus(AccountStatus.IN_USE)
+                        .balance(0L)
+                        .shardCount(shardCount)
+                        .accountNumber("1000000000")
+                        .build())));
+    }
+}
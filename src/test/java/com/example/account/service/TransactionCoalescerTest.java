@@ -0,0 +1,125 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.account.dto.BalanceOperation;
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("계좌별 요청 모음 처리 테스트")
+class TransactionCoalescerTest {
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private LockService lockService;
+
+    private TransactionCoalescer transactionCoalescer;
+
+    @BeforeEach
+    void setUp() {
+        transactionCoalescer = new TransactionCoalescer(
+                transactionService, lockService, new DatabaseLockService(null, null, lockService),
+                new HotAccountTracker(16, 10, 50),
+                true, false, 2, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionCoalescer.shutdown();
+    }
+
+    @Test
+    @DisplayName("요청마다 자신의 결과를 받음")
+    void submit_success() {
+        // given
+        given(transactionService.applyBatch(anyList()))
+                .willAnswer(invocation -> {
+                    List<BalanceOperation> operations = invocation.getArgument(0);
+                    List<BalanceOperation.Result> results = new ArrayList<>();
+                    for (BalanceOperation operation : operations) {
+                        results.add(BalanceOperation.Result.success(TransactionDto.builder()
+                                .accountNumber(operation.getAccountNumber())
+                                .transactionResultType(TransactionResultType.S)
+                                .amount(operation.getAmount())
+                                .build()));
+                    }
+                    return results;
+                });
+
+        // when
+        CompletableFuture<TransactionDto> first = transactionCoalescer.submit(
+                BalanceOperation.use(1L, "1000000000", 100L));
+        CompletableFuture<TransactionDto> second = transactionCoalescer.submit(
+                BalanceOperation.use(1L, "1000000000", 200L));
+
+        // then
+        assertEquals(100L, transactionCoalescer.await(first).getAmount());
+        assertEquals(200L, transactionCoalescer.await(second).getAmount());
+        verify(lockService, atLeastOnce()).lock("1000000000");
+        verify(lockService, atLeastOnce()).unlock("1000000000");
+    }
+
+    @Test
+    @DisplayName("실패한 요청은 원래 오류로 실패")
+    void submit_failure() {
+        // given
+        given(transactionService.applyBatch(anyList()))
+                .willAnswer(invocation -> {
+                    List<BalanceOperation> operations = invocation.getArgument(0);
+                    List<BalanceOperation.Result> results = new ArrayList<>();
+                    for (int i = 0; i < operations.size(); i++) {
+                        results.add(BalanceOperation.Result.failure(
+                                new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE)));
+                    }
+                    return results;
+                });
+
+        // when
+        CompletableFuture<TransactionDto> future = transactionCoalescer.submit(
+                BalanceOperation.use(1L, "1000000000", 100L));
+
+        // then
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionCoalescer.await(future));
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("lock 획득 실패 - 모인 요청 모두 실패")
+    void submit_lockTimeout() {
+        // given
+        willThrow(new AccountException(ErrorCode.LOCK_TIMEOUT))
+                .given(lockService).lock(anyString());
+
+        // when
+        CompletableFuture<TransactionDto> future = transactionCoalescer.submit(
+                BalanceOperation.use(1L, "1000000000", 100L));
+
+        // then
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionCoalescer.await(future));
+        assertEquals(ErrorCode.LOCK_TIMEOUT, exception.getErrorCode());
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.account.dto.AccountMetadata;
+import com.example.account.dto.TransactionHistoryRow;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("거래 내역 스트리밍 테스트")
+class TransactionHistoryServiceTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionHistoryService transactionHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        transactionHistoryService = new TransactionHistoryService(
+                transactionRepository,
+                accountRepository,
+                new AccountCache(100, false, null),
+                transactionManager,
+                new ObjectMapper().findAndRegisterModules(),
+                2);
+    }
+
+    @Test
+    @DisplayName("keyset 으로 다음 페이지를 이어서 조회")
+    void export_keysetPages() throws Exception {
+        // given
+        given(transactionRepository.streamHistory(eq(1L), any(Pageable.class)))
+                .willReturn(Stream.of(row(10L, NOW), row(11L, NOW)));
+        given(transactionRepository.streamHistoryAfter(
+                eq(1L), eq(NOW), eq(11L), any(Pageable.class)))
+                .willReturn(Stream.of(row(12L, NOW.plusSeconds(1))));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        transactionHistoryService.export(new AccountMetadata(
+                1L, "1000000000", 1L, AccountStatus.IN_USE), out);
+
+        // then
+        verify(transactionRepository, times(1))
+                .streamHistoryAfter(eq(1L), eq(NOW), eq(11L), any(Pageable.class));
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("\"transactionId\":\"transactionId10\""));
+        assertTrue(lines[2].contains("\"accountNumber\":\"1000000000\""));
+    }
+
+    private TransactionHistoryRow row(Long id, LocalDateTime transactedAt) {
+        return new TransactionHistoryRow(id, TransactionType.USE, TransactionResultType.S,
+                "transactionId" + id, 1000L, transactedAt);
+    }
+}
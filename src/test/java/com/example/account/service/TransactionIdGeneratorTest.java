@@ -0,0 +1,50 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("거래 ID 생성 테스트")
+class TransactionIdGeneratorTest {
+    private final TransactionIdGenerator transactionIdGenerator = new TransactionIdGenerator(1);
+
+    @Test
+    @DisplayName("32자리 hex, UUIDv7 version 과 variant")
+    void generate_format() {
+        String transactionId = transactionIdGenerator.generate();
+
+        assertTrue(transactionId.matches("[0-9a-f]{32}"));
+        assertEquals('7', transactionId.charAt(12));
+        assertTrue("89ab".indexOf(transactionId.charAt(16)) >= 0);
+    }
+
+    @Test
+    @DisplayName("생성 순서대로 정렬됨")
+    void generate_monotonic() {
+        String previous = transactionIdGenerator.generate();
+        for (int i = 0; i < 10_000; i++) {
+            String next = transactionIdGenerator.generate();
+            assertTrue(previous.compareTo(next) < 0);
+            previous = next;
+        }
+    }
+
+    @Test
+    @DisplayName("BINARY(16) 변환 왕복")
+    void toBytes_roundTrip() {
+        String transactionId = transactionIdGenerator.generate();
+
+        byte[] bytes = TransactionIdGenerator.toBytes(transactionId);
+
+        assertEquals(16, bytes.length);
+        assertEquals(transactionId, TransactionIdGenerator.toHex(bytes));
+    }
+
+    @Test
+    @DisplayName("형식이 다른 ID 는 null")
+    void toBytes_malformed() {
+        assertNull(TransactionIdGenerator.toBytes("transactionId"));
+        assertNull(TransactionIdGenerator.toBytes("zz0536ae1d048e5be89e8c11815ce33f"));
+    }
+}
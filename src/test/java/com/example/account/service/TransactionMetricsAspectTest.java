@@ -0,0 +1,87 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("거래 처리 시간 지표 테스트")
+class TransactionMetricsAspectTest {
+    @Mock
+    private AccountMetrics accountMetrics;
+
+    @Mock
+    private ProceedingJoinPoint proceedingJoinPoint;
+
+    @Mock
+    private Signature signature;
+
+    @InjectMocks
+    private TransactionMetricsAspect transactionMetricsAspect;
+
+    @BeforeEach
+    void setUp() {
+        given(proceedingJoinPoint.getSignature()).willReturn(signature);
+        given(signature.getName()).willReturn("useBalance");
+    }
+
+    @Test
+    @DisplayName("반환한 거래의 결과 타입으로 기록")
+    void aroundMethod_resultFromDto() throws Throwable {
+        // given
+        given(proceedingJoinPoint.proceed()).willReturn(TransactionDto.builder()
+                .transactionResultType(TransactionResultType.F)
+                .build());
+
+        // when
+        transactionMetricsAspect.aroundMethod(proceedingJoinPoint);
+
+        // then
+        verify(accountMetrics).recordTransaction(eq("useBalance"), eq("F"), anyLong());
+    }
+
+    @Test
+    @DisplayName("예외로 끝나면 F")
+    void aroundMethod_exception() throws Throwable {
+        // given
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+
+        // when
+        assertThrows(AccountException.class,
+                () -> transactionMetricsAspect.aroundMethod(proceedingJoinPoint));
+
+        // then
+        verify(accountMetrics).recordTransaction(eq("useBalance"), eq("F"), anyLong());
+    }
+
+    @Test
+    @DisplayName("결과 타입이 없는 반환값은 S")
+    void aroundMethod_noResultType() throws Throwable {
+        // given
+        given(proceedingJoinPoint.proceed()).willReturn(true);
+
+        // when
+        transactionMetricsAspect.aroundMethod(proceedingJoinPoint);
+
+        // then
+        verify(accountMetrics).recordTransaction(eq("useBalance"), eq("S"), anyLong());
+    }
+}
@@ -2,33 +2,57 @@ package com.example.account.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
 
 import com.example.account.domain.Account;
+import com.example.account.domain.AccountBalanceShard;
 import com.example.account.domain.AccountUser;
+import com.example.account.domain.BalanceHold;
 import com.example.account.domain.Transaction;
+import com.example.account.dto.AccountMetadata;
+import com.example.account.dto.BalanceOperation;
+import com.example.account.dto.HoldDto;
 import com.example.account.dto.TransactionDto;
+import com.example.account.dto.Transfer;
 import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountBalanceShardRepository;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.BalanceHoldRepository;
+import com.example.account.repository.TransactionOutboxRepository;
 import com.example.account.repository.TransactionRepository;
 import com.example.account.type.AccountStatus;
+import com.example.account.type.BalanceMode;
 import com.example.account.type.ErrorCode;
+import com.example.account.type.HoldStatus;
 import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
 
@@ -49,6 +73,43 @@ class TransactionServiceTest {
     @Mock
     private AccountRepository accountRepository;
 
+    @Spy
+    private TransactionCache transactionCache =
+            new TransactionCache(100, false, 0, null);
+
+    @Mock
+    private FailedTransactionWriter failedTransactionWriter;
+
+    @Spy
+    private AccountCache accountCache = new AccountCache(100, false, null);
+
+    @Spy
+    private TransactionIdGenerator transactionIdGenerator = new TransactionIdGenerator(1);
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private AccountBalanceShardRepository accountBalanceShardRepository;
+
+    @Mock
+    private RedisBalanceEngine redisBalanceEngine;
+
+    @Mock
+    private TransactionOutboxRepository transactionOutboxRepository;
+
+    @Mock
+    private BalanceHoldRepository balanceHoldRepository;
+
+    @Mock
+    private DatabaseLockService databaseLockService;
+
+    @Mock
+    private LockService lockService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -170,7 +231,7 @@ class TransactionServiceTest {
                 () -> transactionService.useBalance(1L, "10000000000", 1000L));
 
         // then
-        assertEquals(ErrorCode.USER_ACCOUNT_UNMATCH, exception.getErrorCode());
+        assertEquals(ErrorCode.USER_ACCOUNT_UN_MATHCHED, exception.getErrorCode());
     }
 
     @Test
@@ -204,6 +265,43 @@ class TransactionServiceTest {
         assertEquals(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED, exception.getErrorCode());
     }
 
+    @Test
+    @DisplayName("잔액 사용 - 캐시는 사용 중이지만 다른 노드에서 해지된 계좌")
+    void useBalance_unregisteredAfterCached() {
+        // given
+        AccountUser accountUser = AccountUser.builder()
+                .name("Kim")
+                .build();
+        accountUser.setId(1L);
+
+        accountCache.get("1000000000", () -> Optional.of(AccountMetadata.builder()
+                .id(1L)
+                .accountNumber("1000000000")
+                .ownerId(1L)
+                .accountStatus(AccountStatus.IN_USE)
+                .build()));
+
+        Account account = Account.builder()
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.UNREGISTERD)
+                .balance(10_000L)
+                .accountNumber("1000000000")
+                .build();
+
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(accountUser));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.useBalance(1L, "1000000000", 1000L));
+
+        // then
+        assertEquals(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED, exception.getErrorCode());
+        verify(transactionRepository, never()).save(any());
+    }
+
     @Test
     @DisplayName("잔액 사용 - 거래 금액이 잔액보다 큰 경우")
     void useBalance_amountExceedBalance() {
@@ -297,6 +395,385 @@ class TransactionServiceTest {
         assertEquals(ErrorCode.AMOUNT_TOO_BIG, exception.getErrorCode());
     }
 
+    @Test
+    @DisplayName("잔액 사용 - 조건부 UPDATE 성공")
+    void useBalanceAtomically_success() {
+        // given
+        AccountUser accountUser = AccountUser.builder()
+                .name("Kim")
+                .build();
+        accountUser.setId(1L);
+
+        Account account = Account.builder()
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10_000L)
+                .accountNumber("1000000000")
+                .build();
+
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(accountUser));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(accountRepository.decreaseBalance(anyString(), anyLong()))
+                .willReturn(1);
+        given(accountRepository.findBalanceByAccountNumber(anyString()))
+                .willReturn(Optional.of(9_100L));
+        given(transactionRepository.save(any()))
+                .willReturn(Transaction.builder()
+                        .transactionType(TransactionType.USE)
+                        .transactionResultType(TransactionResultType.S)
+                        .account(account)
+                        .transactionId("transactionId")
+                        .transactedAt(LocalDateTime.now())
+                        .build());
+
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+
+        // when
+        transactionService.useBalanceAtomically(1L, "1000000000", 900L);
+
+        // then
+        verify(transactionRepository, times(1)).save(captor.capture());
+        assertEquals(900L, captor.getValue().getAmount());
+        assertEquals(9_100L, captor.getValue().getBalanceSnapshot());
+        assertEquals(10_000L, account.getBalance());
+    }
+
+    @Test
+    @DisplayName("잔액 사용 - 원장 모드는 계좌 잔액을 바꾸지 않고 순번을 붙인 거래만 추가")
+    void useBalanceLedger_success() {
+        // given
+        AccountUser accountUser = AccountUser.builder()
+                .name("Kim")
+                .build();
+        accountUser.setId(1L);
+
+        Account account = Account.builder()
+                .id(12L)
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10_000L)
+                .accountNumber("1000000000")
+                .build();
+
+        LedgerService.Position position = new LedgerService.Position(7L, 8_000L, 5L);
+
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(accountUser));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(ledgerService.getPosition(12L))
+                .willReturn(position);
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+
+        // when
+        transactionService.useBalanceLedger(1L, "1000000000", 1_000L);
+
+        // then
+        verify(transactionRepository, times(1)).save(captor.capture());
+        assertEquals(8L, captor.getValue().getLedgerSequence());
+        assertEquals(7_000L, captor.getValue().getBalanceSnapshot());
+        verify(ledgerService, times(1))
+                .appended(12L, "1000000000", position, 8L, 7_000L);
+        verify(accountRepository, never()).decreaseBalance(anyString(), anyLong());
+        assertEquals(10_000L, account.getBalance());
+    }
+
+    @Test
+    @DisplayName("잔액 사용 - 분할 잔액 계좌, 잔액이 많은 shard 부터 나눠서 차감")
+    void useBalanceAcrossShards_success() {
+        // given
+        AccountUser accountUser = AccountUser.builder()
+                .name("Kim")
+                .build();
+        accountUser.setId(1L);
+
+        Account account = Account.builder()
+                .id(12L)
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(0L)
+                .shardCount(3)
+                .accountNumber("1000000000")
+                .build();
+
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(accountUser));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(accountBalanceShardRepository.findAllByAccountIdOrderByShardIndex(12L))
+                .willReturn(Arrays.asList(
+                        AccountBalanceShard.builder().shardIndex(0).balance(300L).build(),
+                        AccountBalanceShard.builder().shardIndex(1).balance(500L).build(),
+                        AccountBalanceShard.builder().shardIndex(2).balance(200L).build()));
+        given(accountBalanceShardRepository.decreaseBalance(anyLong(), any(), anyLong()))
+                .willReturn(1);
+        given(accountRepository.getReferenceById(12L))
+                .willReturn(account);
+        given(accountRepository.findBalanceByAccountNumber("1000000000"))
+                .willReturn(Optional.of(300L));
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        // when
+        TransactionDto transactionDto =
+                transactionService.useBalanceAcrossShards(1L, "1000000000", 700L);
+
+        // then
+        verify(accountBalanceShardRepository, times(1)).decreaseBalance(12L, 1, 500L);
+        verify(accountBalanceShardRepository, times(1)).decreaseBalance(12L, 0, 200L);
+        verify(accountBalanceShardRepository, never()).decreaseBalance(12L, 2, 200L);
+        assertEquals(300L, transactionDto.getBalanceSnapshot());
+        assertEquals(700L, transactionDto.getAmount());
+    }
+
+    @Test
+    @DisplayName("잔액 사용 - 분할 잔액 계좌, 중간에 차감이 실패하면 앞서 차감한 shard 를 되돌린다")
+    void useBalanceAcrossShards_restoreOnConflict() {
+        // given
+        AccountUser accountUser = AccountUser.builder()
+                .name("Kim")
+                .build();
+        accountUser.setId(1L);
+
+        Account account = Account.builder()
+                .id(12L)
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(0L)
+                .shardCount(3)
+                .accountNumber("1000000000")
+                .build();
+
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(accountUser));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(accountBalanceShardRepository.findAllByAccountIdOrderByShardIndex(12L))
+                .willReturn(Arrays.asList(
+                        AccountBalanceShard.builder().shardIndex(0).balance(300L).build(),
+                        AccountBalanceShard.builder().shardIndex(1).balance(500L).build(),
+                        AccountBalanceShard.builder().shardIndex(2).balance(200L).build()));
+        given(accountBalanceShardRepository.decreaseBalance(12L, 0, 200L))
+                .willReturn(1);
+        given(accountBalanceShardRepository.decreaseBalance(12L, 1, 500L))
+                .willReturn(0);
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.useBalanceAcrossShards(1L, "1000000000", 700L));
+
+        // then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        verify(accountBalanceShardRepository, times(1)).increaseBalance(12L, 0, 200L);
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("잔액 사용 - 조건부 UPDATE 잔액 부족")
+    void useBalanceAtomically_amountExceedBalance() {
+        // given
+        AccountUser accountUser = AccountUser.builder()
+                .name("Kim")
+                .build();
+        accountUser.setId(1L);
+
+        Account account = Account.builder()
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10_000L)
+                .accountNumber("1000000000")
+                .build();
+
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(accountUser));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(accountRepository.decreaseBalance(anyString(), anyLong()))
+                .willReturn(0);
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.useBalanceAtomically(1L, "1000000000", 900L));
+
+        // then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("계좌 이체 - 계좌 번호 순서로 변경하고 출금/입금 거래를 한 쌍으로 저장")
+    void transfer_success() {
+        // given
+        AccountUser accountUser = AccountUser.builder()
+                .name("Kim")
+                .build();
+        accountUser.setId(1L);
+
+        Account from = Account.builder()
+                .id(12L)
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10_000L)
+                .accountNumber("2000000000")
+                .build();
+        Account to = Account.builder()
+                .id(13L)
+                .accountUser(AccountUser.builder().id(2L).build())
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(0L)
+                .accountNumber("1000000000")
+                .build();
+
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(accountUser));
+        given(accountRepository.findByAccountNumber("2000000000"))
+                .willReturn(Optional.of(from));
+        given(accountRepository.findByAccountNumber("1000000000"))
+                .willReturn(Optional.of(to));
+        given(accountRepository.increaseBalance("1000000000", 900L))
+                .willReturn(1);
+        given(accountRepository.decreaseBalance("2000000000", 900L))
+                .willReturn(1);
+        given(accountRepository.getReferenceById(12L))
+                .willReturn(from);
+        given(accountRepository.getReferenceById(13L))
+                .willReturn(to);
+        given(accountRepository.findBalanceByAccountNumber("2000000000"))
+                .willReturn(Optional.of(9_100L));
+        given(accountRepository.findBalanceByAccountNumber("1000000000"))
+                .willReturn(Optional.of(900L));
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+
+        // when
+        Transfer.Response response =
+                transactionService.transfer(1L, "2000000000", "1000000000", 900L);
+
+        // then
+        InOrder inOrder = inOrder(accountRepository);
+        inOrder.verify(accountRepository).increaseBalance("1000000000", 900L);
+        inOrder.verify(accountRepository).decreaseBalance("2000000000", 900L);
+        verify(transactionRepository, times(2)).save(captor.capture());
+        assertEquals(TransactionType.TRANSFER_OUT, captor.getAllValues().get(0).getTransactionType());
+        assertEquals(TransactionType.TRANSFER_IN, captor.getAllValues().get(1).getTransactionType());
+        assertEquals(900L, captor.getAllValues().get(1).getBalanceSnapshot());
+        assertEquals(9_100L, response.getBalance());
+        assertEquals("1000000000", response.getToAccountNumber());
+    }
+
+    @Test
+    @DisplayName("계좌 이체 - 같은 계좌로는 이체할 수 없음")
+    void transfer_sameAccount() {
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.transfer(1L, "1000000000", "1000000000", 900L));
+
+        // then
+        assertEquals(ErrorCode.INVALID_REQUEST, exception.getErrorCode());
+        verify(accountRepository, never()).decreaseBalance(anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("승인 - 사용 가능 잔액이 부족하면 실패")
+    void authorizeHold_amountExceedBalance() {
+        // given
+        AccountUser accountUser = AccountUser.builder()
+                .name("Kim")
+                .build();
+        accountUser.setId(1L);
+
+        Account account = Account.builder()
+                .id(12L)
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(1_000L)
+                .heldAmount(800L)
+                .accountNumber("1000000000")
+                .build();
+
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(accountUser));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(accountRepository.holdBalance("1000000000", 500L))
+                .willReturn(0);
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.authorizeHold(
+                        1L, "1000000000", 500L, LocalDateTime.now().plusMinutes(1)));
+
+        // then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        verify(balanceHoldRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("부분 매입 - 승인 금액을 모두 풀고 매입 금액만 차감")
+    void captureHold_partial() {
+        // given
+        Account account = Account.builder()
+                .id(12L)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10_000L)
+                .accountNumber("1000000000")
+                .build();
+        BalanceHold hold = BalanceHold.builder()
+                .holdId("holdId")
+                .account(account)
+                .amount(1_000L)
+                .holdStatus(HoldStatus.AUTHORIZED)
+                .expiresAt(LocalDateTime.now().plusMinutes(1))
+                .build();
+        hold.setId(7L);
+
+        given(balanceHoldRepository.findByHoldId("holdId"))
+                .willReturn(Optional.of(hold));
+        given(balanceHoldRepository.close(eq(7L), eq(HoldStatus.CAPTURED), eq(600L), any()))
+                .willReturn(1);
+        given(accountRepository.findBalanceByAccountNumber("1000000000"))
+                .willReturn(Optional.of(9_400L));
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        // when
+        HoldDto holdDto = transactionService.captureHold("holdId", 600L);
+
+        // then
+        verify(accountRepository, times(1)).releaseHold(12L, 1_000L, 600L);
+        assertEquals(HoldStatus.CAPTURED, holdDto.getHoldStatus());
+        assertEquals(600L, holdDto.getCapturedAmount());
+        assertEquals(9_400L, holdDto.getBalanceSnapshot());
+        assertNotNull(holdDto.getTransactionId());
+    }
+
+    @Test
+    @DisplayName("매입 - 만료 시각이 지난 승인은 매입할 수 없음")
+    void captureHold_expired() {
+        // given
+        given(balanceHoldRepository.findByHoldId("holdId"))
+                .willReturn(Optional.of(BalanceHold.builder()
+                        .holdId("holdId")
+                        .amount(1_000L)
+                        .holdStatus(HoldStatus.AUTHORIZED)
+                        .expiresAt(LocalDateTime.now().minusSeconds(1))
+                        .build()));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.captureHold("holdId", null));
+
+        // then
+        assertEquals(ErrorCode.HOLD_ALREADY_CLOSED, exception.getErrorCode());
+        verify(accountRepository, never()).releaseHold(anyLong(), anyLong(), anyLong());
+    }
+
     @Test
     @DisplayName("잔액 취소 - 성공")
     void cancelBalance_success() {
@@ -322,8 +799,8 @@ class TransactionServiceTest {
                 .balanceSnapshot(9000L)
                 .build();
 
-        given(transactionRepository.findByTransactionId(anyString()))
-                .willReturn(Optional.of(transaction));
+        given(transactionRepository.findDtoByTransactionId(anyString()))
+                .willReturn(Optional.of(TransactionDto.fromEntity(transaction)));
 
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
@@ -359,7 +836,7 @@ class TransactionServiceTest {
     @DisplayName("잔액 취소 - 존재하지 않는 거래")
     void cancelBalance_transactionNotFound() {
         // given
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findDtoByTransactionId(anyString()))
                 .willReturn(Optional.empty())
         ;
 
@@ -375,10 +852,15 @@ class TransactionServiceTest {
     @DisplayName("잔액 취소 - 해당 계좌 없음")
     void cancelBalance_accountNotFound() {
         // given
-        Transaction transaction = Transaction.builder().build();
+        Transaction transaction = Transaction.builder()
+                .account(Account.builder()
+                        .accountNumber("1000000000")
+                        .build())
+                .amount(10000L)
+                .build();
 
-        given(transactionRepository.findByTransactionId(anyString()))
-                .willReturn(Optional.of(transaction));
+        given(transactionRepository.findDtoByTransactionId(anyString()))
+                .willReturn(Optional.of(TransactionDto.fromEntity(transaction)));
 
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.empty());
@@ -417,8 +899,8 @@ class TransactionServiceTest {
                 .balanceSnapshot(9000L)
                 .build();
 
-        given(transactionRepository.findByTransactionId(anyString()))
-                .willReturn(Optional.of(transaction));
+        given(transactionRepository.findDtoByTransactionId(anyString()))
+                .willReturn(Optional.of(TransactionDto.fromEntity(transaction)));
 
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
@@ -432,7 +914,7 @@ class TransactionServiceTest {
         );
 
         // then
-        assertEquals(ErrorCode.CANCEL_AMOUNT_UNMATCH, exception.getErrorCode());
+        assertEquals(ErrorCode.CANCEL_MUST_FULLY, exception.getErrorCode());
     }
 
     @Test
@@ -461,8 +943,8 @@ class TransactionServiceTest {
                 .balanceSnapshot(9000L)
                 .build();
 
-        given(transactionRepository.findByTransactionId(anyString()))
-                .willReturn(Optional.of(transaction));
+        given(transactionRepository.findDtoByTransactionId(anyString()))
+                .willReturn(Optional.of(TransactionDto.fromEntity(transaction)));
 
         // when
         TransactionDto transactionDto = transactionService.queryTransactionId("trxId");
@@ -474,11 +956,40 @@ class TransactionServiceTest {
         assertEquals("transactionId", transactionDto.getTransactionId());
     }
 
+    @Test
+    @DisplayName("거래 확인 - 두 번째 조회는 캐시에서")
+    void queryTransaction_cached() {
+        // given
+        Account account = Account.builder()
+                .accountNumber("1000000012")
+                .build();
+
+        Transaction transaction = Transaction.builder()
+                .account(account)
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .transactionId("transactionId")
+                .amount(CANCEL_AMOUNT)
+                .build();
+
+        given(transactionRepository.findDtoByTransactionId(anyString()))
+                .willReturn(Optional.of(TransactionDto.fromEntity(transaction)));
+
+        // when
+        transactionService.queryTransactionId("transactionId");
+        TransactionDto transactionDto = transactionService.queryTransactionId("transactionId");
+
+        // then
+        verify(transactionRepository, times(1)).findDtoByTransactionId("transactionId");
+        assertEquals(1L, transactionCache.getLocalStats().hitCount());
+        assertEquals("transactionId", transactionDto.getTransactionId());
+    }
+
     @Test
     @DisplayName("거래 확인 - 원 거래 없음")
     void queryTransaction_transactionNotFound() {
         // given
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findDtoByTransactionId(anyString()))
                 .willReturn(Optional.empty());
 
         // when
@@ -488,4 +999,126 @@ class TransactionServiceTest {
         // then
         assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, exception.getErrorCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("배치 처리 - 예상하지 못한 오류가 난 요청만 실패하고 나머지는 다시 처리")
+    void applyBatch_unexpectedErrorFailsOnlyThatItem() {
+        // given
+        AccountUser accountUser = AccountUser.builder()
+                .name("Kim")
+                .build();
+        accountUser.setId(1L);
+
+        Account account = Account.builder()
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10_000L)
+                .accountNumber("1000000000")
+                .build();
+
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(accountUser));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> {
+                    Transaction transaction = invocation.getArgument(0);
+                    if (transaction.getAmount() == 200L
+                            && transaction.getTransactionResultType() == TransactionResultType.S) {
+                        throw new DataIntegrityViolationException("duplicate key");
+                    }
+                    return transaction;
+                });
+
+        // when
+        List<BalanceOperation.Result> results = transactionService.applyBatch(List.of(
+                BalanceOperation.use(1L, "1000000000", 100L),
+                BalanceOperation.use(1L, "1000000000", 200L),
+                BalanceOperation.use(1L, "1000000000", 300L)));
+
+        // then
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals(ErrorCode.INTERNAL_SERVER_ERROR,
+                results.get(1).getException().getErrorCode());
+        assertTrue(results.get(2).isSuccess());
+        assertEquals(300L, results.get(2).getTransaction().getAmount());
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionRepository, times(1)).save(argThat(transaction ->
+                transaction.getTransactionResultType() == TransactionResultType.F));
+    }
+
+    @Test
+    @DisplayName("배치 - 다시 처리해도 실패 거래는 한 번만 기록")
+    void applyBatch_failureRecordedOnceAcrossRetries() {
+        // given
+        AccountUser accountUser = AccountUser.builder()
+                .name("Kim")
+                .build();
+        accountUser.setId(1L);
+
+        Account account = Account.builder()
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(1_000L)
+                .accountNumber("1000000000")
+                .build();
+
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(accountUser));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(failedTransactionWriter.isEnabled()).willReturn(true);
+        given(failedTransactionWriter.append(any(), any(), anyString(), anyLong()))
+                .willReturn(true);
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> {
+                    Transaction transaction = invocation.getArgument(0);
+                    if (transaction.getAmount() == 20L) {
+                        throw new DataIntegrityViolationException("duplicate key");
+                    }
+                    return transaction;
+                });
+
+        // when : 두 번째 요청은 잔액 부족, 세 번째 요청 때문에 배치를 다시 처리한다.
+        List<BalanceOperation.Result> results = transactionService.applyBatch(List.of(
+                BalanceOperation.use(1L, "1000000000", 100L),
+                BalanceOperation.use(1L, "1000000000", 5_000L),
+                BalanceOperation.use(1L, "1000000000", 20L)));
+
+        // then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE,
+                results.get(1).getException().getErrorCode());
+        assertFalse(results.get(2).isSuccess());
+        verify(failedTransactionWriter, times(1)).append(
+                TransactionType.USE, TransactionResultType.F, "1000000000", 5_000L);
+        verify(failedTransactionWriter, times(1)).append(
+                TransactionType.USE, TransactionResultType.F, "1000000000", 20L);
+    }
+
+    @Test
+    @DisplayName("배치 - REDIS_LUA 모드에서 커밋이 실패해도 Redis 에 다시 반영하지 않음")
+    void applyBatch_redisLuaCommitFailedNotReplayed() {
+        // given
+        ReflectionTestUtils.setField(transactionService, "balanceMode", BalanceMode.REDIS_LUA);
+        given(redisBalanceEngine.useBalance(anyLong(), anyString(), anyLong()))
+                .willAnswer(invocation -> TransactionDto.builder()
+                        .accountNumber(invocation.getArgument(1))
+                        .transactionResultType(TransactionResultType.S)
+                        .amount(invocation.getArgument(2))
+                        .build());
+        willThrow(new TransactionSystemException("commit failed"))
+                .given(transactionManager).commit(any());
+
+        // when
+        List<BalanceOperation.Result> results = transactionService.applyBatch(List.of(
+                BalanceOperation.use(1L, "1000000000", 100L),
+                BalanceOperation.use(1L, "1000000000", 200L)));
+
+        // then
+        assertTrue(results.get(0).isSuccess());
+        assertTrue(results.get(1).isSuccess());
+        verify(redisBalanceEngine, times(1)).useBalance(1L, "1000000000", 100L);
+        verify(redisBalanceEngine, times(1)).useBalance(1L, "1000000000", 200L);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.account.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.account.dto.Transfer;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.type.BalanceMode;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("계좌 이체 테스트")
+class TransferServiceTest {
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private LockService lockService;
+
+    @Mock
+    private AccountLockPolicy accountLockPolicy;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private AccountMetrics accountMetrics;
+
+    private DatabaseLockService databaseLockService;
+
+    @BeforeEach
+    void setUp() {
+        databaseLockService =
+                new DatabaseLockService(accountRepository, accountMetrics, lockService);
+    }
+
+    @Test
+    @DisplayName("계좌 lock 방식 - 두 계좌 lock 을 한 번에 잡고 이체")
+    void transfer_lockAll() {
+        // given
+        TransferService transferService = new TransferService(
+                transactionService, lockService, databaseLockService, accountLockPolicy, BalanceMode.LOCK);
+
+        // when
+        transferService.transfer(1L, "2000000000", "1000000000", 1000L);
+
+        // then
+        InOrder inOrder = inOrder(lockService, transactionService);
+        inOrder.verify(lockService).lockAll(List.of("2000000000", "1000000000"));
+        inOrder.verify(transactionService).transfer(1L, "2000000000", "1000000000", 1000L);
+        inOrder.verify(lockService).unlockAll(List.of("2000000000", "1000000000"));
+    }
+
+    @Test
+    @DisplayName("row lock 이 필요한 방식 - 이체 트랜잭션에서 두 계좌 row 도 잠금")
+    void transfer_rowLockRequired() {
+        // given
+        TransferService transferService = new TransferService(
+                transactionService, lockService, databaseLockService, accountLockPolicy,
+                BalanceMode.LEDGER);
+        given(lockService.isRowLockRequired()).willReturn(true);
+        given(transactionService.transfer(1L, "2000000000", "1000000000", 1000L))
+                .willAnswer(invocation -> {
+                    databaseLockService.lockIfRequired("1000000000");
+                    databaseLockService.lockIfRequired("2000000000");
+                    return null;
+                });
+
+        // when
+        transferService.transfer(1L, "2000000000", "1000000000", 1000L);
+
+        // then
+        InOrder inOrder = inOrder(lockService, accountRepository);
+        inOrder.verify(lockService).lockAll(List.of("2000000000", "1000000000"));
+        inOrder.verify(accountRepository).findForUpdateByAccountNumber("1000000000");
+        inOrder.verify(accountRepository).findForUpdateByAccountNumber("2000000000");
+        inOrder.verify(lockService).unlockAll(List.of("2000000000", "1000000000"));
+
+        // lock 을 푼 뒤에는 row lock 표시가 남지 않는다.
+        databaseLockService.lockIfRequired("3000000000");
+        verify(accountRepository, never()).findForUpdateByAccountNumber("3000000000");
+    }
+
+    @Test
+    @DisplayName("조건부 UPDATE 방식 - lock 없이 이체")
+    void transfer_lockDelegated() {
+        // given
+        TransferService transferService = new TransferService(
+                transactionService, lockService, databaseLockService, accountLockPolicy, BalanceMode.ATOMIC_SQL);
+        given(accountLockPolicy.isLockDelegated(anyString())).willReturn(true);
+
+        // when
+        transferService.transfer(1L, "2000000000", "1000000000", 1000L);
+
+        // then
+        verify(lockService, never()).lockAll(any());
+        verify(transactionService, times(1)).transfer(1L, "2000000000", "1000000000", 1000L);
+    }
+
+    @Test
+    @DisplayName("이체 실패 - 출금 계좌에 실패 거래 저장")
+    void transfer_failedTransactionSaved() {
+        // given
+        TransferService transferService = new TransferService(
+                transactionService, lockService, databaseLockService, accountLockPolicy, BalanceMode.LOCK);
+        given(transactionService.transfer(anyLong(), anyString(), anyString(), anyLong()))
+                .willThrow(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transferService.transfer(
+                        new Transfer.Request(1L, "2000000000", "1000000000", 1000L)));
+
+        // then
+        verify(transactionService, times(1)).saveAndFailedUseTransaction(
+                TransactionType.TRANSFER_OUT, TransactionResultType.F, "2000000000", 1000L);
+        verify(lockService, times(1)).unlockAll(List.of("2000000000", "1000000000"));
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+    }
+}